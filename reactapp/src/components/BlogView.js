@@ -9,6 +9,7 @@ export default function BlogView({ user }) {
   const navigate = useNavigate();
   const [blog, setBlog] = useState(null);
   const [comments, setComments] = useState([]);
+  const [related, setRelated] = useState([]);
   const [newComment, setNewComment] = useState('');
   const [loading, setLoading] = useState(true);
   const [viewCounted, setViewCounted] = useState(false);
@@ -16,6 +17,7 @@ export default function BlogView({ user }) {
   useEffect(() => {
     fetchBlog();
     fetchComments();
+    fetchRelated();
   }, [id]);
 
   // Separate useEffect for view counting
@@ -50,6 +52,11 @@ export default function BlogView({ user }) {
     }
   };
 
+  const fetchRelated = async () => {
+    const relatedData = await blogService.getRelatedBlogs(id);
+    setRelated(relatedData);
+  };
+
   const fetchComments = async () => {
     try {
       const commentsData = await commentService.getComments(id);
@@ -124,6 +131,21 @@ export default function BlogView({ user }) {
         </div>
       </article>
 
+      {related.length > 0 && (
+        <section className="related-section">
+          <h3>Related Articles</h3>
+          <ul className="related-list">
+            {related.map((item) => (
+              <li key={item.blogId}>
+                <button className="related-link" onClick={() => navigate(`/blog/${item.blogId}`)}>
+                  {item.title}
+                </button>
+              </li>
+            ))}
+          </ul>
+        </section>
+      )}
+
       <section className="comments-section">
         <h3>Comments ({comments.length})</h3>
         
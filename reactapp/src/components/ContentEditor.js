@@ -1,6 +1,7 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
 import { useParams } from 'react-router-dom';
 import * as blogService from '../services/blogService';
+import { createDraftSync } from '../services/draftSync';
 
 export default function ContentEditor({ user, onSave, onCancel }) {
   const { id: blogId } = useParams();
@@ -17,6 +18,10 @@ export default function ContentEditor({ user, onSave, onCancel }) {
   const [fetchingBlog, setFetchingBlog] = useState(false);
   const [previewMode, setPreviewMode] = useState(false);
   const [mediaFiles, setMediaFiles] = useState([]);
+  const [draftSavedAt, setDraftSavedAt] = useState(null);
+  const draftSync = useRef(null);
+  const latestBlog = useRef(blog);
+  latestBlog.current = blog;
 
   useEffect(() => {
     if (blogId) {
@@ -24,6 +29,18 @@ export default function ContentEditor({ user, onSave, onCancel }) {
     }
   }, [blogId]);
 
+  // Autosave edits to an existing blog as a server-side draft, sending only what changed
+  useEffect(() => {
+    if (!blogId) return undefined;
+    const interval = setInterval(async () => {
+      const sync = draftSync.current;
+      if (sync && await sync.save(latestBlog.current.title, latestBlog.current.content)) {
+        setDraftSavedAt(new Date());
+      }
+    }, 10000);
+    return () => clearInterval(interval);
+  }, [blogId]);
+
   const fetchBlog = async () => {
     setFetchingBlog(true);
     try {
@@ -38,6 +55,14 @@ export default function ContentEditor({ user, onSave, onCancel }) {
           seoDescription: blogData.seoDescription || '',
           published: blogData.published || false
         });
+        // Pick up where an earlier autosaved session left off
+        // getBlog falls back to an empty form, which has no id, when the blog could not be loaded
+        draftSync.current = createDraftSync(blogId, blogData.id ? blogData : null);
+        const draft = await draftSync.current.load();
+        if (draft) {
+          setBlog(prev => ({ ...prev, title: draft.title || prev.title, content: draft.content || '' }));
+          setDraftSavedAt(draft.updatedAt ? new Date(draft.updatedAt) : null);
+        }
       }
     } catch (error) {
       console.error('Error fetching blog:', error);
@@ -87,6 +112,9 @@ export default function ContentEditor({ user, onSave, onCancel }) {
       }
       
       if (result) {
+        if (blogId && draftSync.current) {
+          await draftSync.current.discard();
+        }
         alert('Blog published successfully!');
         // Reset form
         setBlog({ title: '', content: '', tags: '', category: '', seoTitle: '', seoDescription: '', published: false });
@@ -174,7 +202,10 @@ export default function ContentEditor({ user, onSave, onCancel }) {
       <div className="editor-header">
         <div className="editor-title">
           <h2>{blogId ? '✏️ Edit Blog' : '✨ Create New Blog'}</h2>
-          <p className="editor-subtitle">Share your thoughts with the world</p>
+          <p className="editor-subtitle">
+            Share your thoughts with the world
+            {draftSavedAt && ` · Draft saved ${draftSavedAt.toLocaleTimeString()}`}
+          </p>
         </div>
         <div className="editor-actions">
           <button 
@@ -1,4 +1,5 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef } from 'react';
+import { createDraftSync } from '../services/draftSync';
 
 const MobileBlogEditor = ({ onSave, onCancel, initialData = null }) => {
   const [blog, setBlog] = useState({
@@ -11,6 +12,7 @@ const MobileBlogEditor = ({ onSave, onCancel, initialData = null }) => {
   const [isOffline, setIsOffline] = useState(!navigator.onLine);
   const [savedDrafts, setSavedDrafts] = useState([]);
   const [showPreview, setShowPreview] = useState(false);
+  const draftSync = useRef(null);
 
   useEffect(() => {
     // Load initial data if editing
@@ -18,6 +20,18 @@ const MobileBlogEditor = ({ onSave, onCancel, initialData = null }) => {
       setBlog(initialData);
     }
 
+    // Existing blogs also autosave to a server-side draft
+    draftSync.current = null;
+    if (initialData?.id) {
+      const sync = createDraftSync(initialData.id, initialData);
+      draftSync.current = sync;
+      sync.load().then(draft => {
+        if (draft && draftSync.current === sync) {
+          setBlog(prev => ({ ...prev, title: draft.title || prev.title, content: draft.content || '' }));
+        }
+      });
+    }
+
     // Load saved drafts from localStorage
     loadSavedDrafts();
 
@@ -64,6 +78,10 @@ const MobileBlogEditor = ({ onSave, onCancel, initialData = null }) => {
 
     localStorage.setItem('blogDrafts', JSON.stringify(updatedDrafts));
     setSavedDrafts(updatedDrafts);
+
+    if (!isOffline && draftSync.current) {
+      draftSync.current.save(blog.title, blog.content);
+    }
   };
 
   const handleSave = async () => {
@@ -75,6 +93,9 @@ const MobileBlogEditor = ({ onSave, onCancel, initialData = null }) => {
 
     try {
       await onSave(blog);
+      if (draftSync.current) {
+        await draftSync.current.discard();
+      }
       // Remove from drafts after successful save
       const drafts = savedDrafts.filter(d => d.id !== blog.id);
       localStorage.setItem('blogDrafts', JSON.stringify(drafts));
@@ -46,6 +46,10 @@ const api = {
     getById: (id) => fetch(`${API_BASE_URL}/api/blogs/${id}`, {
       headers: getAuthHeaders()
     }),
+    // Same blog without counting a view
+    peek: (id) => fetch(`${API_BASE_URL}/api/blogs/${id}?view=false`, {
+      headers: getAuthHeaders()
+    }),
     create: (blog) => fetch(`${API_BASE_URL}/api/blogs`, {
       method: 'POST',
       headers: getAuthHeaders(),
@@ -59,6 +63,31 @@ const api = {
     delete: (id) => fetch(`${API_BASE_URL}/api/blogs/${id}`, {
       method: 'DELETE',
       headers: getAuthHeaders()
+    }),
+    patch: (id, delta) => fetch(`${API_BASE_URL}/api/blogs/${id}`, {
+      method: 'PATCH',
+      headers: getAuthHeaders(),
+      body: JSON.stringify(delta)
+    })
+  },
+
+  // Autosaved drafts of existing blogs
+  drafts: {
+    get: (blogId) => fetch(`${API_BASE_URL}/api/blogs/${blogId}/draft`, {
+      headers: getAuthHeaders()
+    }),
+    save: (blogId, delta) => fetch(`${API_BASE_URL}/api/blogs/${blogId}/draft`, {
+      method: 'PATCH',
+      headers: getAuthHeaders(),
+      body: JSON.stringify(delta)
+    }),
+    publish: (blogId) => fetch(`${API_BASE_URL}/api/blogs/${blogId}/draft/publish`, {
+      method: 'POST',
+      headers: getAuthHeaders()
+    }),
+    discard: (blogId) => fetch(`${API_BASE_URL}/api/blogs/${blogId}/draft`, {
+      method: 'DELETE',
+      headers: getAuthHeaders()
     })
   },
 
@@ -97,6 +97,17 @@ export const getUserBlogs = async (userId) => {
   }
 };
 
+// For editors reloading a blog they already show; does not count as a view
+export const peekBlogById = async (id) => {
+  try {
+    const response = await api.blogs.peek(id);
+    return response.ok ? await response.json() : null;
+  } catch (error) {
+    console.error('Error fetching blog:', error);
+    return null;
+  }
+};
+
 export const getBlog = async (id) => {
   const blog = await getBlogById(id);
   if (!blog) {
@@ -124,4 +135,50 @@ export const incrementView = async (id) => {
     console.error('Error incrementing view:', error);
     return false;
   }
-};
\ No newline at end of file
+};
+
+export const getRelatedBlogs = async (id, limit = 5) => {
+  try {
+    const response = await fetch(`/api/blogs/${id}/related?limit=${limit}`);
+    if (response.ok) {
+      const data = await response.json();
+      return Array.isArray(data.items) ? data.items : [];
+    }
+    return [];
+  } catch (error) {
+    console.error('Error fetching related blogs:', error);
+    return [];
+  }
+};
+
+export const getDraft = async (blogId) => {
+  try {
+    const response = await api.drafts.get(blogId);
+    return response.ok ? await response.json() : null;
+  } catch (error) {
+    console.error('Error fetching draft:', error);
+    return null;
+  }
+};
+
+// Resolves to { ok, status, data } so callers can tell a stale base (409) from other failures
+export const saveDraftDelta = async (blogId, delta) => {
+  try {
+    const response = await api.drafts.save(blogId, delta);
+    const data = await response.json().catch(() => null);
+    return { ok: response.ok, status: response.status, data };
+  } catch (error) {
+    console.error('Error saving draft:', error);
+    return { ok: false, status: 0, data: null };
+  }
+};
+
+export const discardDraft = async (blogId) => {
+  try {
+    const response = await api.drafts.discard(blogId);
+    return response.ok;
+  } catch (error) {
+    console.error('Error discarding draft:', error);
+    return false;
+  }
+};
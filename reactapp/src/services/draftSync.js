@@ -0,0 +1,72 @@
+import * as blogService from './blogService';
+
+// Smallest single-span edit turning before into after: keep the common prefix and suffix,
+// replace what lies between. Typing and pasting touch one span, so this is what autosave sends.
+export const diffOps = (before, after) => {
+  let prefix = 0;
+  const max = Math.min(before.length, after.length);
+  while (prefix < max && before.charCodeAt(prefix) === after.charCodeAt(prefix)) {
+    prefix++;
+  }
+  let suffix = 0;
+  while (suffix < max - prefix
+      && before.charCodeAt(before.length - 1 - suffix) === after.charCodeAt(after.length - 1 - suffix)) {
+    suffix++;
+  }
+  const ops = [];
+  if (prefix > 0) ops.push({ retain: prefix });
+  if (before.length - prefix - suffix > 0) ops.push({ delete: before.length - prefix - suffix });
+  if (after.length - prefix - suffix > 0) ops.push({ insert: after.slice(prefix, after.length - suffix) });
+  return ops;
+};
+
+// Autosaves an existing blog's draft as deltas against the copy the server last accepted.
+// blog is the copy the editor loaded ({ version, title, content }); it is the base until a draft exists.
+export const createDraftSync = (blogId, blog) => {
+  let synced = null; // { revision, baseVersion, title, content } held by the server
+
+  // loadBlog supplies the base when there is no draft
+  const rebase = async (loadBlog) => {
+    const draft = await blogService.getDraft(blogId);
+    if (draft) {
+      synced = { revision: draft.revision, title: draft.title, content: draft.content || '' };
+      return draft;
+    }
+    const current = await loadBlog();
+    synced = current ? { revision: null, baseVersion: current.version, title: current.title, content: current.content || '' } : null;
+    return null;
+  };
+
+  return {
+    // Resolves to the saved draft, if there is one
+    load: () => rebase(async () => blog),
+
+    save: async (title, content) => {
+      if (!synced) return false;
+      if (title === synced.title && content === synced.content) return true;
+      const delta = { ops: diffOps(synced.content, content) };
+      if (title !== synced.title) delta.title = title;
+      if (synced.revision != null) {
+        delta.baseRevision = synced.revision;
+      } else {
+        delta.baseVersion = synced.baseVersion;
+      }
+      const result = await blogService.saveDraftDelta(blogId, delta);
+      if (result.ok) {
+        synced = { revision: result.data.revision, title, content };
+        return true;
+      }
+      if (result.status === 409) {
+        // Saved elsewhere in the meantime; diff against that copy on the next save. Refetching
+        // the blog here must not count as a view.
+        await rebase(() => blogService.peekBlogById(blogId));
+      }
+      return false;
+    },
+
+    discard: () => {
+      synced = null;
+      return blogService.discardDraft(blogId);
+    }
+  };
+};
@@ -2,8 +2,10 @@ package com.examly.springapp;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SpringappApplication {
     public static void main(String[] args) {
         SpringApplication.run(SpringappApplication.class, args);
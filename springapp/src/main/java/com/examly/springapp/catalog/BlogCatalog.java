@@ -0,0 +1,363 @@
+package com.examly.springapp.catalog;
+
+import com.examly.springapp.model.BlogSummary;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Columnar in-memory copy of the listing fields of every blog. Each field is its own array indexed
+// by row; low-cardinality strings (status, category, tag, author) are dictionary-encoded to ints and
+// timestamps are epoch millis. Deleted rows are recycled by later inserts.
+// Every status, category, tag, author and the published flag also has a compressed bitmap of the
+// rows carrying it, so filters and FilterExpressions are answered with bitmap AND/OR/ANDNOT.
+//
+// Approximate footprint per row: 76 bytes of columns and references, a tag code array (16 + 4 per
+// tag), the slug and title strings (about 40 + length each with compact strings) and about 72 bytes
+// of id-to-row map entry. For 100k blogs with two tags, 60-character titles and 40-character slugs
+// PerformanceBenchmarkTest measures about 37 MB retained, against 50 MB for the same rows as
+// BlogSummary objects; getStats() reports the estimate for the live data.
+public class BlogCatalog {
+
+    private static final int[] NO_TAGS = new int[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Dictionary statuses = new Dictionary();
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary tags = new Dictionary();
+    private final Dictionary authors = new Dictionary();
+
+    private long[] ids = new long[256];
+    private String[] slugs = new String[256];
+    private String[] titles = new String[256];
+    private int[] statusCodes = new int[256];
+    private int[] categoryCodes = new int[256];
+    private int[][] tagCodes = new int[256][];
+    private long[] authorIds = new long[256];
+    private int[] authorCodes = new int[256];
+    private long[] createdAt = new long[256];
+    private long[] updatedAt = new long[256];
+    private long[] views = new long[256];
+    private final RoaringBitmap published = new RoaringBitmap();
+    private final RoaringBitmap live = new RoaringBitmap();
+
+    // Row bitmaps indexed by dictionary code
+    private final List<RoaringBitmap> statusRows = new ArrayList<>();
+    private final List<RoaringBitmap> categoryRows = new ArrayList<>();
+    private final List<RoaringBitmap> tagRows = new ArrayList<>();
+    private final List<RoaringBitmap> authorRows = new ArrayList<>();
+    private int rowCount;
+
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+    private int[] freeRows = new int[16];
+    private int freeCount;
+
+    // authorId may be null for blogs without an author
+    public void upsert(BlogSummary blog, Long authorId) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = rowsById.get(blog.getId());
+            int row;
+            if (existing != null) {
+                row = existing;
+                unindex(row);
+            } else {
+                row = allocateRow();
+            }
+            ids[row] = blog.getId();
+            slugs[row] = blog.getSlug();
+            titles[row] = blog.getTitle();
+            statusCodes[row] = statuses.encode(blog.getStatus());
+            categoryCodes[row] = categories.encode(blog.getCategory());
+            tagCodes[row] = encodeTags(blog.getTags());
+            authorIds[row] = authorId != null ? authorId : 0;
+            authorCodes[row] = authors.encode(blog.getAuthorName());
+            createdAt[row] = toMillis(blog.getCreatedAt());
+            updatedAt[row] = toMillis(blog.getUpdatedAt());
+            // Views only grow: a summary built from an entity loaded before a flush keeps the flushed count
+            long blogViews = blog.getViews() != null ? blog.getViews() : 0;
+            views[row] = existing != null ? Math.max(views[row], blogViews) : blogViews;
+            if (blog.isPublished()) {
+                published.add(row);
+            } else {
+                published.remove(row);
+            }
+            live.add(row);
+            rowsById.put(blog.getId(), row);
+            index(row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.remove(id);
+            if (row == null) return false;
+            unindex(row);
+            live.remove(row);
+            published.remove(row);
+            slugs[row] = null;
+            titles[row] = null;
+            tagCodes[row] = NO_TAGS;
+            if (freeCount == freeRows.length) freeRows = Arrays.copyOf(freeRows, freeCount * 2);
+            freeRows[freeCount++] = row;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addViews(long id, long delta) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.get(id);
+            if (row != null) views[row] += delta;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Up to query.limit rows after the cursor, in sort order. Filters are intersected as bitmaps,
+    // then the surviving rows feed a bounded heap, so the match set is never sorted as a whole.
+    public List<BlogSummary> query(CatalogQuery query) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap candidates = live.clone();
+            if (query.getPublished() != null) {
+                candidates = query.getPublished() ? RoaringBitmap.and(candidates, published) : RoaringBitmap.andNot(candidates, published);
+            }
+            if (query.getStatus() != null) candidates.and(rows(statusRows, statuses.lookup(query.getStatus())));
+            if (query.getCategory() != null) candidates.and(rows(categoryRows, categories.lookup(query.getCategory())));
+            if (query.getTag() != null) candidates.and(rows(tagRows, tags.lookup(query.getTag())));
+            if (query.getFilter() != null) candidates.and(query.getFilter().evaluate(resolver));
+
+            long[] keys = query.getSort() == CatalogQuery.Sort.VIEWS ? views : createdAt;
+            CatalogCursor after = query.getAfter();
+            int limit = Math.max(1, query.getLimit());
+
+            // Min-heap on the sort order, so the head is the weakest of the rows kept so far
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, (a, b) -> compare(keys, b, a));
+            IntIterator it = candidates.getIntIterator();
+            while (it.hasNext()) {
+                int row = it.next();
+                if (query.getAuthorId() != null && authorIds[row] != query.getAuthorId()) continue;
+                if (after != null && (keys[row] > after.getKey() || (keys[row] == after.getKey() && ids[row] >= after.getId()))) continue;
+                if (heap.size() < limit) {
+                    heap.add(row);
+                } else if (compare(keys, row, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(row);
+                }
+            }
+
+            List<Integer> rows = new ArrayList<>(heap);
+            rows.sort((a, b) -> compare(keys, a, b));
+            List<BlogSummary> results = new ArrayList<>(rows.size());
+            for (int row : rows) {
+                results.add(toSummary(row));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Ascending ids of the blogs matching the filter, for filtering search hits
+    public long[] matchingIds(FilterExpression filter) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = RoaringBitmap.and(filter.evaluate(resolver), live);
+            long[] matched = new long[matches.getCardinality()];
+            int i = 0;
+            IntIterator it = matches.getIntIterator();
+            while (it.hasNext()) {
+                matched[i++] = ids[it.next()];
+            }
+            Arrays.sort(matched);
+            return matched;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Resolves FilterExpression terms; only used under the read lock
+    private final FilterExpression.Resolver resolver = new FilterExpression.Resolver() {
+        @Override
+        public RoaringBitmap rows(String field, String value) {
+            switch (field) {
+                case FilterExpression.CATEGORY: return rows(categoryRows, categories.lookup(value));
+                case FilterExpression.TAG: return rows(tagRows, tags.lookup(value));
+                case FilterExpression.STATUS: return rows(statusRows, statuses.lookup(value));
+                case FilterExpression.AUTHOR: return rows(authorRows, authors.lookup(value));
+                case FilterExpression.PUBLISHED:
+                    return Boolean.parseBoolean(value) ? published : RoaringBitmap.andNot(live, published);
+                default: throw new IllegalArgumentException("Unknown filter field: " + field);
+            }
+        }
+
+        private RoaringBitmap rows(List<RoaringBitmap> bitmaps, int code) {
+            return BlogCatalog.rows(bitmaps, code);
+        }
+
+        @Override
+        public RoaringBitmap all() {
+            return live;
+        }
+    };
+
+    // Cursor that continues a listing after the given row
+    public static CatalogCursor cursorAfter(BlogSummary last, CatalogQuery.Sort sort) {
+        long key = sort == CatalogQuery.Sort.VIEWS ? last.getViews() : toMillis(last.getCreatedAt());
+        return new CatalogCursor(key, last.getId());
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rowsById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            long bytes = (long) ids.length * (8 * 5 + 4 * 3 + 8 * 3) + 72L * rowsById.size();
+            IntIterator it = live.getIntIterator();
+            while (it.hasNext()) {
+                int row = it.next();
+                bytes += 16 + 4L * tagCodes[row].length;
+                bytes += stringBytes(slugs[row]) + stringBytes(titles[row]);
+            }
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("blogs", rowsById.size());
+            stats.put("capacity", ids.length);
+            stats.put("categories", categories.size());
+            stats.put("tags", tags.size());
+            stats.put("authors", authors.size());
+            long bitmapBytes = published.getLongSizeInBytes() + live.getLongSizeInBytes();
+            for (List<RoaringBitmap> bitmaps : List.of(statusRows, categoryRows, tagRows, authorRows)) {
+                for (RoaringBitmap bitmap : bitmaps) bitmapBytes += bitmap.getLongSizeInBytes();
+            }
+            stats.put("estimatedBytes", bytes + bitmapBytes);
+            stats.put("bitmapBytes", bitmapBytes);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Descending by sort key, then by id
+    private int compare(long[] keys, int a, int b) {
+        if (keys[a] != keys[b]) return Long.compare(keys[b], keys[a]);
+        return Long.compare(ids[b], ids[a]);
+    }
+
+    private BlogSummary toSummary(int row) {
+        BlogSummary summary = new BlogSummary();
+        summary.setId(ids[row]);
+        summary.setSlug(slugs[row]);
+        summary.setTitle(titles[row]);
+        summary.setStatus(statuses.decode(statusCodes[row]));
+        summary.setCategory(categories.decode(categoryCodes[row]));
+        List<String> tagValues = new ArrayList<>(tagCodes[row].length);
+        for (int code : tagCodes[row]) {
+            tagValues.add(tags.decode(code));
+        }
+        summary.setTags(tagValues);
+        summary.setAuthorName(authors.decode(authorCodes[row]));
+        summary.setCreatedAt(fromMillis(createdAt[row]));
+        summary.setUpdatedAt(fromMillis(updatedAt[row]));
+        summary.setViews(views[row]);
+        summary.setPublished(published.contains(row));
+        return summary;
+    }
+
+    private void index(int row) {
+        add(statusRows, statusCodes[row], row);
+        add(categoryRows, categoryCodes[row], row);
+        add(authorRows, authorCodes[row], row);
+        for (int code : tagCodes[row]) {
+            add(tagRows, code, row);
+        }
+    }
+
+    private void unindex(int row) {
+        remove(statusRows, statusCodes[row], row);
+        remove(categoryRows, categoryCodes[row], row);
+        remove(authorRows, authorCodes[row], row);
+        for (int code : tagCodes[row]) {
+            remove(tagRows, code, row);
+        }
+    }
+
+    private static void add(List<RoaringBitmap> bitmaps, int code, int row) {
+        if (code < 0) return;
+        while (bitmaps.size() <= code) bitmaps.add(new RoaringBitmap());
+        bitmaps.get(code).add(row);
+    }
+
+    private static void remove(List<RoaringBitmap> bitmaps, int code, int row) {
+        if (code >= 0 && code < bitmaps.size()) bitmaps.get(code).remove(row);
+    }
+
+    // Rows for a dictionary code; unknown values get an empty bitmap
+    private static RoaringBitmap rows(List<RoaringBitmap> bitmaps, int code) {
+        return code >= 0 && code < bitmaps.size() ? bitmaps.get(code) : new RoaringBitmap();
+    }
+
+    private int allocateRow() {
+        if (freeCount > 0) return freeRows[--freeCount];
+        int row = rowCount++;
+        if (row == ids.length) grow(ids.length * 2);
+        return row;
+    }
+
+    private void grow(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        slugs = Arrays.copyOf(slugs, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        statusCodes = Arrays.copyOf(statusCodes, capacity);
+        categoryCodes = Arrays.copyOf(categoryCodes, capacity);
+        tagCodes = Arrays.copyOf(tagCodes, capacity);
+        authorIds = Arrays.copyOf(authorIds, capacity);
+        authorCodes = Arrays.copyOf(authorCodes, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        updatedAt = Arrays.copyOf(updatedAt, capacity);
+        views = Arrays.copyOf(views, capacity);
+    }
+
+    private int[] encodeTags(List<String> values) {
+        if (values == null || values.isEmpty()) return NO_TAGS;
+        int[] codes = new int[values.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = tags.encode(values.get(i));
+        }
+        return codes;
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time == null ? Long.MIN_VALUE : time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime fromMillis(long millis) {
+        return millis == Long.MIN_VALUE ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+                Math.floorMod(millis, 1000) * 1_000_000, ZoneOffset.UTC);
+    }
+}
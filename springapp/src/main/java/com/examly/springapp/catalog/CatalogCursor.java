@@ -0,0 +1,40 @@
+package com.examly.springapp.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset cursor over (sort key, id) for catalog listings, handed to clients as a URL-safe token
+public final class CatalogCursor {
+
+    private final long key;
+    private final long id;
+
+    public CatalogCursor(long key, long id) {
+        this.key = key;
+        this.id = id;
+    }
+
+    public long getKey() { return key; }
+    public long getId() { return id; }
+
+    public String encode() {
+        String raw = key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CatalogCursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int sep = raw.indexOf('|');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new CatalogCursor(Long.parseLong(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
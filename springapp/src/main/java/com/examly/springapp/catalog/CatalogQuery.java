@@ -0,0 +1,44 @@
+package com.examly.springapp.catalog;
+
+// Filters, sort order and page bounds for a catalog listing; null filters match everything
+public class CatalogQuery {
+
+    public enum Sort { NEWEST, VIEWS }
+
+    private Boolean published;
+    private String status;
+    private String category;
+    private String tag;
+    private Long authorId;
+    private FilterExpression filter;
+    private Sort sort = Sort.NEWEST;
+    private CatalogCursor after;
+    private int limit = 20;
+
+    public Boolean getPublished() { return published; }
+    public void setPublished(Boolean published) { this.published = published; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public String getTag() { return tag; }
+    public void setTag(String tag) { this.tag = tag; }
+
+    public Long getAuthorId() { return authorId; }
+    public void setAuthorId(Long authorId) { this.authorId = authorId; }
+
+    public FilterExpression getFilter() { return filter; }
+    public void setFilter(FilterExpression filter) { this.filter = filter; }
+
+    public Sort getSort() { return sort; }
+    public void setSort(Sort sort) { this.sort = sort; }
+
+    public CatalogCursor getAfter() { return after; }
+    public void setAfter(CatalogCursor after) { this.after = after; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+}
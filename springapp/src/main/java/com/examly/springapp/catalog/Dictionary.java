@@ -0,0 +1,38 @@
+package com.examly.springapp.catalog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Dictionary encoding for low-cardinality string columns; code -1 stands for null.
+// Codes are never reused, so an encoded column stays valid as values come and go.
+public class Dictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    public int encode(String value) {
+        if (value == null) return -1;
+        Integer code = codes.get(value);
+        if (code != null) return code;
+        values.add(value);
+        codes.put(value, values.size() - 1);
+        return values.size() - 1;
+    }
+
+    // Code of an already known value, or -2 so it matches no row
+    public int lookup(String value) {
+        if (value == null) return -1;
+        Integer code = codes.get(value);
+        return code != null ? code : -2;
+    }
+
+    public String decode(int code) {
+        return code < 0 ? null : values.get(code);
+    }
+
+    public int size() {
+        return values.size();
+    }
+}
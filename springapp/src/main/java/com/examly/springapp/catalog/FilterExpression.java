@@ -0,0 +1,203 @@
+package com.examly.springapp.catalog;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Boolean filter over catalog fields, e.g. category:tech AND (tag:java OR tag:"spring boot") AND NOT status:DRAFT.
+// Terms are field:value for category, tag, status and author, or a bare "published".
+// NOT binds tightest, then AND, then OR; keywords are case-insensitive.
+public abstract class FilterExpression {
+
+    public static final String CATEGORY = "category";
+    public static final String TAG = "tag";
+    public static final String STATUS = "status";
+    public static final String AUTHOR = "author";
+    public static final String PUBLISHED = "published";
+
+    // Supplies the bitmap of rows carrying a field value, and the bitmap of all live rows
+    public interface Resolver {
+        RoaringBitmap rows(String field, String value);
+        RoaringBitmap all();
+    }
+
+    public abstract RoaringBitmap evaluate(Resolver resolver);
+
+    public static FilterExpression parse(String text) {
+        Parser parser = new Parser(tokenize(text));
+        FilterExpression expression = parser.parseOr();
+        if (parser.position < parser.tokens.size()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.tokens.get(parser.position) + "' in filter");
+        }
+        return expression;
+    }
+
+    private static final class Term extends FilterExpression {
+        final String field;
+        final String value;
+
+        Term(String field, String value) {
+            this.field = field;
+            this.value = value;
+        }
+
+        @Override
+        public RoaringBitmap evaluate(Resolver resolver) {
+            return resolver.rows(field, value);
+        }
+    }
+
+    private static final class And extends FilterExpression {
+        final FilterExpression left;
+        final FilterExpression right;
+
+        And(FilterExpression left, FilterExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public RoaringBitmap evaluate(Resolver resolver) {
+            // "a AND NOT b" is a single ANDNOT instead of complementing b against every row
+            if (right instanceof Not) {
+                return RoaringBitmap.andNot(left.evaluate(resolver), ((Not) right).operand.evaluate(resolver));
+            }
+            return RoaringBitmap.and(left.evaluate(resolver), right.evaluate(resolver));
+        }
+    }
+
+    private static final class Or extends FilterExpression {
+        final FilterExpression left;
+        final FilterExpression right;
+
+        Or(FilterExpression left, FilterExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        public RoaringBitmap evaluate(Resolver resolver) {
+            return RoaringBitmap.or(left.evaluate(resolver), right.evaluate(resolver));
+        }
+    }
+
+    private static final class Not extends FilterExpression {
+        final FilterExpression operand;
+
+        Not(FilterExpression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public RoaringBitmap evaluate(Resolver resolver) {
+            return RoaringBitmap.andNot(resolver.all(), operand.evaluate(resolver));
+        }
+    }
+
+    private static final class Parser {
+        final List<String> tokens;
+        int position;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        FilterExpression parseOr() {
+            FilterExpression left = parseAnd();
+            while (acceptKeyword("OR")) {
+                left = new Or(left, parseAnd());
+            }
+            return left;
+        }
+
+        FilterExpression parseAnd() {
+            FilterExpression left = parseNot();
+            while (acceptKeyword("AND")) {
+                FilterExpression right = parseNot();
+                // A leading NOT is rewritten so And can use ANDNOT: NOT a AND b == b AND NOT a
+                left = left instanceof Not && !(right instanceof Not) ? new And(right, left) : new And(left, right);
+            }
+            return left;
+        }
+
+        FilterExpression parseNot() {
+            if (acceptKeyword("NOT")) {
+                return new Not(parseNot());
+            }
+            return parsePrimary();
+        }
+
+        FilterExpression parsePrimary() {
+            if (position >= tokens.size()) {
+                throw new IllegalArgumentException("Filter ends unexpectedly");
+            }
+            String token = tokens.get(position++);
+            if (token.equals("(")) {
+                FilterExpression inner = parseOr();
+                if (position >= tokens.size() || !tokens.get(position++).equals(")")) {
+                    throw new IllegalArgumentException("Missing ')' in filter");
+                }
+                return inner;
+            }
+            if (token.equalsIgnoreCase(PUBLISHED)) {
+                return new Term(PUBLISHED, "true");
+            }
+            int colon = token.indexOf(':');
+            if (colon <= 0 || colon == token.length() - 1) {
+                throw new IllegalArgumentException("Expected field:value in filter but found '" + token + "'");
+            }
+            String field = token.substring(0, colon).toLowerCase(Locale.ROOT);
+            String value = unquote(token.substring(colon + 1));
+            if (!field.equals(CATEGORY) && !field.equals(TAG) && !field.equals(STATUS)
+                    && !field.equals(AUTHOR) && !field.equals(PUBLISHED)) {
+                throw new IllegalArgumentException("Unknown filter field: " + field);
+            }
+            return new Term(field, value);
+        }
+
+        boolean acceptKeyword(String keyword) {
+            if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(keyword)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+    }
+
+    // Splits on whitespace and parentheses, keeping double-quoted values together
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        StringBuilder token = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+                token.append(c);
+            } else if (!quoted && (Character.isWhitespace(c) || c == '(' || c == ')')) {
+                if (token.length() > 0) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                }
+                if (c == '(' || c == ')') tokens.add(String.valueOf(c));
+            } else {
+                token.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Unterminated quote in filter");
+        }
+        if (token.length() > 0) tokens.add(token.toString());
+        return tokens;
+    }
+
+    private static String unquote(String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            return value.substring(1, value.length() - 1);
+        }
+        return value;
+    }
+}
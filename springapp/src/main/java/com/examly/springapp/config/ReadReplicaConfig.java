@@ -0,0 +1,75 @@
+package com.examly.springapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+// Replaces the single spring.datasource pool with a primary plus read replicas when
+// app.datasource.replicas.enabled is true; see application.properties for a local H2 setup.
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            DataSourceProperties properties,
+            @Value("${app.datasource.replicas.urls}") String[] urls,
+            @Value("${app.datasource.replicas.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replicas.password:${spring.datasource.password:}}") String password,
+            @Value("${app.datasource.replicas.sticky-ms:5000}") long stickyMs) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            if (url.trim().isEmpty()) continue;
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(url.trim())
+                    .username(username)
+                    .password(password)
+                    .build();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        System.out.println("ReadReplicaConfig: Routing read-only transactions to " + replicas.size() + " replicas");
+        return new ReadWriteRoutingDataSource(primary, replicas, stickyMs, ReadReplicaConfig::currentClient);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    // The signed-in user, else the caller's address; null outside a request
+    static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes instanceof ServletRequestAttributes) {
+            return "addr:" + ((ServletRequestAttributes) attributes).getRequest().getRemoteAddr();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,123 @@
+package com.examly.springapp.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Sends read-only transactions to the replicas in turn and everything else to the primary.
+// A client whose write committed in the last stickyMs reads from the primary, so it sees its own
+// writes even if the replicas lag. Must sit behind a LazyConnectionDataSourceProxy: the route is
+// chosen when the first statement runs, after the transaction's read-only flag is known.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    // Bound while a write transaction has registered its commit callback
+    private static final String WRITE_MARKER = ReadWriteRoutingDataSource.class.getName() + ".write";
+    private static final int MAX_TRACKED_CLIENTS = 10000;
+
+    private static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private final List<String> replicaKeys = new ArrayList<>();
+    private final long stickyMs;
+    private final Supplier<String> clientKey;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final ConcurrentHashMap<String, Long> lastWrites = new ConcurrentHashMap<>();
+
+    private final AtomicLong primaryRoutes = new AtomicLong();
+    private final AtomicLong replicaRoutes = new AtomicLong();
+    private final AtomicLong stickyRoutes = new AtomicLong();
+
+    // clientKey identifies who is running the current transaction, or returns null when unknown
+    public ReadWriteRoutingDataSource(DataSource primary, List<DataSource> replicas, long stickyMs, Supplier<String> clientKey) {
+        this.stickyMs = stickyMs;
+        this.clientKey = clientKey;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            String key = "replica-" + i;
+            replicaKeys.add(key);
+            targets.put(key, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    // Runs work against the primary even inside read-only transactions, for reads that fill
+    // shared caches and must not pick up a lagging replica's copy. Has no effect without replicas.
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_ONLY.get();
+        PRIMARY_ONLY.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) PRIMARY_ONLY.remove();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            primaryRoutes.incrementAndGet();
+            return PRIMARY;
+        }
+        String client = clientKey.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (client != null) rememberWriteOnCommit(client);
+            primaryRoutes.incrementAndGet();
+            return PRIMARY;
+        }
+        if (replicaKeys.isEmpty() || PRIMARY_ONLY.get() != null) {
+            primaryRoutes.incrementAndGet();
+            return PRIMARY;
+        }
+        Long lastWrite = client != null ? lastWrites.get(client) : null;
+        if (lastWrite != null && lastWrite + stickyMs > System.currentTimeMillis()) {
+            stickyRoutes.incrementAndGet();
+            return PRIMARY;
+        }
+        replicaRoutes.incrementAndGet();
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    private void rememberWriteOnCommit(String client) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(WRITE_MARKER)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(WRITE_MARKER, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(WRITE_MARKER);
+                if (status != STATUS_COMMITTED) return;
+                long now = System.currentTimeMillis();
+                if (lastWrites.size() >= MAX_TRACKED_CLIENTS) {
+                    lastWrites.values().removeIf(at -> at + stickyMs <= now);
+                }
+                lastWrites.put(client, now);
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("replicas", replicaKeys.size());
+        stats.put("primaryRoutes", primaryRoutes.get());
+        stats.put("replicaRoutes", replicaRoutes.get());
+        stats.put("stickyRoutes", stickyRoutes.get());
+        stats.put("stickyClients", lastWrites.size());
+        return stats;
+    }
+}
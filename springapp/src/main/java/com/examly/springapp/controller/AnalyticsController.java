@@ -1,11 +1,13 @@
 package com.examly.springapp.controller;
 
 import com.examly.springapp.service.AnalyticsService;
+import com.examly.springapp.service.LeaderboardService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 
 @RestController
@@ -16,6 +18,9 @@ public class AnalyticsController {
     @Autowired
     private AnalyticsService analyticsService;
     
+    @Autowired
+    private LeaderboardService leaderboardService;
+    
     @GetMapping("/content/{blogId}")
     public ResponseEntity<Map<String, Object>> getContentPerformance(@PathVariable Long blogId) {
         Map<String, Object> metrics = analyticsService.getContentPerformanceMetrics(blogId);
@@ -61,4 +66,21 @@ public class AnalyticsController {
         Map<String, Object> benchmarks = analyticsService.getPerformanceBenchmarks(blogId);
         return ResponseEntity.ok(benchmarks);
     }
+    
+    // metric is views, comments or likes; category narrows to that category's board
+    @GetMapping("/leaderboard/{metric}")
+    public ResponseEntity<Map<String, Object>> getLeaderboard(
+            @PathVariable String metric,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            Map<String, Object> response = new HashMap<>();
+            response.put("metric", metric);
+            response.put("category", category);
+            response.put("items", leaderboardService.top(metric, category, limit));
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
\ No newline at end of file
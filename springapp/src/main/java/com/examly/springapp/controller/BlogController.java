@@ -1,27 +1,114 @@
 package com.examly.springapp.controller;
 
+import com.examly.springapp.config.ReadWriteRoutingDataSource;
 import com.examly.springapp.model.Blog;
+import com.examly.springapp.search.SearchIndex;
+import com.examly.springapp.service.BlogSearchService;
+import com.examly.springapp.service.CatalogService;
 import com.examly.springapp.service.BlogService;
+import com.examly.springapp.service.LeaderboardService;
+import com.examly.springapp.service.PublishScheduler;
+import com.examly.springapp.service.RelatedPostsService;
+import com.examly.springapp.service.ResourceVersion;
+import com.examly.springapp.service.SearchCacheService;
+import com.examly.springapp.service.SingleFlight;
+import com.examly.springapp.service.SlugService;
+import com.examly.springapp.service.StaleVersionException;
+import com.examly.springapp.service.TrendingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.context.request.WebRequest;
 
+import java.net.URI;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/blogs")
-@CrossOrigin(origins = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE, RequestMethod.OPTIONS})
+@CrossOrigin(origins = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.PATCH, RequestMethod.DELETE, RequestMethod.OPTIONS})
 public class BlogController {
     
     @Autowired
     private BlogService blogService;
     
+    @Autowired
+    private BlogSearchService blogSearchService;
+    
+    @Autowired
+    private SearchCacheService searchCacheService;
+    
+    @Autowired
+    private CatalogService catalogService;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private RelatedPostsService relatedPostsService;
 
+    @Autowired
+    private PublishScheduler publishScheduler;
+
+    // Only present when read replicas are enabled
+    @Autowired(required = false)
+    private ReadWriteRoutingDataSource routingDataSource;
+    
+
+
+    // Deprecated: capped at app.blogs.list.max-size newest blogs, use /api/blogs/page instead
+    @Deprecated
     @GetMapping
     public ResponseEntity<List<Blog>> getAllBlogs() {
-        return ResponseEntity.ok(blogService.getAllBlogs());
+        return ResponseEntity.ok()
+                .header("Deprecation", "true")
+                .header("Link", "</api/blogs/page>; rel=\"successor-version\"")
+                .body(blogService.getRecentBlogs());
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<Map<String, Object>> getBlogPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) Boolean published,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long authorId) {
+        try {
+            return ResponseEntity.ok(blogService.getBlogPage(cursor, size, published, category, status, authorId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // Listing served from the in-memory catalog; sort is "newest" (default) or "views", and filter
+    // takes expressions such as: category:tech AND (tag:java OR tag:kotlin) AND NOT status:DRAFT
+    @GetMapping("/catalog")
+    public ResponseEntity<Map<String, Object>> getCatalogPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) Boolean published,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String tag,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long authorId,
+            @RequestParam(required = false) String filter) {
+        try {
+            return ResponseEntity.ok(catalogService.list(cursor, size, sort, published, category, tag, status, authorId, filter));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
     
     @PostMapping
@@ -38,12 +125,49 @@ public class BlogController {
         }
     }
 
+    // view=false reads the blog without counting a view, for editors reloading their own copy
     @GetMapping("/{id}")
-    public ResponseEntity<Blog> getBlogById(@PathVariable Long id) {
-        Blog blog = blogService.getBlogById(id);
+    public ResponseEntity<Blog> getBlogById(@PathVariable Long id, @RequestParam(defaultValue = "true") boolean view,
+            WebRequest request) {
+        ResourceVersion version = blogService.getBlogVersion(id);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            // checkNotModified has already written the validators to the response
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        Blog blog = view ? blogService.getBlogById(id) : blogService.peekBlog(id);
         if (blog == null) {
             return ResponseEntity.notFound().build();
         }
+        // Tagged from the copy being served, which may be newer than the validators checked above
+        version = blogService.getBlogVersion(blog);
+        return ResponseEntity.ok().eTag(version.getETag()).lastModified(version.getLastModified()).body(blog);
+    }
+
+    @GetMapping("/by-slug/{slug}")
+    public ResponseEntity<Blog> getBlogBySlug(@PathVariable String slug) {
+        SlugService.SlugMatch match = blogService.resolveSlug(slug);
+        if (match == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Blog blog = blogService.peekBlog(match.getBlogId());
+        if (blog == null || (!match.isAlias() && !slug.equals(blog.getSlug()))) {
+            // Renamed or deleted on another node since this one mapped the slug
+            match = blogService.refreshSlug(slug);
+            blog = match != null ? blogService.peekBlog(match.getBlogId()) : null;
+        }
+        if (blog == null) {
+            return ResponseEntity.notFound().build();
+        }
+        // An alias, unless the blog has since taken it back
+        if (!slug.equals(blog.getSlug())) {
+            return ResponseEntity.status(HttpStatus.MOVED_PERMANENTLY)
+                    .location(URI.create("/api/blogs/by-slug/" + blog.getSlug()))
+                    .build();
+        }
+        blogService.recordView(blog.getId());
         return ResponseEntity.ok(blog);
     }
 
@@ -53,6 +177,82 @@ public class BlogController {
         return ResponseEntity.ok().build();
     }
 
+    @PostMapping("/{id}/share")
+    public ResponseEntity<Void> recordShare(@PathVariable Long id) {
+        return trendingService.recordShare(id) ? ResponseEntity.ok().build() : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/{id}/related")
+    public ResponseEntity<Map<String, Object>> getRelated(@PathVariable Long id,
+                                                          @RequestParam(required = false) Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("blogId", id);
+        response.put("items", relatedPostsService.related(id, limit));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<Map<String, Object>> getTrending(@RequestParam(required = false) Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", trendingService.trending(limit));
+        response.put("halfLifeMinutes", trendingService.getHalfLifeMinutes());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Map<String, Object>> searchBlogs(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String tag,
+            @RequestParam(required = false) String author,
+            @RequestParam(required = false) String month,
+            @RequestParam(required = false) String filter,
+            @RequestParam(required = false) String mode) {
+        Map<String, String> filters = new HashMap<>();
+        if (category != null) filters.put(SearchIndex.FACET_CATEGORY, category);
+        if (tag != null) filters.put(SearchIndex.FACET_TAG, tag);
+        if (author != null) filters.put(SearchIndex.FACET_AUTHOR, author);
+        if (month != null) filters.put(SearchIndex.FACET_MONTH, month);
+        try {
+            return ResponseEntity.ok(blogSearchService.search(query, page, size, filters, filter, mode));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/search/popular")
+    public ResponseEntity<Map<String, Object>> getPopularSearches(@RequestParam(defaultValue = "20") int limit) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("queries", searchCacheService.getPopularQueries(Math.max(1, Math.min(limit, 100))));
+        response.put("cache", searchCacheService.getStats());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/search/warm")
+    public ResponseEntity<Map<String, Object>> warmSearchCache(@RequestParam(defaultValue = "20") int limit) {
+        int warmed = blogSearchService.warmPopular(Math.max(1, Math.min(limit, 100)));
+        return ResponseEntity.ok(Map.of("warmed", warmed));
+    }
+
+    @GetMapping("/metrics")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("views", blogService.getViewMetrics());
+        metrics.put("cache", blogService.getCacheStats());
+        metrics.put("search", blogSearchService.getStats());
+        metrics.put("catalog", catalogService.getStats());
+        metrics.put("leaderboards", leaderboardService.getStats());
+        metrics.put("trending", trendingService.getStats());
+        metrics.put("related", relatedPostsService.getStats());
+        metrics.put("scheduler", publishScheduler.getStats());
+        if (routingDataSource != null) {
+            metrics.put("datasource", routingDataSource.getStats());
+        }
+        return ResponseEntity.ok(metrics);
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Blog> updateBlog(@PathVariable Long id, @RequestBody Blog blogDetails) {
         Blog updatedBlog = blogService.updateBlog(id, blogDetails);
@@ -62,6 +262,60 @@ public class BlogController {
         return ResponseEntity.ok(updatedBlog);
     }
 
+    // Content edit as a TextDelta: {"baseVersion": 7, "ops": [{"retain": 120}, {"insert": "..."}]}.
+    // Answers with the new version rather than echoing the body back.
+    @PatchMapping("/{id}")
+    public ResponseEntity<Map<String, Object>> patchBlog(@PathVariable Long id, @RequestBody Map<String, Object> body) {
+        Object baseVersion = body.get("baseVersion");
+        if (!(baseVersion instanceof Number)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "baseVersion is required"));
+        }
+        try {
+            Blog patched = blogService.patchContent(id, ((Number) baseVersion).longValue(), body.get("ops"));
+            if (patched == null) {
+                return ResponseEntity.notFound().build();
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("id", patched.getId());
+            response.put("version", patched.getVersion());
+            response.put("length", patched.getContent().length());
+            response.put("updatedAt", patched.getUpdatedAt());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // {"publishAt": "2026-11-02T09:00:00"}, in server local time
+    @PostMapping("/{id}/schedule")
+    public ResponseEntity<?> schedulePublication(@PathVariable Long id, @RequestBody Map<String, String> body) {
+        try {
+            String publishAt = body.get("publishAt");
+            Blog blog = blogService.schedulePublication(id, publishAt != null ? LocalDateTime.parse(publishAt) : null);
+            if (blog == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(blog);
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid publishAt: " + e.getParsedString()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}/schedule")
+    public ResponseEntity<?> cancelScheduledPublication(@PathVariable Long id) {
+        try {
+            Blog blog = blogService.cancelScheduledPublication(id);
+            if (blog == null) {
+                return ResponseEntity.notFound().build();
+            }
+            return ResponseEntity.ok(blog);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @DeleteMapping("/{id}")
     @CrossOrigin(origins = "*")
     public ResponseEntity<Void> deleteBlog(@PathVariable Long id) {
@@ -80,10 +334,29 @@ public class BlogController {
             
             System.out.println("Blog deleted successfully - returning 204");
             return ResponseEntity.noContent().build();
+        } catch (DataIntegrityViolationException e) {
+            // Still referenced, e.g. by comments; nothing was deleted
+            System.err.println("Blog " + id + " is still referenced and was not deleted: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             System.err.println("ERROR in deleteBlog endpoint: " + e.getMessage());
             e.printStackTrace();
             return ResponseEntity.status(500).build();
         }
     }
+
+    // The edit was based on an old version, or lost a race with a concurrent edit
+    @ExceptionHandler({StaleVersionException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<Map<String, Object>> handleStaleVersion(RuntimeException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", e instanceof StaleVersionException ? e.getMessage() : "Blog was modified concurrently");
+        body.put("currentVersion", e instanceof StaleVersionException ? ((StaleVersionException) e).getCurrentVersion() : null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    // A request that waited on another request's load of the same blog past the timeout
+    @ExceptionHandler(SingleFlight.LoadTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleLoadTimeout(SingleFlight.LoadTimeoutException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+    }
 }
\ No newline at end of file
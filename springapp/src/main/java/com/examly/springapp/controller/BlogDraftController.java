@@ -0,0 +1,88 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.model.Blog;
+import com.examly.springapp.model.BlogDraft;
+import com.examly.springapp.service.BlogDraftService;
+import com.examly.springapp.service.StaleVersionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/blogs/{id}/draft")
+@CrossOrigin(origins = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PATCH, RequestMethod.DELETE, RequestMethod.OPTIONS})
+public class BlogDraftController {
+
+    @Autowired
+    private BlogDraftService draftService;
+
+    @GetMapping
+    public ResponseEntity<BlogDraft> getDraft(@PathVariable Long id) {
+        BlogDraft draft = draftService.getDraft(id);
+        if (draft == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(draft);
+    }
+
+    // Autosave: {"baseRevision": 3, "ops": [...], "title": "..."}. The first save of a draft sends
+    // no baseRevision and the blog's version as baseVersion; its ops apply to the blog's content.
+    @PatchMapping
+    public ResponseEntity<Map<String, Object>> saveDraft(@PathVariable Long id, @RequestBody Map<String, Object> body) {
+        try {
+            BlogDraft draft = draftService.saveDraft(id, optionalLong(body, "baseRevision"), optionalLong(body, "baseVersion"),
+                    body.get("ops"), body.get("title") instanceof String ? (String) body.get("title") : null);
+            if (draft == null) {
+                return ResponseEntity.notFound().build();
+            }
+            Map<String, Object> response = new HashMap<>();
+            response.put("blogId", draft.getBlogId());
+            response.put("revision", draft.getRevision());
+            response.put("baseVersion", draft.getBaseVersion());
+            response.put("length", draft.getContent() != null ? draft.getContent().length() : 0);
+            response.put("updatedAt", draft.getUpdatedAt());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/publish")
+    public ResponseEntity<Blog> publishDraft(@PathVariable Long id) {
+        Blog blog = draftService.publishDraft(id);
+        if (blog == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(blog);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> discardDraft(@PathVariable Long id) {
+        if (!draftService.discardDraft(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @ExceptionHandler({StaleVersionException.class, ObjectOptimisticLockingFailureException.class})
+    public ResponseEntity<Map<String, Object>> handleStaleVersion(RuntimeException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("error", e instanceof StaleVersionException ? e.getMessage() : "Draft was modified concurrently");
+        body.put("currentVersion", e instanceof StaleVersionException ? ((StaleVersionException) e).getCurrentVersion() : null);
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+    }
+
+    private static Long optionalLong(Map<String, Object> body, String key) {
+        Object value = body.get(key);
+        if (value == null) return null;
+        if (!(value instanceof Number)) {
+            throw new IllegalArgumentException(key + " must be a number");
+        }
+        return ((Number) value).longValue();
+    }
+}
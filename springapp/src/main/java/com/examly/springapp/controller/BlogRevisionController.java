@@ -0,0 +1,61 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.model.Blog;
+import com.examly.springapp.service.BlogRevisionService;
+import com.examly.springapp.service.BlogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/blogs/{id}/revisions")
+@CrossOrigin(origins = "*")
+public class BlogRevisionController {
+
+    @Autowired
+    private BlogRevisionService revisionService;
+
+    @Autowired
+    private BlogService blogService;
+
+    // Newest first, without content
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> listRevisions(@PathVariable Long id,
+                                                             @RequestParam(required = false) Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("items", revisionService.list(id, limit));
+        response.put("storage", revisionService.getStorage(id));
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/{revision}")
+    public ResponseEntity<Map<String, Object>> getRevision(@PathVariable Long id, @PathVariable int revision) {
+        Map<String, Object> result = revisionService.get(id, revision);
+        if (result == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/diff")
+    public ResponseEntity<Map<String, Object>> diffRevisions(@PathVariable Long id, @RequestParam int from, @RequestParam int to) {
+        Map<String, Object> result = revisionService.diff(id, from, to);
+        if (result == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    // Saves the revision's title and content as the blog's current state, itself a new revision
+    @PostMapping("/{revision}/restore")
+    public ResponseEntity<Blog> restoreRevision(@PathVariable Long id, @PathVariable int revision) {
+        Blog blog = blogService.restoreRevision(id, revision);
+        if (blog == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(blog);
+    }
+}
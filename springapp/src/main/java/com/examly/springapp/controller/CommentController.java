@@ -2,9 +2,12 @@ package com.examly.springapp.controller;
 
 import com.examly.springapp.model.Comment;
 import com.examly.springapp.service.CommentService;
+import com.examly.springapp.service.ResourceVersion;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -18,8 +21,16 @@ public class CommentController {
     private CommentService commentService;
     
     @GetMapping("/{blogId}")
-    public ResponseEntity<List<Comment>> getCommentsByBlogId(@PathVariable Long blogId) {
-        return ResponseEntity.ok(commentService.getCommentsByBlogId(blogId));
+    public ResponseEntity<List<Comment>> getCommentsByBlogId(@PathVariable Long blogId, WebRequest request) {
+        ResourceVersion version = commentService.getCommentsVersion(blogId);
+        if (request.checkNotModified(version.getETag(), version.getLastModified())) {
+            // checkNotModified has already written the validators to the response
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(version.getETag())
+                .lastModified(version.getLastModified())
+                .body(commentService.getCommentsByBlogId(blogId));
     }
     
     @PostMapping("/{blogId}")
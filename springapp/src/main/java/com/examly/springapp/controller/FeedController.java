@@ -0,0 +1,64 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.service.FeedService;
+import com.examly.springapp.service.RenderedXml;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.Map;
+
+@RestController
+@CrossOrigin(origins = "*")
+public class FeedController {
+
+    private static final MediaType RSS = MediaType.parseMediaType("application/rss+xml;charset=UTF-8");
+    private static final MediaType ATOM = MediaType.parseMediaType("application/atom+xml;charset=UTF-8");
+    private static final MediaType XML = MediaType.parseMediaType("application/xml;charset=UTF-8");
+
+    @Autowired
+    private FeedService feedService;
+
+    @GetMapping("/feed/rss.xml")
+    public ResponseEntity<byte[]> rss(WebRequest request) {
+        return serve(feedService.rss(), RSS, request);
+    }
+
+    @GetMapping("/feed/atom.xml")
+    public ResponseEntity<byte[]> atom(WebRequest request) {
+        return serve(feedService.atom(), ATOM, request);
+    }
+
+    @GetMapping("/sitemap.xml")
+    public ResponseEntity<byte[]> sitemapIndex(WebRequest request) {
+        return serve(feedService.sitemapIndex(), XML, request);
+    }
+
+    @GetMapping("/sitemap-{segment}.xml")
+    public ResponseEntity<byte[]> sitemapSegment(@PathVariable int segment, WebRequest request) {
+        RenderedXml document = feedService.sitemapSegment(segment);
+        if (document == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return serve(document, XML, request);
+    }
+
+    @GetMapping("/feed/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(feedService.getStats());
+    }
+
+    private ResponseEntity<byte[]> serve(RenderedXml document, MediaType type, WebRequest request) {
+        if (request.checkNotModified(document.getLastModified())) {
+            // checkNotModified has already written Last-Modified to the response
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok()
+                .contentType(type)
+                .lastModified(document.getLastModified())
+                .body(document.getBody());
+    }
+}
@@ -0,0 +1,32 @@
+package com.examly.springapp.controller;
+
+import com.examly.springapp.service.SuggestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/suggest")
+@CrossOrigin(origins = "*")
+public class SuggestController {
+    
+    @Autowired
+    private SuggestService suggestService;
+    
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> suggest(@RequestParam String prefix,
+                                                       @RequestParam(required = false) Integer limit) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("prefix", prefix);
+        response.put("suggestions", suggestService.suggest(prefix, limit));
+        return ResponseEntity.ok(response);
+    }
+    
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(suggestService.getStats());
+    }
+}
@@ -1,11 +1,18 @@
 package com.examly.springapp.model;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "blogs")
+@Table(name = "blogs", indexes = {
+    @Index(name = "idx_blogs_created_at_id", columnList = "createdAt, id"),
+    @Index(name = "idx_blogs_status_publish_at", columnList = "status, publishAt")
+})
+// Updates write only the changed columns, so a title or delta save does not rewrite the body
+@DynamicUpdate
 public class Blog {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,7 +32,10 @@ public class Blog {
     
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
-    private String status; // DRAFT, PUBLISHED, ARCHIVED
+    private String status; // DRAFT, SCHEDULED, PUBLISHED, ARCHIVED
+    
+    // When a SCHEDULED blog goes live
+    private LocalDateTime publishAt;
     
     // SEO fields
     private String seoTitle;
@@ -33,6 +43,7 @@ public class Blog {
     @Column(columnDefinition = "TEXT")
     private String seoDescription;
     
+    @Column(unique = true)
     private String slug;
     
     private String category;
@@ -42,9 +53,21 @@ public class Blog {
     private Long views = 0L;
     
     private String featuredImage;
+    
+    // Bumped on every entity update; write-behind view counts do not touch it
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;
 
     public Blog() {}
 
+    // Keyset pagination orders by (createdAt, id), so every row needs a timestamp
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) createdAt = LocalDateTime.now();
+        if (updatedAt == null) updatedAt = createdAt;
+    }
+
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
     
@@ -69,6 +92,9 @@ public class Blog {
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
     
+    public LocalDateTime getPublishAt() { return publishAt; }
+    public void setPublishAt(LocalDateTime publishAt) { this.publishAt = publishAt; }
+    
     public String getSeoTitle() { return seoTitle; }
     public void setSeoTitle(String seoTitle) { this.seoTitle = seoTitle; }
     
@@ -89,4 +115,7 @@ public class Blog {
     
     public String getFeaturedImage() { return featuredImage; }
     public void setFeaturedImage(String featuredImage) { this.featuredImage = featuredImage; }
+    
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.examly.springapp.model;
+
+import org.hibernate.annotations.DynamicUpdate;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Autosaved editor state for a blog, kept apart so autosaves never touch the blogs row,
+// its caches or its indexes until the draft is published
+@Entity
+@Table(name = "blog_drafts")
+@DynamicUpdate
+public class BlogDraft {
+    @Id
+    private Long blogId;
+
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String content;
+
+    // Blog version the draft was started from; publishing requires it to still be current
+    private Long baseVersion;
+
+    // Bumped on every autosave
+    @Version
+    private Long revision;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public BlogDraft() {}
+
+    public BlogDraft(Long blogId, String title, String content, Long baseVersion) {
+        this.blogId = blogId;
+        this.title = title;
+        this.content = content;
+        this.baseVersion = baseVersion;
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = createdAt;
+    }
+
+    public Long getBlogId() { return blogId; }
+    public void setBlogId(Long blogId) { this.blogId = blogId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public Long getBaseVersion() { return baseVersion; }
+    public void setBaseVersion(Long baseVersion) { this.baseVersion = baseVersion; }
+
+    public Long getRevision() { return revision; }
+    public void setRevision(Long revision) { this.revision = revision; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,91 @@
+package com.examly.springapp.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// One saved state of a blog's title and content. data holds either a full snapshot or a forward
+// delta from the previous revision (see DeltaCodec), both deflated; chainLength counts the deltas
+// since the last snapshot, which bounds how much has to be replayed to rebuild this revision.
+@Entity
+@Table(name = "blog_revisions",
+    uniqueConstraints = @UniqueConstraint(name = "uk_blog_revisions_blog_revision", columnNames = {"blogId", "revision"}))
+public class BlogRevision {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long blogId;
+
+    // 1, 2, 3, ... per blog
+    @Column(nullable = false)
+    private Integer revision;
+
+    private String title;
+
+    private boolean snapshot;
+
+    private int chainLength;
+
+    @Lob
+    @Column(nullable = false)
+    private byte[] data;
+
+    // data.length, so listings and storage totals need not read the blobs
+    private int storedBytes;
+
+    // Chars of content, and CRC32 of its UTF-16 chars to check reconstruction
+    private int contentLength;
+    private long checksum;
+
+    private LocalDateTime createdAt;
+
+    public BlogRevision() {}
+
+    public BlogRevision(Long blogId, Integer revision, String title, boolean snapshot, int chainLength,
+                        byte[] data, int contentLength, long checksum) {
+        this.blogId = blogId;
+        this.revision = revision;
+        this.title = title;
+        this.snapshot = snapshot;
+        this.chainLength = chainLength;
+        this.data = data;
+        this.storedBytes = data.length;
+        this.contentLength = contentLength;
+        this.checksum = checksum;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getBlogId() { return blogId; }
+    public void setBlogId(Long blogId) { this.blogId = blogId; }
+
+    public Integer getRevision() { return revision; }
+    public void setRevision(Integer revision) { this.revision = revision; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public boolean isSnapshot() { return snapshot; }
+    public void setSnapshot(boolean snapshot) { this.snapshot = snapshot; }
+
+    public int getChainLength() { return chainLength; }
+    public void setChainLength(int chainLength) { this.chainLength = chainLength; }
+
+    public byte[] getData() { return data; }
+    public void setData(byte[] data) { this.data = data; }
+
+    public int getStoredBytes() { return storedBytes; }
+    public void setStoredBytes(int storedBytes) { this.storedBytes = storedBytes; }
+
+    public int getContentLength() { return contentLength; }
+    public void setContentLength(int contentLength) { this.contentLength = contentLength; }
+
+    public long getChecksum() { return checksum; }
+    public void setChecksum(long checksum) { this.checksum = checksum; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
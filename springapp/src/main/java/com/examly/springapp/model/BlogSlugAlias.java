@@ -0,0 +1,43 @@
+package com.examly.springapp.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// Former slug of a blog, kept so old pretty URLs keep redirecting after a rename
+@Entity
+@Table(name = "blog_slug_aliases", indexes = {
+    @Index(name = "idx_blog_slug_aliases_blog_id", columnList = "blogId")
+})
+public class BlogSlugAlias {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(unique = true, nullable = false)
+    private String slug;
+    
+    @Column(nullable = false)
+    private Long blogId;
+    
+    private LocalDateTime createdAt;
+
+    public BlogSlugAlias() {}
+
+    public BlogSlugAlias(String slug, Long blogId) {
+        this.slug = slug;
+        this.blogId = blogId;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public String getSlug() { return slug; }
+    public void setSlug(String slug) { this.slug = slug; }
+    
+    public Long getBlogId() { return blogId; }
+    public void setBlogId(Long blogId) { this.blogId = blogId; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,108 @@
+package com.examly.springapp.model;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Read model for list and feed endpoints: never carries the article body or the author entity
+public class BlogSummary {
+    public static final int EXCERPT_LENGTH = 200;
+
+    private Long id;
+    private String slug;
+    private String title;
+    private String excerpt;
+    private String category;
+    private List<String> tags = new ArrayList<>();
+    private String authorName;
+    private Long views;
+    private String status;
+    private boolean published;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public BlogSummary() {}
+
+    // Used by JPQL constructor expressions; the query cuts excerpt to one character more than
+    // EXCERPT_LENGTH, which tells whether the body goes on
+    public BlogSummary(Long id, String slug, String title, String excerpt, String category, String authorName,
+                       Long views, String status, boolean published, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.slug = slug;
+        this.title = title;
+        this.excerpt = trimExcerpt(excerpt);
+        this.category = category;
+        this.authorName = authorName;
+        this.views = views;
+        this.status = status;
+        this.published = published;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Collapses whitespace runs to single spaces in one pass. When the body goes on past the
+    // excerpt, a word cut off at the end is dropped and "..." marks the rest.
+    private static String trimExcerpt(String text) {
+        if (text == null) return null;
+        // SQL SUBSTRING counts code points, not UTF-16 chars
+        boolean truncated = text.codePointCount(0, text.length()) > EXCERPT_LENGTH;
+        int end = truncated ? text.offsetByCodePoints(0, EXCERPT_LENGTH) : text.length();
+        StringBuilder excerpt = new StringBuilder(end + 3);
+        int lastSpace = -1;
+        boolean space = false;
+        for (int i = 0; i < end; i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = excerpt.length() > 0;
+            } else {
+                if (space) {
+                    lastSpace = excerpt.length();
+                    excerpt.append(' ');
+                    space = false;
+                }
+                excerpt.append(c);
+            }
+        }
+        if (!truncated) return excerpt.toString();
+        // Whitespace on either side of the cut means the last word is complete
+        boolean wordEnds = space || Character.isWhitespace(text.codePointAt(end));
+        if (!wordEnds && lastSpace > 0) excerpt.setLength(lastSpace);
+        return excerpt.append("...").toString();
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getSlug() { return slug; }
+    public void setSlug(String slug) { this.slug = slug; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getExcerpt() { return excerpt; }
+    public void setExcerpt(String excerpt) { this.excerpt = excerpt; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public List<String> getTags() { return tags; }
+    public void setTags(List<String> tags) { this.tags = tags; }
+
+    public String getAuthorName() { return authorName; }
+    public void setAuthorName(String authorName) { this.authorName = authorName; }
+
+    public Long getViews() { return views; }
+    public void setViews(Long views) { this.views = views; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public boolean isPublished() { return published; }
+    public void setPublished(boolean published) { this.published = published; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
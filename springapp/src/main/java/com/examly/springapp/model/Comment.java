@@ -1,5 +1,7 @@
 package com.examly.springapp.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import javax.persistence.*;
 import java.time.LocalDateTime;
 
@@ -35,7 +37,11 @@ public class Comment {
     public String getText() { return text; }
     public void setText(String text) { this.text = text; }
     
+    // Serialized as blogId only: comment lists are cached by their own validators, which a
+    // change to the embedded blog would not invalidate
+    @JsonIgnore
     public Blog getBlog() { return blog; }
+    public Long getBlogId() { return blog != null ? blog.getId() : null; }
     public void setBlog(Blog blog) { this.blog = blog; }
     
     public Long getParentCommentId() { return parentCommentId; }
@@ -0,0 +1,117 @@
+package com.examly.springapp.ranking;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Blogs ranked by a counter, highest first with ties broken by lower id.
+// Entries live in a skip list, so a score change is a remove and an insert in O(log n).
+// The first cacheSize entries are kept as an immutable snapshot that is only rebuilt when an
+// update reaches into it, so top-N reads are a sublist of that snapshot.
+// Blogs with a zero score are not ranked.
+public class Leaderboard {
+
+    private static final Comparator<Entry> ORDER = (a, b) -> a.score != b.score
+            ? Long.compare(b.score, a.score) : Long.compare(a.blogId, b.blogId);
+
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(ORDER);
+    private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final int cacheSize;
+    private volatile List<Entry> top;
+
+    public static final class Entry {
+        private final long blogId;
+        private final long score;
+
+        Entry(long blogId, long score) {
+            this.blogId = blogId;
+            this.score = score;
+        }
+
+        public long getBlogId() { return blogId; }
+        public long getScore() { return score; }
+    }
+
+    public Leaderboard(int cacheSize) {
+        this.cacheSize = Math.max(1, cacheSize);
+        this.top = Collections.emptyList();
+    }
+
+    public long score(long blogId) {
+        Entry entry = entries.get(blogId);
+        return entry == null ? 0 : entry.score;
+    }
+
+    public synchronized void set(long blogId, long score) {
+        Entry old = entries.get(blogId);
+        if (old != null && old.score == score) return;
+        Entry updated = score > 0 ? new Entry(blogId, score) : null;
+        if (old != null) {
+            ranking.remove(old);
+            entries.remove(blogId);
+        }
+        if (updated != null) {
+            ranking.add(updated);
+            entries.put(blogId, updated);
+        }
+        if (touchesTop(old) || touchesTop(updated)) {
+            top = null;
+        }
+    }
+
+    public synchronized void add(long blogId, long delta) {
+        set(blogId, score(blogId) + delta);
+    }
+
+    public void remove(long blogId) {
+        set(blogId, 0);
+    }
+
+    public List<Entry> top(int limit) {
+        List<Entry> snapshot = top;
+        if (snapshot == null) {
+            snapshot = rebuildTop();
+        }
+        return snapshot.subList(0, Math.max(0, Math.min(limit, snapshot.size())));
+    }
+
+    public Set<Long> blogIds() {
+        return new HashSet<>(entries.keySet());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        ranking.clear();
+        entries.clear();
+        top = Collections.emptyList();
+    }
+
+    // Whether an entry sorts inside the cached snapshot, or the snapshot has room for it
+    private boolean touchesTop(Entry entry) {
+        if (entry == null) return false;
+        List<Entry> snapshot = top;
+        if (snapshot == null) return false;
+        if (snapshot.size() < cacheSize) return true;
+        return ORDER.compare(entry, snapshot.get(snapshot.size() - 1)) <= 0;
+    }
+
+    private synchronized List<Entry> rebuildTop() {
+        if (top != null) return top;
+        List<Entry> snapshot = new ArrayList<>(cacheSize);
+        Iterator<Entry> it = ranking.iterator();
+        while (snapshot.size() < cacheSize && it.hasNext()) {
+            snapshot.add(it.next());
+        }
+        top = Collections.unmodifiableList(snapshot);
+        return top;
+    }
+}
@@ -0,0 +1,164 @@
+package com.examly.springapp.ranking;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Exponentially decayed activity scores using forward decay: an event of weight w at time t adds
+// w * 2^((t - landmark) / halfLife), so stored scores never need aging and their order only changes
+// when a blog receives an event. That lets the top-K set be kept exact by re-positioning just the
+// blog that was hit. rebase() moves the landmark forward before the exponent grows large, dropping
+// blogs whose score has decayed away.
+// Scores live in parallel primitive arrays indexed by a slot per blog; all methods are synchronized.
+public class TrendingScores {
+
+    // Below this, in events at the current time, a blog is forgotten on rebase
+    private static final double MIN_SCORE = 0.01;
+
+    private final double decayPerMs;
+    private final int topK;
+    private long landmark;
+
+    private long[] blogIds = new long[256];
+    private double[] scores = new double[256];
+    private final Map<Long, Integer> slots = new HashMap<>();
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int used;
+
+    // Slots of the highest scores, best first
+    private final int[] top;
+    private int topSize;
+    private boolean topDirty;
+
+    public TrendingScores(long halfLifeMs, int topK, long now) {
+        this.decayPerMs = Math.log(2) / Math.max(1, halfLifeMs);
+        this.topK = Math.max(1, topK);
+        this.top = new int[this.topK];
+        this.landmark = now;
+    }
+
+    public synchronized void record(long blogId, double weight, long now) {
+        if (weight <= 0) return;
+        // Keeps the growth factor far from overflow if rebase() has not run for many half-lives
+        if (decayPerMs * (now - landmark) > 50) rebase(now);
+        Integer slot = slots.get(blogId);
+        if (slot == null) {
+            slot = allocate(blogId);
+        }
+        scores[slot] += weight * Math.exp(decayPerMs * (now - landmark));
+        promote(slot);
+    }
+
+    public synchronized void remove(long blogId) {
+        Integer slot = slots.remove(blogId);
+        if (slot == null) return;
+        scores[slot] = 0;
+        release(slot);
+        for (int i = 0; i < topSize; i++) {
+            if (top[i] == slot) {
+                System.arraycopy(top, i + 1, top, i, topSize - i - 1);
+                topSize--;
+                // The next best blog is only known after a full pass, done on the next rebase
+                topDirty = true;
+                break;
+            }
+        }
+    }
+
+    // Ids of the current leaders, best first
+    public synchronized long[] topIds(int limit) {
+        int n = Math.min(limit, topSize);
+        long[] ids = new long[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = blogIds[top[i]];
+        }
+        return ids;
+    }
+
+    public synchronized double score(long blogId, long now) {
+        Integer slot = slots.get(blogId);
+        return slot == null ? 0 : scores[slot] * Math.exp(-decayPerMs * (now - landmark));
+    }
+
+    // Moves the landmark to now, forgets blogs that decayed below MIN_SCORE and rebuilds the top set
+    // if a removal left it short
+    public synchronized void rebase(long now) {
+        double factor = Math.exp(-decayPerMs * (now - landmark));
+        landmark = now;
+        for (int slot = 0; slot < used; slot++) {
+            if (scores[slot] == 0) continue;
+            scores[slot] *= factor;
+            if (scores[slot] < MIN_SCORE) {
+                slots.remove(blogIds[slot]);
+                scores[slot] = 0;
+                release(slot);
+                topDirty = true;
+            }
+        }
+        if (topDirty) {
+            rebuildTop();
+        }
+    }
+
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    private int allocate(long blogId) {
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (used == blogIds.length) {
+                blogIds = Arrays.copyOf(blogIds, used * 2);
+                scores = Arrays.copyOf(scores, used * 2);
+            }
+            slot = used++;
+        }
+        blogIds[slot] = blogId;
+        scores[slot] = 0;
+        slots.put(blogId, slot);
+        return slot;
+    }
+
+    private void release(int slot) {
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+
+    // Scores only grow between rebases, so a hit blog can only move up
+    private void promote(int slot) {
+        int position = -1;
+        for (int i = 0; i < topSize; i++) {
+            if (top[i] == slot) {
+                position = i;
+                break;
+            }
+        }
+        if (position < 0) {
+            if (topSize < topK) {
+                position = topSize++;
+            } else if (scores[slot] > scores[top[topK - 1]]) {
+                position = topK - 1;
+            } else {
+                return;
+            }
+        }
+        while (position > 0 && scores[top[position - 1]] < scores[slot]) {
+            top[position] = top[position - 1];
+            position--;
+        }
+        top[position] = slot;
+    }
+
+    private void rebuildTop() {
+        topSize = 0;
+        for (int slot = 0; slot < used; slot++) {
+            if (scores[slot] > 0) promote(slot);
+        }
+        topDirty = false;
+    }
+}
@@ -0,0 +1,18 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.model.BlogDraft;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface BlogDraftRepository extends JpaRepository<BlogDraft, Long> {
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BlogDraft d WHERE d.blogId = :blogId")
+    int deleteByBlogId(@Param("blogId") Long blogId);
+}
@@ -1,10 +1,18 @@
 package com.examly.springapp.repository;
 
 import com.examly.springapp.model.Blog;
+import com.examly.springapp.model.BlogSummary;
 import com.examly.springapp.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +22,97 @@ public interface BlogRepository extends JpaRepository<Blog, Long> {
     List<Blog> findByPublishedTrue();
     List<Blog> findByCategory(String category);
     Optional<Blog> findBySlug(String slug);
+    
+    @Query("SELECT b.id FROM Blog b WHERE b.slug = :slug")
+    Optional<Long> findIdBySlug(@Param("slug") String slug);
+    
+    // Rows of (version, updatedAt) for conditional GETs
+    @Query("SELECT b.version, b.updatedAt, b.views FROM Blog b WHERE b.id = :id")
+    List<Object[]> findVersionById(@Param("id") Long id);
+    
+    // Oldest first, so where legacy rows share a slug the first owner is seen first
+    @Query("SELECT b.slug, b.id FROM Blog b WHERE b.slug IS NOT NULL ORDER BY b.id")
+    List<Object[]> findAllSlugs();
+    
+    @Query("SELECT b.id FROM Blog b WHERE b.slug IS NULL OR b.slug = ''")
+    List<Long> findIdsWithoutSlug();
+    
+    @Query("SELECT b.id, b.title FROM Blog b WHERE b.id IN :ids ORDER BY b.id")
+    List<Object[]> findTitlesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT b.slug FROM Blog b WHERE b.id = :id")
+    Optional<String> findSlugById(@Param("id") Long id);
+    
+    // Slug backfill; leaves the version alone since the content is unchanged
+    @Transactional
+    @Modifying
+    @Query("UPDATE Blog b SET b.slug = :slug WHERE b.id = :id")
+    int updateSlug(@Param("id") Long id, @Param("slug") String slug);
     List<Blog> findByTitleContainingIgnoreCaseOrContentContainingIgnoreCase(String title, String content);
     long countByPublishedTrue();
-}
\ No newline at end of file
+    List<Blog> findAllByOrderByCreatedAtDescIdDesc(Pageable pageable);
+    List<Blog> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    String SUMMARY_SELECT = "SELECT new com.examly.springapp.model.BlogSummary(" +
+            "b.id, b.slug, b.title, SUBSTRING(b.content, 1, 201), b.category, a.username, " +
+            "b.views, b.status, b.published, b.createdAt, b.updatedAt) " +
+            "FROM Blog b LEFT JOIN b.author a ";
+    
+    // Keyset page ordered by (createdAt, id) descending; a null cursor starts from the newest blog
+    @Query(SUMMARY_SELECT +
+           "WHERE (:published IS NULL OR b.published = :published) " +
+           "AND (:category IS NULL OR b.category = :category) " +
+           "AND (:status IS NULL OR b.status = :status) " +
+           "AND (:authorId IS NULL OR a.id = :authorId) " +
+           "AND (:cursorCreatedAt IS NULL OR b.createdAt < :cursorCreatedAt " +
+           "     OR (b.createdAt = :cursorCreatedAt AND b.id < :cursorId)) " +
+           "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BlogSummary> findSummaryPage(@Param("published") Boolean published,
+                                      @Param("category") String category,
+                                      @Param("status") String status,
+                                      @Param("authorId") Long authorId,
+                                      @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+                                      @Param("cursorId") Long cursorId,
+                                      Pageable pageable);
+    
+    @Query(SUMMARY_SELECT + "WHERE b.id IN :ids")
+    List<BlogSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Rows of (blogId, tag) for stitching tags onto summaries without loading the entities
+    @Query("SELECT b.id, t FROM Blog b JOIN b.tags t WHERE b.id IN :ids")
+    List<Object[]> findTagsByBlogIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Rows of (id, title, views, author username) for building type-ahead suggestions
+    @Query("SELECT b.id, b.title, b.views, a.username FROM Blog b LEFT JOIN b.author a")
+    List<Object[]> findSuggestionRows();
+    
+    @Query("SELECT b.id, t FROM Blog b JOIN b.tags t")
+    List<Object[]> findAllTags();
+    
+    // Listing columns for the in-memory catalog, in id order for batched loading
+    @Query("SELECT b.id, b.slug, b.title, b.status, b.published, b.category, a.id, a.username, " +
+           "b.createdAt, b.updatedAt, b.views FROM Blog b LEFT JOIN b.author a " +
+           "WHERE b.id > :afterId ORDER BY b.id")
+    List<Object[]> findCatalogRows(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Rows of (id, title, category, views) in id order for batched leaderboard loading
+    @Query("SELECT b.id, b.title, b.category, b.views FROM Blog b WHERE b.id > :afterId ORDER BY b.id")
+    List<Object[]> findLeaderboardRows(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Rows of (id, updatedAt) for published blogs in an id range, in id order for sitemap segments
+    @Query("SELECT b.id, b.updatedAt FROM Blog b WHERE b.published = true AND b.id > :afterId AND b.id <= :lastId ORDER BY b.id")
+    List<Object[]> findSitemapRows(@Param("afterId") Long afterId, @Param("lastId") Long lastId, Pageable pageable);
+    
+    @Query("SELECT MAX(b.id) FROM Blog b")
+    Long findMaxId();
+    
+    // Rows of (id, publishAt) for scheduled blogs due by the given time, in id order for batched loading
+    @Query("SELECT b.id, b.publishAt FROM Blog b WHERE b.status = 'SCHEDULED' AND b.publishAt <= :until AND b.id > :afterId ORDER BY b.id")
+    List<Object[]> findScheduledRows(@Param("until") LocalDateTime until, @Param("afterId") Long afterId, Pageable pageable);
+    
+    // Publishes a due scheduled blog; the node that gets 1 back owns the publication
+    @Modifying
+    @Query("UPDATE Blog b SET b.status = 'PUBLISHED', b.published = true, b.updatedAt = :now, b.version = b.version + 1 " +
+           "WHERE b.id = :id AND b.status = 'SCHEDULED' AND b.publishAt <= :now")
+    int claimScheduled(@Param("id") Long id, @Param("now") LocalDateTime now);
+}
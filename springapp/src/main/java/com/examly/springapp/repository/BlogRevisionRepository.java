@@ -0,0 +1,41 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.model.BlogRevision;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Repository
+public interface BlogRevisionRepository extends JpaRepository<BlogRevision, Long> {
+
+    // Rows of (revision, title, snapshot, contentLength, stored bytes, createdAt), newest first, without loading data
+    @Query("SELECT r.revision, r.title, r.snapshot, r.contentLength, r.storedBytes, r.createdAt FROM BlogRevision r " +
+           "WHERE r.blogId = :blogId ORDER BY r.revision DESC")
+    List<Object[]> findListing(@Param("blogId") Long blogId, Pageable pageable);
+
+    // Rows of (revision, chainLength, checksum) for the newest revision, as a one-row page
+    @Query("SELECT r.revision, r.chainLength, r.checksum FROM BlogRevision r WHERE r.blogId = :blogId ORDER BY r.revision DESC")
+    List<Object[]> findLatest(@Param("blogId") Long blogId, Pageable pageable);
+
+    @Query("SELECT MAX(r.revision) FROM BlogRevision r WHERE r.blogId = :blogId AND r.snapshot = true AND r.revision <= :revision")
+    Integer findSnapshotAtOrBefore(@Param("blogId") Long blogId, @Param("revision") int revision);
+
+    // The snapshot and deltas needed to rebuild a revision, in replay order
+    @Query("SELECT r FROM BlogRevision r WHERE r.blogId = :blogId AND r.revision BETWEEN :first AND :last ORDER BY r.revision")
+    List<BlogRevision> findChain(@Param("blogId") Long blogId, @Param("first") int first, @Param("last") int last);
+
+    // Rows of (revision count, stored bytes, chars of content across all revisions)
+    @Query("SELECT COUNT(r), COALESCE(SUM(r.storedBytes), 0), COALESCE(SUM(r.contentLength), 0) FROM BlogRevision r WHERE r.blogId = :blogId")
+    List<Object[]> findStorage(@Param("blogId") Long blogId);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BlogRevision r WHERE r.blogId = :blogId")
+    int deleteByBlogId(@Param("blogId") Long blogId);
+}
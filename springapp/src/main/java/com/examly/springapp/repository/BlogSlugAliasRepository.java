@@ -0,0 +1,27 @@
+package com.examly.springapp.repository;
+
+import com.examly.springapp.model.BlogSlugAlias;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface BlogSlugAliasRepository extends JpaRepository<BlogSlugAlias, Long> {
+    
+    Optional<BlogSlugAlias> findBySlug(String slug);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BlogSlugAlias a WHERE a.blogId = :blogId")
+    int deleteByBlogId(@Param("blogId") Long blogId);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM BlogSlugAlias a WHERE a.slug = :slug")
+    int deleteBySlug(@Param("slug") String slug);
+}
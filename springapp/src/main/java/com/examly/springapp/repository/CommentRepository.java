@@ -2,11 +2,23 @@ package com.examly.springapp.repository;
 
 import com.examly.springapp.model.Comment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    List<Comment> findByBlogId(Long blogId);
+    // Spelled out: Comment#getBlogId would otherwise be taken for a persistent attribute
+    @Query("SELECT c FROM Comment c WHERE c.blog.id = :blogId")
+    List<Comment> findByBlogId(@Param("blogId") Long blogId);
+    
+    // Single row of (newest comment id, comment count, newest comment date) for conditional GETs
+    @Query("SELECT MAX(c.id), COUNT(c), MAX(c.createdDate) FROM Comment c WHERE c.blog.id = :blogId")
+    List<Object[]> findVersionByBlogId(@Param("blogId") Long blogId);
+    
+    // Rows of (blogId, comment count) for loading the comment leaderboards
+    @Query("SELECT c.blog.id, COUNT(c) FROM Comment c GROUP BY c.blog.id")
+    List<Object[]> countByBlog();
 }
\ No newline at end of file
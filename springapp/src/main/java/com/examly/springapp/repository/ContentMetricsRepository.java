@@ -1,6 +1,7 @@
 package com.examly.springapp.repository;
 
 import com.examly.springapp.model.ContentMetrics;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -28,5 +29,9 @@ public interface ContentMetricsRepository extends JpaRepository<ContentMetrics,
     Long getTotalViews(@Param("blogId") Long blogId);
     
     @Query("SELECT cm FROM ContentMetrics cm ORDER BY cm.engagementRate DESC")
-    List<ContentMetrics> findTopPerformingContent();
+    List<ContentMetrics> findTopPerformingContent(Pageable pageable);
+    
+    // Rows of (blogId, total likes) for loading the like leaderboards
+    @Query("SELECT cm.blog.id, SUM(cm.likes) FROM ContentMetrics cm GROUP BY cm.blog.id")
+    List<Object[]> sumLikesByBlog();
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.examly.springapp.repository;
 
 import com.examly.springapp.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -13,4 +14,7 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     List<User> findByRole(String role);
     long countByIsActive(boolean isActive);
+    
+    @Query("SELECT u.username FROM User u")
+    List<String> findAllUsernames();
 }
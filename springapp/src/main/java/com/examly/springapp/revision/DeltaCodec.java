@@ -0,0 +1,193 @@
+package com.examly.springapp.revision;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Forward deltas between two versions of a text, in the spirit of xdelta: the target is written as
+// copies of base ranges and inserted literals, and the op stream is deflated. Matches are found by
+// hashing every BLOCK-char block of the base and rolling the same hash along the target.
+// A full snapshot is simply the delta from the empty string.
+// Literals are stored per UTF-16 char as varints, so any string, even one with unpaired
+// surrogates, round-trips exactly while ASCII text still costs one byte per char.
+public final class DeltaCodec {
+
+    static final int BLOCK = 16;
+
+    private static final int PRIME = 31;
+    private static final int OUT_FACTOR;
+
+    static {
+        int factor = 1;
+        for (int i = 1; i < BLOCK; i++) factor *= PRIME;
+        OUT_FACTOR = factor;
+    }
+
+    private DeltaCodec() {}
+
+    public static byte[] snapshot(String text) {
+        return encode("", text);
+    }
+
+    public static String restore(byte[] snapshot) {
+        return decode("", snapshot);
+    }
+
+    public static byte[] encode(String base, String target) {
+        ByteArrayOutputStream ops = new ByteArrayOutputStream(Math.max(64, target.length() / 8));
+        writeVarint(ops, target.length());
+        Map<Integer, Integer> blocks = indexBlocks(base);
+        int literalStart = 0;
+        int i = 0;
+        int hash = 0;
+        boolean hashed = false;
+        while (!blocks.isEmpty() && i + BLOCK <= target.length()) {
+            if (!hashed) {
+                hash = hash(target, i);
+                hashed = true;
+            }
+            Integer candidate = blocks.get(hash);
+            if (candidate != null && target.regionMatches(i, base, candidate, BLOCK)) {
+                // Grow the match backwards into the pending literal, then forwards as far as it goes
+                int start = i;
+                int from = candidate;
+                while (start > literalStart && from > 0 && target.charAt(start - 1) == base.charAt(from - 1)) {
+                    start--;
+                    from--;
+                }
+                int end = i + BLOCK;
+                int fromEnd = candidate + BLOCK;
+                while (end < target.length() && fromEnd < base.length() && target.charAt(end) == base.charAt(fromEnd)) {
+                    end++;
+                    fromEnd++;
+                }
+                writeInsert(ops, target, literalStart, start);
+                writeVarint(ops, ((end - start) << 1) | 1);
+                writeVarint(ops, from);
+                i = end;
+                literalStart = end;
+                hashed = false;
+            } else {
+                if (i + BLOCK < target.length()) {
+                    hash = (hash - target.charAt(i) * OUT_FACTOR) * PRIME + target.charAt(i + BLOCK);
+                }
+                i++;
+            }
+        }
+        writeInsert(ops, target, literalStart, target.length());
+        return deflate(ops.toByteArray());
+    }
+
+    public static String decode(String base, byte[] delta) {
+        byte[] ops = inflate(delta);
+        int[] position = {0};
+        int length = readVarint(ops, position);
+        StringBuilder out = new StringBuilder(length);
+        while (position[0] < ops.length) {
+            int tag = readVarint(ops, position);
+            int count = tag >>> 1;
+            if ((tag & 1) == 1) {
+                int from = readVarint(ops, position);
+                if (from + count > base.length()) {
+                    throw new IllegalStateException("Corrupt revision delta: copy past end of base");
+                }
+                out.append(base, from, from + count);
+            } else {
+                for (int k = 0; k < count; k++) {
+                    out.append((char) readVarint(ops, position));
+                }
+            }
+        }
+        if (out.length() != length) {
+            throw new IllegalStateException("Corrupt revision delta: expected " + length + " chars, got " + out.length());
+        }
+        return out.toString();
+    }
+
+    // First offset of each distinct block hash, over non-overlapping blocks of the base
+    private static Map<Integer, Integer> indexBlocks(String base) {
+        Map<Integer, Integer> blocks = new HashMap<>(Math.max(16, base.length() / BLOCK * 2));
+        for (int offset = 0; offset + BLOCK <= base.length(); offset += BLOCK) {
+            blocks.putIfAbsent(hash(base, offset), offset);
+        }
+        return blocks;
+    }
+
+    private static int hash(String text, int offset) {
+        int hash = 0;
+        for (int k = 0; k < BLOCK; k++) {
+            hash = hash * PRIME + text.charAt(offset + k);
+        }
+        return hash;
+    }
+
+    private static void writeInsert(ByteArrayOutputStream ops, String text, int start, int end) {
+        if (end <= start) return;
+        writeVarint(ops, (end - start) << 1);
+        for (int k = start; k < end; k++) {
+            writeVarint(ops, text.charAt(k));
+        }
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static int readVarint(byte[] in, int[] position) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            if (position[0] >= in.length) {
+                throw new IllegalStateException("Corrupt revision delta: truncated");
+            }
+            byte b = in[position[0]++];
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        throw new IllegalStateException("Corrupt revision delta: bad varint");
+    }
+
+    // History is written once and read rarely, so trade speed for size
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] deflated) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(deflated.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Corrupt revision delta: truncated stream");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt revision delta", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
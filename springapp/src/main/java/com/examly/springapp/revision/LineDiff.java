@@ -0,0 +1,110 @@
+package com.examly.springapp.revision;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Line diff of two texts for the revisions diff endpoint. The common head and tail are trimmed and
+// the middle is aligned by longest common subsequence. When the middle would need more than
+// maxCells table cells it is reported as one replaced block instead of spending quadratic memory.
+// Hunks are {type: equal|delete|insert, fromLine, toLine, count}, and delete and insert hunks carry their lines.
+public final class LineDiff {
+
+    private LineDiff() {}
+
+    public static List<Map<String, Object>> diff(String from, String to, int maxCells) {
+        String[] a = lines(from);
+        String[] b = lines(to);
+        int head = 0;
+        while (head < a.length && head < b.length && a[head].equals(b[head])) head++;
+        int tail = 0;
+        while (tail < a.length - head && tail < b.length - head && a[a.length - 1 - tail].equals(b[b.length - 1 - tail])) tail++;
+
+        List<Map<String, Object>> hunks = new ArrayList<>();
+        Builder builder = new Builder(a, b, hunks);
+        builder.add("equal", head);
+        int n = a.length - head - tail;
+        int m = b.length - head - tail;
+        if ((long) (n + 1) * (m + 1) > maxCells) {
+            builder.add("delete", n);
+            builder.add("insert", m);
+        } else {
+            // lcs[i][j] is the LCS length of the middles from a[head + i] and b[head + j] on
+            int[][] lcs = new int[n + 1][m + 1];
+            for (int i = n - 1; i >= 0; i--) {
+                for (int j = m - 1; j >= 0; j--) {
+                    lcs[i][j] = a[head + i].equals(b[head + j]) ? lcs[i + 1][j + 1] + 1 : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+                }
+            }
+            int i = 0;
+            int j = 0;
+            while (i < n || j < m) {
+                if (i < n && j < m && a[head + i].equals(b[head + j])) {
+                    builder.add("equal", 1);
+                    i++;
+                    j++;
+                } else if (j < m && (i == n || lcs[i][j + 1] >= lcs[i + 1][j])) {
+                    builder.add("insert", 1);
+                    j++;
+                } else {
+                    builder.add("delete", 1);
+                    i++;
+                }
+            }
+        }
+        builder.add("equal", tail);
+        return hunks;
+    }
+
+    private static String[] lines(String text) {
+        if (text == null || text.isEmpty()) return new String[0];
+        return text.split("\n", -1);
+    }
+
+    // Merges consecutive lines of the same type into one hunk
+    private static final class Builder {
+        private final String[] a;
+        private final String[] b;
+        private final List<Map<String, Object>> hunks;
+        private Map<String, Object> current;
+        private List<String> currentLines;
+        private int fromLine;
+        private int toLine;
+
+        Builder(String[] a, String[] b, List<Map<String, Object>> hunks) {
+            this.a = a;
+            this.b = b;
+            this.hunks = hunks;
+        }
+
+        void add(String type, int count) {
+            if (count == 0) return;
+            if (current == null || !type.equals(current.get("type"))) {
+                current = new HashMap<>();
+                current.put("type", type);
+                current.put("fromLine", fromLine + 1);
+                current.put("toLine", toLine + 1);
+                current.put("count", 0);
+                currentLines = null;
+                if (!"equal".equals(type)) {
+                    currentLines = new ArrayList<>();
+                    current.put("lines", currentLines);
+                }
+                hunks.add(current);
+            }
+            current.put("count", (Integer) current.get("count") + count);
+            if ("delete".equals(type)) {
+                currentLines.addAll(Arrays.asList(a).subList(fromLine, fromLine + count));
+                fromLine += count;
+            } else if ("insert".equals(type)) {
+                currentLines.addAll(Arrays.asList(b).subList(toLine, toLine + count));
+                toLine += count;
+            } else {
+                fromLine += count;
+                toLine += count;
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.examly.springapp.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Hierarchical timing wheel (Varghese and Lauck) for keyed one-shot timers. Time is counted in
+// ticks of tickMs. Level l has wheelSize buckets, each wheelSize^l ticks wide. A timer sits at the
+// lowest level whose span covers its distance and drops a level each time the wheel above it
+// turns over its bucket, so scheduling, cancelling and firing cost O(1) however many timers are pending.
+// Deadlines are rounded up to a tick, so a timer never fires early.
+// Not thread-safe on its own: callers synchronize.
+public class TimerWheel<K> {
+
+    private static final class Timer<K> {
+        final K key;
+        final long expiry;
+
+        Timer(K key, long expiry) {
+            this.key = key;
+            this.expiry = expiry;
+        }
+    }
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final ArrayDeque<Timer<K>>[][] buckets;
+    // wheelSize^l for every level, plus the span of the whole wheel
+    private final long[] spans;
+    // Past the top level's span, re-placed every time the top level turns over one bucket
+    private final List<Timer<K>> overflow = new ArrayList<>();
+    private final List<K> ready = new ArrayList<>();
+    // Current expiry of each pending key; buckets may still hold cancelled or superseded timers
+    private final Map<K, Long> pending = new HashMap<>();
+
+    private long current;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimerWheel(long tickMs, int wheelSize, int levels, long nowMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.buckets = new ArrayDeque[levels][wheelSize];
+        this.spans = new long[levels + 1];
+        spans[0] = 1;
+        for (int l = 1; l <= levels; l++) {
+            spans[l] = spans[l - 1] * wheelSize;
+        }
+        this.current = nowMs / tickMs;
+    }
+
+    // Replaces any timer already set for the key
+    public void schedule(K key, long deadlineMs) {
+        long expiry = (deadlineMs + tickMs - 1) / tickMs;
+        pending.put(key, expiry);
+        place(new Timer<>(key, expiry));
+    }
+
+    public boolean cancel(K key) {
+        return pending.remove(key) != null;
+    }
+
+    public boolean isScheduled(K key) {
+        return pending.containsKey(key);
+    }
+
+    // Moves the wheel up to nowMs and returns the keys whose deadlines have passed
+    public List<K> advance(long nowMs) {
+        long target = nowMs / tickMs;
+        while (current < target) {
+            current++;
+            for (int l = buckets.length - 1; l >= 1; l--) {
+                if (current % spans[l] == 0) cascade(l);
+            }
+            if (current % spans[buckets.length - 1] == 0 && !overflow.isEmpty()) {
+                List<Timer<K>> waiting = new ArrayList<>(overflow);
+                overflow.clear();
+                for (Timer<K> timer : waiting) place(timer);
+            }
+            cascade(0);
+        }
+        List<K> due = new ArrayList<>(ready.size());
+        for (K key : ready) {
+            // A timer is fired once, and only if it was not cancelled or rescheduled meanwhile
+            if (pending.remove(key) != null) due.add(key);
+        }
+        ready.clear();
+        return due;
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public long getTickMs() {
+        return tickMs;
+    }
+
+    // Re-places the timers of the level's current bucket, which all lie within the level below
+    private void cascade(int level) {
+        int index = (int) ((current / spans[level]) % wheelSize);
+        ArrayDeque<Timer<K>> bucket = buckets[level][index];
+        if (bucket == null || bucket.isEmpty()) return;
+        buckets[level][index] = null;
+        for (Timer<K> timer : bucket) place(timer);
+    }
+
+    private void place(Timer<K> timer) {
+        Long live = pending.get(timer.key);
+        if (live == null || live != timer.expiry) return;
+        long distance = timer.expiry - current;
+        if (distance <= 0) {
+            ready.add(timer.key);
+            return;
+        }
+        for (int l = 0; l < buckets.length; l++) {
+            if (distance < spans[l + 1]) {
+                int index = (int) ((timer.expiry / spans[l]) % wheelSize);
+                if (buckets[l][index] == null) buckets[l][index] = new ArrayDeque<>();
+                buckets[l][index].add(timer);
+                return;
+            }
+        }
+        overflow.add(timer);
+    }
+}
@@ -0,0 +1,111 @@
+package com.examly.springapp.search;
+
+// Light suffix-stripping stemmer modelled on Porter steps 1 and 2. It only has to map
+// inflections of the same word to one index term, not to produce dictionary forms.
+public final class EnglishStemmer {
+
+    private static final String[][] STEP2 = {
+        {"ational", "ate"}, {"tional", "tion"}, {"enci", "ence"}, {"anci", "ance"},
+        {"izer", "ize"}, {"ization", "ize"}, {"ation", "ate"}, {"ator", "ate"},
+        {"alism", "al"}, {"iveness", "ive"}, {"fulness", "ful"}, {"ousness", "ous"},
+        {"aliti", "al"}, {"iviti", "ive"}, {"biliti", "ble"}, {"ment", ""}, {"ness", ""}
+    };
+
+    private EnglishStemmer() {}
+
+    public static String stem(String word) {
+        if (word.length() <= 3) return word;
+        String w = step1a(word);
+        w = step1b(w);
+        w = step1c(w);
+        w = step2(w);
+        return w;
+    }
+
+    private static String step1a(String w) {
+        if (w.endsWith("sses")) return w.substring(0, w.length() - 2);
+        if (w.endsWith("ies")) return w.substring(0, w.length() - 2);
+        if (w.endsWith("ss") || w.endsWith("us") || w.endsWith("is")) return w;
+        if (w.endsWith("s")) return w.substring(0, w.length() - 1);
+        return w;
+    }
+
+    private static String step1b(String w) {
+        if (w.endsWith("eed")) {
+            return measure(w, w.length() - 3) > 0 ? w.substring(0, w.length() - 1) : w;
+        }
+        String stripped = null;
+        if (w.endsWith("ing") && hasVowel(w, w.length() - 3)) {
+            stripped = w.substring(0, w.length() - 3);
+        } else if (w.endsWith("ed") && hasVowel(w, w.length() - 2)) {
+            stripped = w.substring(0, w.length() - 2);
+        }
+        if (stripped == null) return w;
+
+        if (stripped.endsWith("at") || stripped.endsWith("bl") || stripped.endsWith("iz")) {
+            return stripped + "e";
+        }
+        int n = stripped.length();
+        if (n >= 2 && stripped.charAt(n - 1) == stripped.charAt(n - 2)
+                && !isVowel(stripped, n - 1) && "lsz".indexOf(stripped.charAt(n - 1)) < 0) {
+            return stripped.substring(0, n - 1);
+        }
+        if (measure(stripped, n) == 1 && endsCvc(stripped)) {
+            return stripped + "e";
+        }
+        return stripped;
+    }
+
+    private static String step1c(String w) {
+        if (w.endsWith("y") && hasVowel(w, w.length() - 1)) {
+            return w.substring(0, w.length() - 1) + "i";
+        }
+        return w;
+    }
+
+    private static String step2(String w) {
+        for (String[] rule : STEP2) {
+            if (w.endsWith(rule[0])) {
+                int stemEnd = w.length() - rule[0].length();
+                if (measure(w, stemEnd) > 0) {
+                    return w.substring(0, stemEnd) + rule[1];
+                }
+                return w;
+            }
+        }
+        return w;
+    }
+
+    private static boolean isVowel(String w, int i) {
+        char c = w.charAt(i);
+        if (c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u') return true;
+        return c == 'y' && i > 0 && !isVowel(w, i - 1);
+    }
+
+    private static boolean hasVowel(String w, int end) {
+        for (int i = 0; i < end; i++) {
+            if (isVowel(w, i)) return true;
+        }
+        return false;
+    }
+
+    // Number of vowel-consonant sequences in w[0, end)
+    private static int measure(String w, int end) {
+        int m = 0;
+        boolean prevVowel = false;
+        for (int i = 0; i < end; i++) {
+            boolean vowel = isVowel(w, i);
+            if (!vowel && prevVowel) m++;
+            prevVowel = vowel;
+        }
+        return m;
+    }
+
+    private static boolean endsCvc(String w) {
+        int n = w.length();
+        if (n < 3) return false;
+        char last = w.charAt(n - 1);
+        return !isVowel(w, n - 3) && isVowel(w, n - 2) && !isVowel(w, n - 1)
+                && last != 'w' && last != 'x' && last != 'y';
+    }
+}
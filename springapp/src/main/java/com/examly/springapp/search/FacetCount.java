@@ -0,0 +1,14 @@
+package com.examly.springapp.search;
+
+public class FacetCount {
+    private final String value;
+    private final int count;
+
+    public FacetCount(String value, int count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    public String getValue() { return value; }
+    public int getCount() { return count; }
+}
@@ -0,0 +1,88 @@
+package com.examly.springapp.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Space-Saving top-K sketch: tracks at most `capacity` queries. A new query takes over the slot of
+// the least counted one and inherits its count as the error bound, so any query seen more than
+// total/capacity times is guaranteed to be tracked. Counters are bucketed by count so the
+// minimum is found in O(log capacity).
+public class PopularQueries {
+
+    private final int capacity;
+    private final Map<String, long[]> counters = new HashMap<>();
+    private final TreeMap<Long, LinkedHashSet<String>> buckets = new TreeMap<>();
+    private long total;
+
+    public PopularQueries(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    public synchronized void record(String query) {
+        if (query == null || query.isEmpty()) return;
+        total++;
+        // Each counter is {estimated count, overestimation error}
+        long[] counter = counters.get(query);
+        if (counter != null) {
+            move(query, counter[0], counter[0] + 1);
+            counter[0]++;
+            return;
+        }
+        if (counters.size() < capacity) {
+            counters.put(query, new long[]{1, 0});
+            bucket(1).add(query);
+            return;
+        }
+        Map.Entry<Long, LinkedHashSet<String>> smallest = buckets.firstEntry();
+        Iterator<String> oldest = smallest.getValue().iterator();
+        String evicted = oldest.next();
+        oldest.remove();
+        if (smallest.getValue().isEmpty()) buckets.remove(smallest.getKey());
+        counters.remove(evicted);
+
+        long min = smallest.getKey();
+        counters.put(query, new long[]{min + 1, min});
+        bucket(min + 1).add(query);
+    }
+
+    // Most frequent queries first, each with its estimated count and error bound
+    public synchronized List<Map<String, Object>> top(int limit) {
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (Map.Entry<Long, LinkedHashSet<String>> bucket : buckets.descendingMap().entrySet()) {
+            for (String query : bucket.getValue()) {
+                if (top.size() >= limit) return top;
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("query", query);
+                item.put("count", bucket.getKey());
+                item.put("error", counters.get(query)[1]);
+                top.add(item);
+            }
+        }
+        return top;
+    }
+
+    public synchronized long getTotal() {
+        return total;
+    }
+
+    public synchronized int size() {
+        return counters.size();
+    }
+
+    private void move(String query, long from, long to) {
+        LinkedHashSet<String> source = buckets.get(from);
+        source.remove(query);
+        if (source.isEmpty()) buckets.remove(from);
+        bucket(to).add(query);
+    }
+
+    private LinkedHashSet<String> bucket(long count) {
+        return buckets.computeIfAbsent(count, c -> new LinkedHashSet<>());
+    }
+}
@@ -0,0 +1,71 @@
+package com.examly.springapp.search;
+
+import java.util.Arrays;
+
+// Append-only postings for one term: (docId delta, term frequency) pairs as variable-length ints.
+// Doc ids are added in increasing order, so deltas are small and most entries take 2 bytes.
+public class PostingsList {
+
+    private byte[] data = new byte[8];
+    private int length;
+    private int lastDoc = -1;
+    private int docFreq;
+
+    public void add(int docId, int termFreq) {
+        if (docId <= lastDoc) {
+            throw new IllegalArgumentException("Doc ids must be added in increasing order");
+        }
+        writeVInt(docId - lastDoc);
+        writeVInt(termFreq);
+        lastDoc = docId;
+        docFreq++;
+    }
+
+    public int getDocFreq() { return docFreq; }
+
+    public int sizeInBytes() { return length; }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    private void writeVInt(int value) {
+        if (length + 5 > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + 5));
+        }
+        while ((value & ~0x7F) != 0) {
+            data[length++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        data[length++] = (byte) value;
+    }
+
+    // Forward-only decoder; call next() until it returns false
+    public class Cursor {
+        private int pos;
+        private int doc = -1;
+        private int freq;
+
+        public boolean next() {
+            if (pos >= length) return false;
+            doc += readVInt();
+            freq = readVInt();
+            return true;
+        }
+
+        public int doc() { return doc; }
+        public int freq() { return freq; }
+
+        private int readVInt() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
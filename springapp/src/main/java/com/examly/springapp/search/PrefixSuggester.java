@@ -0,0 +1,265 @@
+package com.examly.springapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Radix trie: runs of characters without a branch are one edge, so a node is either a branch
+// point or the end of a key. Branch points cache the best K suggestions below them; any other
+// node merges its own entries with the one subtree below it at lookup time, which stays a short
+// walk down to the next branch point. Children are kept in sorted first-char/node arrays.
+// Updates re-rank only the nodes on the changed key's path.
+public class PrefixSuggester {
+
+    private static final char[] NO_LABELS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final Suggestion[] NO_SUGGESTIONS = new Suggestion[0];
+    private static final Comparator<Suggestion> BY_SCORE = (a, b) -> a.getScore() != b.getScore()
+            ? Long.compare(b.getScore(), a.getScore())
+            : a.getText().compareTo(b.getText());
+
+    private final int topK;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node("");
+    private int size;
+
+    private static final class Node {
+        // Characters on the edge from the parent; empty only for the root
+        String edge;
+        char[] labels = NO_LABELS;
+        Node[] children = NO_CHILDREN;
+        Suggestion[] entries = NO_SUGGESTIONS;
+        // Set on branch points only
+        Suggestion[] top;
+
+        Node(String edge) {
+            this.edge = edge;
+        }
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        void setChild(Node node) {
+            char c = node.edge.charAt(0);
+            int i = Arrays.binarySearch(labels, c);
+            if (i >= 0) {
+                children[i] = node;
+                return;
+            }
+            int at = -i - 1;
+            labels = insert(labels, at, c);
+            Node[] grown = new Node[children.length + 1];
+            System.arraycopy(children, 0, grown, 0, at);
+            grown[at] = node;
+            System.arraycopy(children, at, grown, at + 1, children.length - at);
+            children = grown;
+        }
+
+        void removeChild(char c) {
+            int i = Arrays.binarySearch(labels, c);
+            if (i < 0) return;
+            char[] fewerLabels = new char[labels.length - 1];
+            Node[] fewerChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, fewerLabels, 0, i);
+            System.arraycopy(labels, i + 1, fewerLabels, i, labels.length - i - 1);
+            System.arraycopy(children, 0, fewerChildren, 0, i);
+            System.arraycopy(children, i + 1, fewerChildren, i, children.length - i - 1);
+            labels = fewerLabels;
+            children = fewerChildren;
+        }
+
+        // Takes over its only child, joining the two edges
+        void absorbOnlyChild() {
+            Node child = children[0];
+            edge = edge + child.edge;
+            labels = child.labels;
+            children = child.children;
+            entries = child.entries;
+            top = child.top;
+        }
+    }
+
+    public PrefixSuggester(int topK) {
+        this.topK = topK;
+    }
+
+    public static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Adds the suggestion, replacing an earlier one with the same identity under the same text
+    public void put(Suggestion suggestion) {
+        String key = normalize(suggestion.getText());
+        if (key.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            int at = 0;
+            path.add(node);
+            while (at < key.length()) {
+                Node child = node.child(key.charAt(at));
+                if (child == null) {
+                    child = new Node(key.substring(at));
+                    node.setChild(child);
+                    at = key.length();
+                } else {
+                    int common = commonPrefix(child.edge, key, at);
+                    if (common < child.edge.length()) {
+                        // Split the edge where the key leaves it
+                        Node split = new Node(child.edge.substring(0, common));
+                        child.edge = child.edge.substring(common);
+                        split.setChild(child);
+                        node.setChild(split);
+                        child = split;
+                    }
+                    at += common;
+                }
+                node = child;
+                path.add(node);
+            }
+            int existing = indexOf(node.entries, suggestion);
+            if (existing >= 0) {
+                node.entries = node.entries.clone();
+                node.entries[existing] = suggestion;
+            } else {
+                node.entries = Arrays.copyOf(node.entries, node.entries.length + 1);
+                node.entries[node.entries.length - 1] = suggestion;
+                size++;
+            }
+            rerank(path);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Suggestion suggestion) {
+        String key = normalize(suggestion.getText());
+        if (key.isEmpty()) return;
+        lock.writeLock().lock();
+        try {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            int at = 0;
+            path.add(node);
+            while (at < key.length()) {
+                node = node.child(key.charAt(at));
+                if (node == null || !key.startsWith(node.edge, at)) return;
+                at += node.edge.length();
+                path.add(node);
+            }
+            int existing = indexOf(node.entries, suggestion);
+            if (existing < 0) return;
+            Suggestion[] fewer = new Suggestion[node.entries.length - 1];
+            System.arraycopy(node.entries, 0, fewer, 0, existing);
+            System.arraycopy(node.entries, existing + 1, fewer, existing, fewer.length - existing);
+            node.entries = fewer;
+            size--;
+
+            // Drop the node if it no longer leads anywhere, and join any node left with neither
+            // entries nor a branch to its only child
+            int depth = path.size() - 1;
+            if (depth > 0 && node.entries.length == 0 && node.children.length == 0) {
+                char first = node.edge.charAt(0);
+                path.remove(depth--);
+                node = path.get(depth);
+                node.removeChild(first);
+            }
+            if (depth > 0 && node.entries.length == 0 && node.children.length == 1) {
+                node.absorbOnlyChild();
+            }
+            rerank(path);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) return Collections.emptyList();
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            int at = 0;
+            while (at < key.length()) {
+                node = node.child(key.charAt(at));
+                if (node == null) return Collections.emptyList();
+                int common = commonPrefix(node.edge, key, at);
+                // The prefix ends inside this edge: everything below it matches
+                if (at + common == key.length()) break;
+                if (common < node.edge.length()) return Collections.emptyList();
+                at += common;
+            }
+            Suggestion[] top = top(node);
+            return Arrays.asList(Arrays.copyOf(top, Math.min(limit, top.length)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            root = new Node("");
+            size = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Best K at or below the node: cached on branch points, merged on the way down elsewhere
+    private Suggestion[] top(Node node) {
+        if (node.top != null) return node.top;
+        return rank(node);
+    }
+
+    private Suggestion[] rank(Node node) {
+        List<Suggestion> candidates = new ArrayList<>(Arrays.asList(node.entries));
+        for (Node child : node.children) {
+            candidates.addAll(Arrays.asList(top(child)));
+        }
+        candidates.sort(BY_SCORE);
+        return candidates.subList(0, Math.min(topK, candidates.size())).toArray(NO_SUGGESTIONS);
+    }
+
+    // Recomputes cached top-K bottom-up along a root-to-leaf path; detached nodes are harmless
+    private void rerank(List<Node> path) {
+        for (int depth = path.size() - 1; depth >= 0; depth--) {
+            Node node = path.get(depth);
+            node.top = node.children.length > 1 ? rank(node) : null;
+        }
+    }
+
+    // Length of the common prefix of edge and key from offset
+    private static int commonPrefix(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && edge.charAt(i) == key.charAt(offset + i)) i++;
+        return i;
+    }
+
+    private static int indexOf(Suggestion[] entries, Suggestion suggestion) {
+        for (int i = 0; i < entries.length; i++) {
+            if (entries[i].sameAs(suggestion)) return i;
+        }
+        return -1;
+    }
+
+    private static char[] insert(char[] array, int at, char c) {
+        char[] grown = new char[array.length + 1];
+        System.arraycopy(array, 0, grown, 0, at);
+        grown[at] = c;
+        System.arraycopy(array, at, grown, at + 1, array.length - at);
+        return grown;
+    }
+}
@@ -0,0 +1,530 @@
+package com.examly.springapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Every blog's nearest neighbours by cosine similarity of TF-IDF vectors over title, content,
+// tags and category. rebuild() refreshes idf and recomputes every list, scoring blocks of blogs
+// in parallel against an inverted index of the sparse vectors. Between rebuilds put() and remove()
+// only record the new vector and queue the blog; a single task on the pool then keeps the lists
+// exact by rescoring each queued blog and the blogs whose lists it was in, without the monitor.
+// Reads are a single map lookup and never wait for a write.
+public class RelatedPostsIndex {
+
+    private static final float TITLE_WEIGHT = 2f;
+    private static final float TAG_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+
+    private final int neighbours;
+    private final int blockSize;
+    private final ForkJoinPool pool;
+
+    // Guarded by this. Ids of terms no blog uses any more are reused; while a rebuild is scoring
+    // a snapshot they are only set aside, since its vectors may still carry them.
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private String[] termNames = new String[1024];
+    private int[] docFreqs = new int[1024];
+    private int termLimit;
+    private final List<Integer> freeTermIds = new ArrayList<>();
+    private final List<Integer> freedDuringRebuild = new ArrayList<>();
+    private final Map<Long, TermCounts> counts = new HashMap<>();
+    private boolean rebuilding;
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+
+    // Written under the monitor, read by the refresh task without it
+    private final Map<Long, Vector> vectors = new ConcurrentHashMap<>();
+    // Blogs whose lists are still to be refreshed, and whether the refresh task is scheduled
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    private volatile ConcurrentHashMap<Long, Neighbours> related = new ConcurrentHashMap<>();
+
+    // Best first
+    public static final class Neighbours {
+        private static final Neighbours EMPTY = new Neighbours(new long[0], new float[0]);
+
+        private final long[] ids;
+        private final float[] scores;
+
+        Neighbours(long[] ids, float[] scores) {
+            this.ids = ids;
+            this.scores = scores;
+        }
+
+        public int size() { return ids.length; }
+        public long getId(int i) { return ids[i]; }
+        public float getScore(int i) { return scores[i]; }
+
+        boolean contains(long id) {
+            for (long other : ids) {
+                if (other == id) return true;
+            }
+            return false;
+        }
+
+        boolean accepts(float score, int limit) {
+            return ids.length < limit || score > scores[ids.length - 1];
+        }
+
+        Neighbours with(long id, float score, int limit) {
+            TopK top = new TopK(limit);
+            for (int i = 0; i < ids.length; i++) {
+                top.offer(ids[i], scores[i]);
+            }
+            top.offer(id, score);
+            return top.toNeighbours();
+        }
+    }
+
+    // Weighted term frequencies, terms ascending
+    private static final class TermCounts {
+        final int[] terms;
+        final float[] tf;
+
+        TermCounts(int[] terms, float[] tf) {
+            this.terms = terms;
+            this.tf = tf;
+        }
+    }
+
+    // Unit-length TF-IDF weights, terms ascending
+    private static final class Vector {
+        final int[] terms;
+        final float[] weights;
+
+        Vector(int[] terms, float[] weights) {
+            this.terms = terms;
+            this.weights = weights;
+        }
+    }
+
+    private static final class TopK {
+        final long[] ids;
+        final float[] scores;
+        int size;
+
+        TopK(int limit) {
+            ids = new long[limit];
+            scores = new float[limit];
+        }
+
+        void offer(long id, float score) {
+            if (size == ids.length && score <= scores[size - 1]) return;
+            int position = size < ids.length ? size++ : size - 1;
+            while (position > 0 && scores[position - 1] < score) {
+                ids[position] = ids[position - 1];
+                scores[position] = scores[position - 1];
+                position--;
+            }
+            ids[position] = id;
+            scores[position] = score;
+        }
+
+        Neighbours toNeighbours() {
+            return new Neighbours(Arrays.copyOf(ids, size), Arrays.copyOf(scores, size));
+        }
+    }
+
+    public RelatedPostsIndex(int neighbours, int blockSize, int parallelism) {
+        this.neighbours = Math.max(1, neighbours);
+        this.blockSize = Math.max(1, blockSize);
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+    }
+
+    public Neighbours get(long blogId) {
+        Neighbours result = related.get(blogId);
+        return result != null ? result : Neighbours.EMPTY;
+    }
+
+    // Adds or replaces a blog without scoring it; used for bulk loads that end with rebuild()
+    public void load(long blogId, String title, String content, List<String> tags, String category) {
+        Map<String, Float> tf = termFrequencies(title, content, tags, category);
+        synchronized (this) {
+            setCounts(blogId, countTerms(tf));
+        }
+    }
+
+    public void put(long blogId, String title, String content, List<String> tags, String category) {
+        Map<String, Float> tf = termFrequencies(title, content, tags, category);
+        synchronized (this) {
+            setCounts(blogId, countTerms(tf));
+            vectors.put(blogId, weigh(counts.get(blogId), counts.size()));
+            changed(blogId);
+        }
+    }
+
+    public synchronized void remove(long blogId) {
+        if (!counts.containsKey(blogId)) return;
+        setCounts(blogId, null);
+        vectors.remove(blogId);
+        changed(blogId);
+    }
+
+    // Waits for queued refreshes to be applied; returns false on timeout
+    public boolean awaitUpdates(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!pending.isEmpty() || draining.get()) {
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) return false;
+            pool.awaitQuiescence(Math.min(left, 50), TimeUnit.MILLISECONDS);
+        }
+        return true;
+    }
+
+    // Returns false if another rebuild is already running
+    public boolean rebuild() {
+        long[] ids;
+        TermCounts[] snapshot;
+        int[] freqs;
+        synchronized (this) {
+            if (rebuilding) return false;
+            ids = new long[counts.size()];
+            snapshot = new TermCounts[ids.length];
+            int i = 0;
+            for (Map.Entry<Long, TermCounts> entry : counts.entrySet()) {
+                ids[i] = entry.getKey();
+                snapshot[i++] = entry.getValue();
+            }
+            freqs = Arrays.copyOf(docFreqs, termLimit);
+            rebuilding = true;
+            changedDuringRebuild.clear();
+        }
+
+        Vector[] built = new Vector[ids.length];
+        Neighbours[] lists;
+        try {
+            for (int i = 0; i < ids.length; i++) {
+                built[i] = weigh(snapshot[i], freqs, ids.length);
+            }
+            lists = scoreAll(ids, built, freqs.length);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                rebuilding = false;
+                changedDuringRebuild.clear();
+                freeTermIds.addAll(freedDuringRebuild);
+                freedDuringRebuild.clear();
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            ConcurrentHashMap<Long, Neighbours> rebuilt = new ConcurrentHashMap<>();
+            for (int i = 0; i < ids.length; i++) {
+                vectors.put(ids[i], built[i]);
+                rebuilt.put(ids[i], lists[i]);
+            }
+            related = rebuilt;
+            rebuilding = false;
+            // Writes that raced with the rebuild get their current vectors back and are queued
+            // again against the new lists
+            for (Long blogId : changedDuringRebuild) {
+                if (counts.containsKey(blogId)) {
+                    vectors.put(blogId, weigh(counts.get(blogId), counts.size()));
+                } else {
+                    vectors.remove(blogId);
+                }
+                pending.add(blogId);
+            }
+            changedDuringRebuild.clear();
+            // No vector carries these any more
+            freeTermIds.addAll(freedDuringRebuild);
+            freedDuringRebuild.clear();
+        }
+        scheduleRefresh();
+        return true;
+    }
+
+    public synchronized int size() {
+        return counts.size();
+    }
+
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long nonZeros = 0;
+        for (Vector vector : vectors.values()) {
+            nonZeros += vector.terms.length;
+        }
+        stats.put("blogs", counts.size());
+        stats.put("terms", termIds.size());
+        stats.put("vectorNonZeros", nonZeros);
+        return stats;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private void changed(long blogId) {
+        if (rebuilding) {
+            changedDuringRebuild.add(blogId);
+        }
+        pending.add(blogId);
+        scheduleRefresh();
+    }
+
+    private void scheduleRefresh() {
+        if (pending.isEmpty() || !draining.compareAndSet(false, true)) return;
+        try {
+            pool.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            // Shut down
+            draining.set(false);
+        }
+    }
+
+    // Runs on the pool, one at a time, so the lists have a single writer between rebuilds
+    private void drain() {
+        try {
+            while (!pending.isEmpty()) {
+                for (Long blogId : pending) {
+                    pending.remove(blogId);
+                    try {
+                        refresh(blogId);
+                    } catch (RuntimeException e) {
+                        System.err.println("RelatedPostsIndex: Refreshing blog " + blogId + " failed: " + e.getMessage());
+                    }
+                }
+            }
+        } finally {
+            draining.set(false);
+        }
+        // A blog queued after the loop ended but before the flag was cleared
+        scheduleRefresh();
+    }
+
+    // Rescores one blog against all others, offers it to their lists, and rescores every blog
+    // that listed it before, since its score there may have dropped
+    private void refresh(long blogId) {
+        Map<Long, Neighbours> current = related;
+        Set<Long> stale = new HashSet<>();
+        for (Map.Entry<Long, Neighbours> entry : current.entrySet()) {
+            if (entry.getKey() != blogId && entry.getValue().contains(blogId)) stale.add(entry.getKey());
+        }
+        Vector vector = vectors.get(blogId);
+        if (vector == null) {
+            current.remove(blogId);
+        } else {
+            TopK top = new TopK(neighbours);
+            for (Map.Entry<Long, Vector> other : vectors.entrySet()) {
+                long otherId = other.getKey();
+                if (otherId == blogId) continue;
+                float score = dot(vector, other.getValue());
+                if (score <= 0) continue;
+                top.offer(otherId, score);
+                if (stale.contains(otherId)) continue;
+                Neighbours list = current.getOrDefault(otherId, Neighbours.EMPTY);
+                if (list.accepts(score, neighbours)) {
+                    current.put(otherId, list.with(blogId, score, neighbours));
+                }
+            }
+            current.put(blogId, top.toNeighbours());
+        }
+        for (Long otherId : stale) {
+            current.put(otherId, scoreOne(otherId));
+        }
+    }
+
+    private Neighbours scoreOne(long blogId) {
+        Vector vector = vectors.get(blogId);
+        if (vector == null) return Neighbours.EMPTY;
+        TopK top = new TopK(neighbours);
+        for (Map.Entry<Long, Vector> other : vectors.entrySet()) {
+            if (other.getKey() == blogId) continue;
+            float score = dot(vector, other.getValue());
+            if (score > 0) top.offer(other.getKey(), score);
+        }
+        return top.toNeighbours();
+    }
+
+    // All-pairs similarity: an inverted index maps each term to the (blog, weight) postings that
+    // contain it, and each block of blogs accumulates its dot products from those postings
+    private Neighbours[] scoreAll(long[] ids, Vector[] built, int termCount) {
+        int n = ids.length;
+        int[] offsets = new int[termCount + 1];
+        for (Vector vector : built) {
+            for (int term : vector.terms) {
+                offsets[term + 1]++;
+            }
+        }
+        for (int t = 0; t < termCount; t++) {
+            offsets[t + 1] += offsets[t];
+        }
+        int[] postingDocs = new int[offsets[termCount]];
+        float[] postingWeights = new float[offsets[termCount]];
+        int[] fill = Arrays.copyOf(offsets, termCount);
+        for (int doc = 0; doc < n; doc++) {
+            Vector vector = built[doc];
+            for (int i = 0; i < vector.terms.length; i++) {
+                int slot = fill[vector.terms[i]]++;
+                postingDocs[slot] = doc;
+                postingWeights[slot] = vector.weights[i];
+            }
+        }
+
+        Neighbours[] lists = new Neighbours[n];
+        List<Callable<Void>> blocks = new ArrayList<>();
+        for (int from = 0; from < n; from += blockSize) {
+            int start = from;
+            int end = Math.min(n, from + blockSize);
+            blocks.add(() -> {
+                float[] sums = new float[n];
+                int[] touched = new int[n];
+                for (int doc = start; doc < end; doc++) {
+                    int touchedCount = 0;
+                    Vector vector = built[doc];
+                    for (int i = 0; i < vector.terms.length; i++) {
+                        int term = vector.terms[i];
+                        for (int p = offsets[term]; p < offsets[term + 1]; p++) {
+                            int other = postingDocs[p];
+                            if (other == doc) continue;
+                            if (sums[other] == 0) touched[touchedCount++] = other;
+                            sums[other] += vector.weights[i] * postingWeights[p];
+                        }
+                    }
+                    TopK top = new TopK(neighbours);
+                    for (int t = 0; t < touchedCount; t++) {
+                        int other = touched[t];
+                        top.offer(ids[other], sums[other]);
+                        sums[other] = 0;
+                    }
+                    lists[doc] = top.toNeighbours();
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> block : pool.invokeAll(blocks)) {
+                block.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Related posts rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Related posts rebuild failed", e.getCause());
+        }
+        return lists;
+    }
+
+    // Analysed outside the monitor; only the mapping to term ids needs it
+    private static Map<String, Float> termFrequencies(String title, String content, List<String> tags, String category) {
+        Map<String, Float> tf = new HashMap<>();
+        addTerms(tf, title, TITLE_WEIGHT);
+        addTerms(tf, content, 1f);
+        if (tags != null) {
+            for (String tag : tags) {
+                addTerms(tf, tag, TAG_WEIGHT);
+            }
+        }
+        addTerms(tf, category, CATEGORY_WEIGHT);
+        return tf;
+    }
+
+    private static void addTerms(Map<String, Float> tf, String text, float weight) {
+        for (String term : SearchAnalyzer.analyze(text)) {
+            tf.merge(term, weight, Float::sum);
+        }
+    }
+
+    private TermCounts countTerms(Map<String, Float> tf) {
+        int[] terms = new int[tf.size()];
+        Map<Integer, Float> byId = new HashMap<>();
+        int i = 0;
+        for (Map.Entry<String, Float> entry : tf.entrySet()) {
+            int id = termId(entry.getKey());
+            terms[i++] = id;
+            byId.put(id, entry.getValue());
+        }
+        Arrays.sort(terms);
+        float[] weights = new float[terms.length];
+        for (i = 0; i < terms.length; i++) {
+            weights[i] = byId.get(terms[i]);
+        }
+        return new TermCounts(terms, weights);
+    }
+
+    private int termId(String term) {
+        Integer id = termIds.get(term);
+        if (id != null) return id;
+        if (!freeTermIds.isEmpty()) {
+            id = freeTermIds.remove(freeTermIds.size() - 1);
+        } else {
+            id = termLimit++;
+            if (id == docFreqs.length) {
+                docFreqs = Arrays.copyOf(docFreqs, id * 2);
+                termNames = Arrays.copyOf(termNames, id * 2);
+            }
+        }
+        termIds.put(term, id);
+        termNames[id] = term;
+        return id;
+    }
+
+    private void setCounts(long blogId, TermCounts updated) {
+        TermCounts old = updated != null ? counts.put(blogId, updated) : counts.remove(blogId);
+        if (updated != null) {
+            for (int term : updated.terms) docFreqs[term]++;
+        }
+        if (old != null) {
+            for (int term : old.terms) {
+                if (--docFreqs[term] == 0) releaseTerm(term);
+            }
+        }
+    }
+
+    private void releaseTerm(int term) {
+        termIds.remove(termNames[term]);
+        termNames[term] = null;
+        (rebuilding ? freedDuringRebuild : freeTermIds).add(term);
+    }
+
+    private Vector weigh(TermCounts termCounts, int documents) {
+        return weigh(termCounts, docFreqs, documents);
+    }
+
+    // Sub-linear tf times smoothed idf, scaled to unit length
+    private static Vector weigh(TermCounts termCounts, int[] freqs, int documents) {
+        float[] weights = new float[termCounts.terms.length];
+        double norm = 0;
+        for (int i = 0; i < weights.length; i++) {
+            double idf = Math.log(1 + (double) documents / Math.max(1, freqs[termCounts.terms[i]]));
+            weights[i] = (float) ((1 + Math.log(termCounts.tf[i])) * idf);
+            norm += weights[i] * weights[i];
+        }
+        if (norm > 0) {
+            float scale = (float) (1 / Math.sqrt(norm));
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] *= scale;
+            }
+        }
+        return new Vector(termCounts.terms, weights);
+    }
+
+    private static float dot(Vector a, Vector b) {
+        float sum = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.terms.length && j < b.terms.length) {
+            if (a.terms[i] < b.terms[j]) {
+                i++;
+            } else if (a.terms[i] > b.terms[j]) {
+                j++;
+            } else {
+                sum += a.weights[i++] * b.weights[j++];
+            }
+        }
+        return sum;
+    }
+}
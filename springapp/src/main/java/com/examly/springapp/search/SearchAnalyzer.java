@@ -0,0 +1,53 @@
+package com.examly.springapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Turns text into index terms: lower-cased letter/digit runs, stop words removed, stemmed.
+// The same analyzer is applied to documents and queries so their terms line up.
+public final class SearchAnalyzer {
+
+    private static final int MAX_TOKEN_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = new HashSet<>(Arrays.asList(
+        "a", "an", "and", "are", "as", "at", "be", "but", "by", "for", "from", "has", "have",
+        "if", "in", "into", "is", "it", "its", "of", "on", "or", "so", "such", "that", "the",
+        "their", "then", "there", "these", "they", "this", "to", "was", "were", "will", "with"
+    ));
+
+    private SearchAnalyzer() {}
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        for (String word : tokenize(text)) {
+            if (STOP_WORDS.contains(word)) continue;
+            terms.add(EnglishStemmer.stem(word));
+        }
+        return terms;
+    }
+
+    // Lower-cased words before stop-word removal and stemming
+    public static List<String> tokenize(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isEmpty()) return words;
+
+        StringBuilder token = new StringBuilder();
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                token.append(Character.toLowerCase(c));
+            } else if (token.length() > 0) {
+                if (token.length() <= MAX_TOKEN_LENGTH) words.add(token.toString());
+                token.setLength(0);
+            }
+        }
+        return words;
+    }
+
+    public static boolean isStopWord(String word) {
+        return STOP_WORDS.contains(word);
+    }
+}
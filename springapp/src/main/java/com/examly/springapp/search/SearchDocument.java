@@ -0,0 +1,35 @@
+package com.examly.springapp.search;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// The searchable fields of one blog, decoupled from the JPA entity
+public class SearchDocument {
+    private final long blogId;
+    private final String title;
+    private final String content;
+    private final List<String> tags;
+    private final String category;
+    private final String author;
+    private final LocalDateTime createdAt;
+
+    public SearchDocument(long blogId, String title, String content, List<String> tags, String category,
+                          String author, LocalDateTime createdAt) {
+        this.blogId = blogId;
+        this.title = title;
+        this.content = content;
+        this.tags = tags != null ? new ArrayList<>(tags) : new ArrayList<>();
+        this.category = category;
+        this.author = author;
+        this.createdAt = createdAt;
+    }
+
+    public long getBlogId() { return blogId; }
+    public String getTitle() { return title; }
+    public String getContent() { return content; }
+    public List<String> getTags() { return tags; }
+    public String getCategory() { return category; }
+    public String getAuthor() { return author; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,14 @@
+package com.examly.springapp.search;
+
+public class SearchHit {
+    private final long blogId;
+    private final float score;
+
+    public SearchHit(long blogId, float score) {
+        this.blogId = blogId;
+        this.score = score;
+    }
+
+    public long getBlogId() { return blogId; }
+    public float getScore() { return score; }
+}
@@ -0,0 +1,475 @@
+package com.examly.springapp.search;
+
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+// In-memory inverted index over blogs with BM25 ranking and facet counts over the matching docs.
+// Internal doc ids are assigned in insertion order; an update deletes the old doc id and
+// appends a new one. Deleted ids are squeezed out by compactIfNeeded, or inline once they make
+// up a quarter of the index.
+public class SearchIndex {
+
+    public static final String FACET_CATEGORY = "category";
+    public static final String FACET_TAG = "tag";
+    public static final String FACET_AUTHOR = "author";
+    public static final String FACET_MONTH = "month";
+    private static final String[] FACETS = {FACET_CATEGORY, FACET_TAG, FACET_AUTHOR, FACET_MONTH};
+    // Positions in FACETS
+    private static final int CATEGORY = 0;
+    private static final int TAG = 1;
+    private static final int AUTHOR = 2;
+    private static final int MONTH = 3;
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int TITLE_BOOST = 3;
+    private static final int TAG_BOOST = 2;
+    private static final int CATEGORY_BOOST = 2;
+    private static final int MIN_DOCS_TO_COMPACT = 64;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Map<String, PostingsList> postings = new HashMap<>();
+    private long[] blogIds = new long[256];
+    private int[] docLengths = new int[256];
+    private int maxDoc;
+    private BitSet deleted = new BitSet();
+    private final Map<Long, Integer> docIdsByBlog = new HashMap<>();
+    private long totalLength;
+
+    // facet name -> facet value -> doc ids carrying that value; deleted docs are masked at query time
+    private Map<String, Map<String, BitSet>> facets = newFacetMaps();
+    // The same values numbered per facet (indexed like FACETS), and each doc's value ordinals,
+    // so counting walks the result docs instead of every value a facet has ever had
+    private List<Map<String, Integer>> facetOrdinals = newOrdinalMaps();
+    private List<List<String>> facetValues = newValueLists();
+    private int[][][] docFacets = new int[FACETS.length][256][];
+
+    // Reused per thread so a query does not allocate a score array the size of the index
+    private static final ThreadLocal<float[]> SCORES = ThreadLocal.withInitial(() -> new float[0]);
+    // Likewise for facet counts by ordinal; only the touched entries are cleared afterwards
+    private static final ThreadLocal<int[]> FACET_COUNTS = ThreadLocal.withInitial(() -> new int[0]);
+
+    public void index(SearchDocument document) {
+        Map<String, Integer> termFreqs = new HashMap<>();
+        addTerms(termFreqs, document.getTitle(), TITLE_BOOST);
+        for (String tag : document.getTags()) {
+            addTerms(termFreqs, tag, TAG_BOOST);
+        }
+        addTerms(termFreqs, document.getCategory(), CATEGORY_BOOST);
+        addTerms(termFreqs, document.getContent(), 1);
+
+        int length = 0;
+        for (int freq : termFreqs.values()) {
+            length += freq;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.getBlogId());
+            int docId = maxDoc++;
+            ensureCapacity(maxDoc);
+            blogIds[docId] = document.getBlogId();
+            docLengths[docId] = length;
+            docIdsByBlog.put(document.getBlogId(), docId);
+            totalLength += length;
+            for (Map.Entry<String, Integer> entry : termFreqs.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), k -> new PostingsList()).add(docId, entry.getValue());
+            }
+            addFacet(CATEGORY, document.getCategory(), docId);
+            for (String tag : document.getTags()) {
+                addFacet(TAG, tag, docId);
+            }
+            addFacet(AUTHOR, document.getAuthor(), docId);
+            if (document.getCreatedAt() != null) {
+                addFacet(MONTH, MONTH_FORMAT.format(document.getCreatedAt()), docId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long blogId) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(blogId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean removeLocked(long blogId) {
+        Integer docId = docIdsByBlog.remove(blogId);
+        if (docId == null) return false;
+        deleted.set(docId);
+        totalLength -= docLengths[docId];
+        if (maxDoc >= MIN_DOCS_TO_COMPACT && deleted.cardinality() * 4 > maxDoc) {
+            compact();
+        }
+        return true;
+    }
+
+    // filters maps facet names to a required value and allowed, when set, must accept the blog id;
+    // facetTopN of 0 skips facet counting
+    public SearchResult search(String query, int topK, Map<String, String> filters, LongPredicate allowed, int facetTopN) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(SearchAnalyzer.analyze(query)));
+        if (terms.isEmpty() || topK <= 0) {
+            return SearchResult.empty();
+        }
+
+        lock.readLock().lock();
+        try {
+            int liveDocs = docIdsByBlog.size();
+            if (liveDocs == 0) {
+                return SearchResult.empty();
+            }
+            float avgLength = (float) totalLength / liveDocs;
+
+            float[] scores = SCORES.get();
+            if (scores.length < maxDoc) {
+                scores = new float[Math.max(maxDoc, scores.length * 2)];
+                SCORES.set(scores);
+            }
+            BitSet matches = new BitSet(maxDoc);
+
+            // Term-at-a-time accumulation
+            for (String term : terms) {
+                PostingsList list = postings.get(term);
+                if (list == null) continue;
+                int df = Math.min(list.getDocFreq(), liveDocs);
+                float idf = (float) Math.log(1 + (liveDocs - df + 0.5) / (df + 0.5));
+                PostingsList.Cursor cursor = list.cursor();
+                while (cursor.next()) {
+                    int doc = cursor.doc();
+                    if (deleted.get(doc)) continue;
+                    float tf = cursor.freq();
+                    float norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                    matches.set(doc);
+                    scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+                }
+            }
+
+            // Scores are collected for every match, so the reusable array is always left zeroed
+            BitSet filtered = restrict(matches, filters, allowed);
+
+            PriorityQueue<SearchHit> heap = new PriorityQueue<>(topK + 1,
+                    (a, b) -> Float.compare(a.getScore(), b.getScore()));
+            for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+                float score = scores[doc];
+                scores[doc] = 0f;
+                if (filtered != matches && !filtered.get(doc)) continue;
+                if (heap.size() < topK) {
+                    heap.add(new SearchHit(blogIds[doc], score));
+                } else if (score > heap.peek().getScore()) {
+                    heap.poll();
+                    heap.add(new SearchHit(blogIds[doc], score));
+                }
+            }
+
+            List<SearchHit> hits = new ArrayList<>(heap);
+            hits.sort((a, b) -> Float.compare(b.getScore(), a.getScore()));
+            Map<String, List<FacetCount>> facetCounts = facetTopN > 0 ? countFacets(filtered, facetTopN) : Collections.emptyMap();
+            return new SearchResult(filtered.cardinality(), hits, facetCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Exact counts of the given facet values among the docs the query matches, for a sharded search
+    // to settle values that some shards left out of their bounded top lists
+    public Map<String, Map<String, Integer>> countFacetValues(String query, Map<String, String> filters, LongPredicate allowed,
+                                                             Map<String, ? extends Collection<String>> values) {
+        Map<String, Map<String, Integer>> counts = new HashMap<>();
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(SearchAnalyzer.analyze(query)));
+        lock.readLock().lock();
+        try {
+            BitSet matches = new BitSet(maxDoc);
+            for (String term : terms) {
+                PostingsList list = postings.get(term);
+                if (list == null) continue;
+                PostingsList.Cursor cursor = list.cursor();
+                while (cursor.next()) {
+                    if (!deleted.get(cursor.doc())) matches.set(cursor.doc());
+                }
+            }
+            BitSet filtered = restrict(matches, filters, allowed);
+            int resultCount = filtered.cardinality();
+            for (Map.Entry<String, ? extends Collection<String>> facet : values.entrySet()) {
+                Map<String, BitSet> bitsByValue = facets.get(facet.getKey());
+                Map<String, Integer> facetCounts = counts.computeIfAbsent(facet.getKey(), k -> new HashMap<>());
+                for (String value : facet.getValue()) {
+                    BitSet bits = bitsByValue != null ? bitsByValue.get(value) : null;
+                    facetCounts.put(value, bits == null || resultCount == 0 ? 0 : intersectionCount(filtered, resultCount, bits));
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Matches narrowed by the facet filters and the allowed predicate; the same set when neither applies
+    private BitSet restrict(BitSet matches, Map<String, String> filters, LongPredicate allowed) {
+        BitSet filtered = applyFilters(matches, filters);
+        if (allowed != null) {
+            if (filtered == matches) filtered = (BitSet) matches.clone();
+            for (int doc = filtered.nextSetBit(0); doc >= 0; doc = filtered.nextSetBit(doc + 1)) {
+                if (!allowed.test(blogIds[doc])) filtered.clear(doc);
+            }
+        }
+        return filtered;
+    }
+
+    private BitSet applyFilters(BitSet matches, Map<String, String> filters) {
+        if (filters == null || filters.isEmpty()) return matches;
+        BitSet filtered = (BitSet) matches.clone();
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            Map<String, BitSet> values = facets.get(filter.getKey());
+            BitSet bits = values != null ? values.get(filter.getValue()) : null;
+            if (bits == null) {
+                filtered.clear();
+                break;
+            }
+            filtered.and(bits);
+        }
+        return filtered;
+    }
+
+    // Top facet values by number of docs in the result set: each result doc adds one to the count
+    // of every value it carries, so the cost follows the results rather than the number of values
+    private Map<String, List<FacetCount>> countFacets(BitSet results, int topN) {
+        Map<String, List<FacetCount>> counts = new HashMap<>();
+        for (int facet = 0; facet < FACETS.length; facet++) {
+            List<String> values = facetValues.get(facet);
+            int[] valueCounts = FACET_COUNTS.get();
+            if (valueCounts.length < values.size()) {
+                valueCounts = new int[Math.max(values.size(), valueCounts.length * 2)];
+                FACET_COUNTS.set(valueCounts);
+            }
+            int[][] ordinalsByDoc = docFacets[facet];
+            int[] touched = new int[16];
+            int touchedCount = 0;
+            for (int doc = results.nextSetBit(0); doc >= 0; doc = results.nextSetBit(doc + 1)) {
+                int[] ordinals = ordinalsByDoc[doc];
+                if (ordinals == null) continue;
+                for (int ordinal : ordinals) {
+                    if (valueCounts[ordinal]++ > 0) continue;
+                    if (touchedCount == touched.length) touched = Arrays.copyOf(touched, touchedCount * 2);
+                    touched[touchedCount++] = ordinal;
+                }
+            }
+
+            PriorityQueue<FacetCount> top = new PriorityQueue<>(Math.min(topN, 1024) + 1,
+                    (a, b) -> a.getCount() != b.getCount() ? Integer.compare(a.getCount(), b.getCount()) : b.getValue().compareTo(a.getValue()));
+            for (int i = 0; i < touchedCount; i++) {
+                int ordinal = touched[i];
+                top.add(new FacetCount(values.get(ordinal), valueCounts[ordinal]));
+                if (top.size() > topN) top.poll();
+                valueCounts[ordinal] = 0;
+            }
+            List<FacetCount> sorted = new ArrayList<>(top);
+            sorted.sort((a, b) -> a.getCount() != b.getCount() ? Integer.compare(b.getCount(), a.getCount()) : a.getValue().compareTo(b.getValue()));
+            counts.put(FACETS[facet], sorted);
+        }
+        return counts;
+    }
+
+    // Probes a small result set bit by bit instead of intersecting whole bitmaps
+    private int intersectionCount(BitSet results, int resultCount, BitSet values) {
+        if (resultCount < maxDoc / 64) {
+            int count = 0;
+            for (int doc = results.nextSetBit(0); doc >= 0; doc = results.nextSetBit(doc + 1)) {
+                if (values.get(doc)) count++;
+            }
+            return count;
+        }
+        BitSet intersection = (BitSet) values.clone();
+        intersection.and(results);
+        return intersection.cardinality();
+    }
+
+    // Squeezes out deleted docs once they reach the given share of the index; returns whether it ran
+    public boolean compactIfNeeded(double minDeletedRatio) {
+        lock.writeLock().lock();
+        try {
+            int deletedDocs = deleted.cardinality();
+            if (deletedDocs == 0 || deletedDocs < minDeletedRatio * maxDoc) return false;
+            compact();
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return docIdsByBlog.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            long postingBytes = 0;
+            for (PostingsList list : postings.values()) {
+                postingBytes += list.sizeInBytes();
+            }
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("documents", docIdsByBlog.size());
+            stats.put("deletedDocuments", deleted.cardinality());
+            stats.put("terms", postings.size());
+            stats.put("postingBytes", postingBytes);
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // facet is an index into FACETS
+    private void addFacet(int facet, String value, int docId) {
+        if (value == null || value.isEmpty()) return;
+        facets.get(FACETS[facet]).computeIfAbsent(value, k -> new BitSet()).set(docId);
+        Integer ordinal = facetOrdinals.get(facet).get(value);
+        if (ordinal == null) {
+            ordinal = facetValues.get(facet).size();
+            facetValues.get(facet).add(value);
+            facetOrdinals.get(facet).put(value, ordinal);
+        }
+        addOrdinal(docFacets[facet], docId, ordinal);
+    }
+
+    private static void addOrdinal(int[][] ordinalsByDoc, int docId, int ordinal) {
+        int[] current = ordinalsByDoc[docId];
+        if (current == null) {
+            ordinalsByDoc[docId] = new int[]{ordinal};
+            return;
+        }
+        for (int existing : current) {
+            if (existing == ordinal) return;
+        }
+        int[] grown = Arrays.copyOf(current, current.length + 1);
+        grown[current.length] = ordinal;
+        ordinalsByDoc[docId] = grown;
+    }
+
+    private static List<Map<String, Integer>> newOrdinalMaps() {
+        List<Map<String, Integer>> maps = new ArrayList<>(FACETS.length);
+        for (int i = 0; i < FACETS.length; i++) {
+            maps.add(new HashMap<>());
+        }
+        return maps;
+    }
+
+    private static List<List<String>> newValueLists() {
+        List<List<String>> lists = new ArrayList<>(FACETS.length);
+        for (int i = 0; i < FACETS.length; i++) {
+            lists.add(new ArrayList<>());
+        }
+        return lists;
+    }
+
+    private static Map<String, Map<String, BitSet>> newFacetMaps() {
+        Map<String, Map<String, BitSet>> maps = new HashMap<>();
+        for (String facet : FACETS) {
+            maps.put(facet, new HashMap<>());
+        }
+        return maps;
+    }
+
+    private static void addTerms(Map<String, Integer> termFreqs, String text, int weight) {
+        for (String term : SearchAnalyzer.analyze(text)) {
+            termFreqs.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (size > blogIds.length) {
+            int newLength = Math.max(size, blogIds.length * 2);
+            blogIds = Arrays.copyOf(blogIds, newLength);
+            docLengths = Arrays.copyOf(docLengths, newLength);
+            for (int facet = 0; facet < FACETS.length; facet++) {
+                docFacets[facet] = Arrays.copyOf(docFacets[facet], newLength);
+            }
+        }
+    }
+
+    // Re-encodes every postings list without deleted docs; caller holds the write lock
+    private void compact() {
+        int[] remap = new int[maxDoc];
+        int next = 0;
+        for (int doc = 0; doc < maxDoc; doc++) {
+            remap[doc] = deleted.get(doc) ? -1 : next++;
+        }
+
+        Map<String, PostingsList> compacted = new HashMap<>();
+        for (Map.Entry<String, PostingsList> entry : postings.entrySet()) {
+            PostingsList copy = null;
+            PostingsList.Cursor cursor = entry.getValue().cursor();
+            while (cursor.next()) {
+                int doc = remap[cursor.doc()];
+                if (doc < 0) continue;
+                if (copy == null) copy = new PostingsList();
+                copy.add(doc, cursor.freq());
+            }
+            if (copy != null) compacted.put(entry.getKey(), copy);
+        }
+
+        long[] newBlogIds = new long[Math.max(256, next * 2)];
+        int[] newLengths = new int[newBlogIds.length];
+        for (int doc = 0; doc < maxDoc; doc++) {
+            int target = remap[doc];
+            if (target < 0) continue;
+            newBlogIds[target] = blogIds[doc];
+            newLengths[target] = docLengths[doc];
+            docIdsByBlog.put(blogIds[doc], target);
+        }
+
+        // Values left with no live doc lose their ordinal; the survivors are renumbered densely
+        Map<String, Map<String, BitSet>> compactedFacets = newFacetMaps();
+        List<Map<String, Integer>> compactedOrdinals = newOrdinalMaps();
+        List<List<String>> compactedValues = newValueLists();
+        int[][][] compactedDocFacets = new int[FACETS.length][newBlogIds.length][];
+        for (int facet = 0; facet < FACETS.length; facet++) {
+            for (Map.Entry<String, BitSet> value : facets.get(FACETS[facet]).entrySet()) {
+                BitSet bits = new BitSet(next);
+                BitSet old = value.getValue();
+                for (int doc = old.nextSetBit(0); doc >= 0; doc = old.nextSetBit(doc + 1)) {
+                    if (remap[doc] >= 0) bits.set(remap[doc]);
+                }
+                if (bits.isEmpty()) continue;
+                compactedFacets.get(FACETS[facet]).put(value.getKey(), bits);
+                int ordinal = compactedValues.get(facet).size();
+                compactedValues.get(facet).add(value.getKey());
+                compactedOrdinals.get(facet).put(value.getKey(), ordinal);
+                for (int doc = bits.nextSetBit(0); doc >= 0; doc = bits.nextSetBit(doc + 1)) {
+                    addOrdinal(compactedDocFacets[facet], doc, ordinal);
+                }
+            }
+        }
+
+        postings = compacted;
+        facets = compactedFacets;
+        facetOrdinals = compactedOrdinals;
+        facetValues = compactedValues;
+        docFacets = compactedDocFacets;
+        blogIds = newBlogIds;
+        docLengths = newLengths;
+        maxDoc = next;
+        deleted = new BitSet();
+    }
+}
@@ -0,0 +1,27 @@
+package com.examly.springapp.search;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+// Top hits in descending score order, the number of documents that matched at all
+// and the top facet values among those matches
+public class SearchResult {
+    private final int totalHits;
+    private final List<SearchHit> hits;
+    private final Map<String, List<FacetCount>> facets;
+
+    public SearchResult(int totalHits, List<SearchHit> hits, Map<String, List<FacetCount>> facets) {
+        this.totalHits = totalHits;
+        this.hits = hits;
+        this.facets = facets;
+    }
+
+    public static SearchResult empty() {
+        return new SearchResult(0, Collections.emptyList(), Collections.emptyMap());
+    }
+
+    public int getTotalHits() { return totalHits; }
+    public List<SearchHit> getHits() { return hits; }
+    public Map<String, List<FacetCount>> getFacets() { return facets; }
+}
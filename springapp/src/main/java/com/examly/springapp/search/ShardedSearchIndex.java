@@ -0,0 +1,218 @@
+package com.examly.springapp.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.LongPredicate;
+
+// Splits the corpus across SearchIndex shards by blog id. A query runs on every shard in parallel
+// on a dedicated ForkJoinPool, and the per-shard top-K lists are merged with a heap. Facets come
+// back as bounded candidate lists per shard, with exact counts fetched for any leader a shard cut off.
+// Relevance statistics (idf, average length) are per shard, which evens out once shards are large.
+public class ShardedSearchIndex {
+
+    private final SearchIndex[] shards;
+    private final ForkJoinPool pool;
+
+    public ShardedSearchIndex(int shardCount, int parallelism) {
+        shards = new SearchIndex[Math.max(1, shardCount)];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new SearchIndex();
+        }
+        pool = new ForkJoinPool(Math.max(1, Math.min(parallelism, shards.length)));
+    }
+
+    public void index(SearchDocument document) {
+        shardFor(document.getBlogId()).index(document);
+    }
+
+    public boolean remove(long blogId) {
+        return shardFor(blogId).remove(blogId);
+    }
+
+    public SearchResult search(String query, int topK, Map<String, String> filters, LongPredicate allowed, int facetTopN) {
+        if (shards.length == 1) {
+            return shards[0].search(query, topK, filters, allowed, facetTopN);
+        }
+        // Shards report their top facet values plus slack rather than every value they have
+        int shardFacetTopN = facetTopN > 0 ? shardFacetTopN(facetTopN) : 0;
+        List<Callable<SearchResult>> tasks = new ArrayList<>(shards.length);
+        for (SearchIndex shard : shards) {
+            tasks.add(() -> shard.search(query, topK, filters, allowed, shardFacetTopN));
+        }
+        List<SearchResult> results = runAll(tasks);
+
+        int totalHits = 0;
+        for (SearchResult result : results) {
+            totalHits += result.getTotalHits();
+        }
+        Map<String, List<FacetCount>> facets = facetTopN > 0
+                ? mergeFacets(results, facetTopN, shardFacetTopN, query, filters, allowed) : new HashMap<>();
+        return new SearchResult(totalHits, mergeHits(results, topK), facets);
+    }
+
+    // Per-shard candidate list size for a requested top N
+    static int shardFacetTopN(int topN) {
+        return topN > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : topN + topN / 2 + 10;
+    }
+
+    private <T> List<T> runAll(List<Callable<T>> tasks) {
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Search interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Search failed on a shard", e.getCause());
+        }
+        return results;
+    }
+
+    // Merges per-shard hit lists, each already sorted by descending score
+    private static List<SearchHit> mergeHits(List<SearchResult> results, int topK) {
+        // Entries are {shard, position in that shard's hits}
+        PriorityQueue<int[]> heads = new PriorityQueue<>(results.size(), (a, b) -> Float.compare(
+                results.get(b[0]).getHits().get(b[1]).getScore(), results.get(a[0]).getHits().get(a[1]).getScore()));
+        for (int shard = 0; shard < results.size(); shard++) {
+            if (!results.get(shard).getHits().isEmpty()) heads.add(new int[]{shard, 0});
+        }
+        List<SearchHit> merged = new ArrayList<>(topK);
+        while (merged.size() < topK && !heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<SearchHit> hits = results.get(head[0]).getHits();
+            merged.add(hits.get(head[1]));
+            if (head[1] + 1 < hits.size()) heads.add(new int[]{head[0], head[1] + 1});
+        }
+        return merged;
+    }
+
+    // Sums the shard candidates and keeps the top N. A shard whose list was cut off may still have
+    // counted a leading value it did not report, so those shards are asked for exact counts of the
+    // leaders they left out before the final order is taken.
+    private Map<String, List<FacetCount>> mergeFacets(List<SearchResult> results, int topN, int shardTopN,
+                                                      String query, Map<String, String> filters, LongPredicate allowed) {
+        Map<String, Map<String, Integer>> totals = new HashMap<>();
+        for (SearchResult result : results) {
+            for (Map.Entry<String, List<FacetCount>> facet : result.getFacets().entrySet()) {
+                Map<String, Integer> counts = totals.computeIfAbsent(facet.getKey(), k -> new HashMap<>());
+                for (FacetCount count : facet.getValue()) {
+                    counts.merge(count.getValue(), count.getCount(), Integer::sum);
+                }
+            }
+        }
+
+        // Refinement: per shard, facet -> leading values it did not report
+        Map<String, List<FacetCount>> leaders = new HashMap<>();
+        for (Map.Entry<String, Map<String, Integer>> facet : totals.entrySet()) {
+            leaders.put(facet.getKey(), top(facet.getValue(), topN));
+        }
+        List<Map<String, Set<String>>> missing = new ArrayList<>(results.size());
+        boolean refine = false;
+        for (SearchResult result : results) {
+            Map<String, Set<String>> shardMissing = new HashMap<>();
+            for (Map.Entry<String, List<FacetCount>> facet : result.getFacets().entrySet()) {
+                if (facet.getValue().size() < shardTopN) continue;
+                Set<String> reported = new HashSet<>();
+                for (FacetCount count : facet.getValue()) {
+                    reported.add(count.getValue());
+                }
+                for (FacetCount leader : leaders.get(facet.getKey())) {
+                    if (!reported.contains(leader.getValue())) {
+                        shardMissing.computeIfAbsent(facet.getKey(), k -> new HashSet<>()).add(leader.getValue());
+                    }
+                }
+            }
+            missing.add(shardMissing);
+            refine |= !shardMissing.isEmpty();
+        }
+        if (refine) {
+            List<Callable<Map<String, Map<String, Integer>>>> tasks = new ArrayList<>();
+            for (int shard = 0; shard < shards.length; shard++) {
+                if (missing.get(shard).isEmpty()) continue;
+                SearchIndex index = shards[shard];
+                Map<String, ? extends Collection<String>> values = missing.get(shard);
+                tasks.add(() -> index.countFacetValues(query, filters, allowed, values));
+            }
+            for (Map<String, Map<String, Integer>> exact : runAll(tasks)) {
+                for (Map.Entry<String, Map<String, Integer>> facet : exact.entrySet()) {
+                    Map<String, Integer> counts = totals.get(facet.getKey());
+                    for (Map.Entry<String, Integer> value : facet.getValue().entrySet()) {
+                        counts.merge(value.getKey(), value.getValue(), Integer::sum);
+                    }
+                }
+            }
+        }
+
+        Map<String, List<FacetCount>> merged = new HashMap<>();
+        for (Map.Entry<String, Map<String, Integer>> facet : totals.entrySet()) {
+            merged.put(facet.getKey(), top(facet.getValue(), topN));
+        }
+        return merged;
+    }
+
+    private static List<FacetCount> top(Map<String, Integer> totals, int topN) {
+        List<FacetCount> counts = new ArrayList<>(totals.size());
+        for (Map.Entry<String, Integer> value : totals.entrySet()) {
+            counts.add(new FacetCount(value.getKey(), value.getValue()));
+        }
+        counts.sort((a, b) -> a.getCount() != b.getCount() ? Integer.compare(b.getCount(), a.getCount()) : a.getValue().compareTo(b.getValue()));
+        return new ArrayList<>(counts.subList(0, Math.min(topN, counts.size())));
+    }
+
+    // Compacts each shard whose deleted docs reach the ratio; returns how many were compacted
+    public int compact(double minDeletedRatio) {
+        int compacted = 0;
+        for (SearchIndex shard : shards) {
+            if (shard.compactIfNeeded(minDeletedRatio)) compacted++;
+        }
+        return compacted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (SearchIndex shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        List<Map<String, Object>> perShard = new ArrayList<>();
+        long documents = 0;
+        long deletedDocuments = 0;
+        long postingBytes = 0;
+        for (SearchIndex shard : shards) {
+            Map<String, Object> shardStats = shard.getStats();
+            documents += ((Number) shardStats.get("documents")).longValue();
+            deletedDocuments += ((Number) shardStats.get("deletedDocuments")).longValue();
+            postingBytes += ((Number) shardStats.get("postingBytes")).longValue();
+            perShard.add(shardStats);
+        }
+        stats.put("documents", documents);
+        stats.put("deletedDocuments", deletedDocuments);
+        stats.put("postingBytes", postingBytes);
+        stats.put("shards", perShard);
+        return stats;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private SearchIndex shardFor(long blogId) {
+        return shards[(int) Math.floorMod(blogId, (long) shards.length)];
+    }
+}
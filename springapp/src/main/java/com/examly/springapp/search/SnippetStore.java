@@ -0,0 +1,247 @@
+package com.examly.springapp.search;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+// Keeps each blog's plain text deflated next to a sentence table: the UTF-8 end offset of every
+// sentence and the hashed terms it contains. A snippet picks the sentence with the most query
+// terms from the table alone, then inflates only as far as that sentence ends.
+public class SnippetStore {
+
+    private final ConcurrentHashMap<Long, StoredText> texts = new ConcurrentHashMap<>();
+
+    private static final class StoredText {
+        final byte[] deflated;
+        final int[] sentenceEnds;
+        // Sorted term hashes of sentence i are termHashes[termStarts[i] .. termStarts[i + 1])
+        final int[] termStarts;
+        final int[] termHashes;
+
+        StoredText(byte[] deflated, int[] sentenceEnds, int[] termStarts, int[] termHashes) {
+            this.deflated = deflated;
+            this.sentenceEnds = sentenceEnds;
+            this.termStarts = termStarts;
+            this.termHashes = termHashes;
+        }
+
+        int sizeInBytes() {
+            return deflated.length + 4 * (sentenceEnds.length + termStarts.length + termHashes.length);
+        }
+    }
+
+    public void put(long blogId, String content) {
+        String text = content == null ? "" : content.replaceAll("<[^>]+>", " ").replaceAll("\\s+", " ").trim();
+        List<String> sentences = splitSentences(text);
+
+        int[] sentenceEnds = new int[sentences.size()];
+        int[] termStarts = new int[sentences.size() + 1];
+        List<Integer> hashes = new ArrayList<>();
+        int offset = 0;
+        for (int i = 0; i < sentences.size(); i++) {
+            offset += sentences.get(i).getBytes(StandardCharsets.UTF_8).length;
+            sentenceEnds[i] = offset;
+            int[] terms = hashTerms(SearchAnalyzer.analyze(sentences.get(i)));
+            for (int hash : terms) hashes.add(hash);
+            termStarts[i + 1] = hashes.size();
+        }
+        int[] termHashes = new int[hashes.size()];
+        for (int i = 0; i < termHashes.length; i++) termHashes[i] = hashes.get(i);
+
+        texts.put(blogId, new StoredText(deflate(text.getBytes(StandardCharsets.UTF_8)), sentenceEnds, termStarts, termHashes));
+    }
+
+    public void remove(long blogId) {
+        texts.remove(blogId);
+    }
+
+    // Best-matching passage with query terms wrapped in <mark>, HTML-escaped; null if the blog is unknown
+    public String snippet(long blogId, Collection<String> queryTerms, int maxLength) {
+        StoredText stored = texts.get(blogId);
+        if (stored == null) return null;
+        int sentenceCount = stored.sentenceEnds.length;
+        if (sentenceCount == 0) return "";
+
+        int[] query = hashTerms(queryTerms);
+        int best = 0;
+        int bestMatches = 0;
+        for (int i = 0; i < sentenceCount; i++) {
+            int matches = 0;
+            for (int j = stored.termStarts[i]; j < stored.termStarts[i + 1]; j++) {
+                if (Arrays.binarySearch(query, stored.termHashes[j]) >= 0) matches++;
+            }
+            if (matches > bestMatches) {
+                best = i;
+                bestMatches = matches;
+            }
+        }
+
+        // Take the following sentence too while it still fits
+        int start = best == 0 ? 0 : stored.sentenceEnds[best - 1];
+        int end = stored.sentenceEnds[best];
+        if (best + 1 < sentenceCount && stored.sentenceEnds[best + 1] - start <= maxLength) {
+            end = stored.sentenceEnds[best + 1];
+        }
+        byte[] prefix = inflate(stored.deflated, end);
+        String passage = new String(prefix, start, end - start, StandardCharsets.UTF_8).trim();
+        Set<String> terms = new HashSet<>(queryTerms);
+        return highlight(trimAroundMatch(passage, terms, maxLength), terms);
+    }
+
+    public int size() {
+        return texts.size();
+    }
+
+    public long sizeInBytes() {
+        long bytes = 0;
+        for (StoredText stored : texts.values()) {
+            bytes += stored.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    // Cuts an over-long passage to maxLength around its first query term, on word boundaries
+    private String trimAroundMatch(String passage, Set<String> queryTerms, int maxLength) {
+        if (passage.length() <= maxLength) return passage;
+        int match = 0;
+        for (int[] word : words(passage)) {
+            if (isQueryTerm(passage.substring(word[0], word[1]), queryTerms)) {
+                match = word[0];
+                break;
+            }
+        }
+        int from = Math.max(0, Math.min(match - maxLength / 4, passage.length() - maxLength));
+        int to = Math.min(passage.length(), from + maxLength);
+        if (from > 0) {
+            int space = passage.indexOf(' ', from);
+            from = space >= 0 && space < match ? space + 1 : from;
+        }
+        if (to < passage.length()) {
+            int space = passage.lastIndexOf(' ', to);
+            to = space > from ? space : to;
+        }
+        return (from > 0 ? "..." : "") + passage.substring(from, to) + (to < passage.length() ? "..." : "");
+    }
+
+    private String highlight(String passage, Set<String> queryTerms) {
+        StringBuilder html = new StringBuilder(passage.length() + 32);
+        int last = 0;
+        for (int[] word : words(passage)) {
+            escape(html, passage, last, word[0]);
+            String text = passage.substring(word[0], word[1]);
+            if (isQueryTerm(text, queryTerms)) {
+                html.append("<mark>");
+                escape(html, passage, word[0], word[1]);
+                html.append("</mark>");
+            } else {
+                escape(html, passage, word[0], word[1]);
+            }
+            last = word[1];
+        }
+        escape(html, passage, last, passage.length());
+        return html.toString();
+    }
+
+    private static boolean isQueryTerm(String word, Set<String> queryTerms) {
+        List<String> terms = SearchAnalyzer.analyze(word);
+        return terms.size() == 1 && queryTerms.contains(terms.get(0));
+    }
+
+    // [start, end) of each letter/digit run, matching how SearchAnalyzer splits words
+    private static List<int[]> words(String text) {
+        List<int[]> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(new int[]{start, i});
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static void escape(StringBuilder html, String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == '<') html.append("&lt;");
+            else if (c == '>') html.append("&gt;");
+            else if (c == '&') html.append("&amp;");
+            else if (c == '"') html.append("&quot;");
+            else html.append(c);
+        }
+    }
+
+    private static List<String> splitSentences(String text) {
+        List<String> sentences = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean boundary = (c == '.' || c == '!' || c == '?') && (i + 1 == text.length() || text.charAt(i + 1) == ' ');
+            if (boundary) {
+                sentences.add(text.substring(start, i + 1));
+                start = i + 1;
+            }
+        }
+        if (start < text.length()) sentences.add(text.substring(start));
+        return sentences;
+    }
+
+    private static int[] hashTerms(Collection<String> terms) {
+        Set<Integer> distinct = new LinkedHashSet<>();
+        for (String term : terms) distinct.add(term.hashCode());
+        int[] hashes = new int[distinct.size()];
+        int i = 0;
+        for (int hash : distinct) hashes[i++] = hash;
+        Arrays.sort(hashes);
+        return hashes;
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    // Inflates only the first length bytes
+    private static byte[] inflate(byte[] deflated, int length) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(deflated);
+            byte[] out = new byte[length];
+            int read = 0;
+            while (read < length && !inflater.finished()) {
+                int n = inflater.inflate(out, read, length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                read += n;
+            }
+            return out;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt stored text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
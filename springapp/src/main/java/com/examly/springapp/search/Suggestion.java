@@ -0,0 +1,30 @@
+package com.examly.springapp.search;
+
+// One type-ahead candidate; blogId is only set for titles
+public class Suggestion {
+
+    public enum Type { TITLE, TAG, AUTHOR }
+
+    private final Type type;
+    private final String text;
+    private final Long blogId;
+    private final long score;
+
+    public Suggestion(Type type, String text, Long blogId, long score) {
+        this.type = type;
+        this.text = text;
+        this.blogId = blogId;
+        this.score = score;
+    }
+
+    public Type getType() { return type; }
+    public String getText() { return text; }
+    public Long getBlogId() { return blogId; }
+    public long getScore() { return score; }
+
+    // Identity within the suggester: a blog's title, or a tag / author name
+    boolean sameAs(Suggestion other) {
+        if (type != other.type) return false;
+        return blogId != null ? blogId.equals(other.blogId) : text.equals(other.text);
+    }
+}
@@ -0,0 +1,220 @@
+package com.examly.springapp.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Spelling correction over the title and tag vocabulary. Each word is split into boundary-padded
+// trigrams ("$ku", "kub", ..., "es$"); candidates are the words sharing enough trigrams with the
+// misspelling, and only those are checked with a bounded edit distance.
+public class TrigramIndex {
+
+    private static final int MIN_WORD_LENGTH = 4;
+    private static final int LONG_WORD_LENGTH = 6;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> wordIds = new HashMap<>();
+    private final List<String> words = new ArrayList<>();
+    // Number of blogs using each word; a word that drops to zero leaves the trigram lists and its
+    // id is handed to the next new word
+    private int[] docFreqs = new int[256];
+    private final IntList freeIds = new IntList();
+    private final Map<String, IntList> wordsByTrigram = new HashMap<>();
+    private final Map<Long, String[]> wordsByBlog = new HashMap<>();
+
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        // Order is not kept
+        void remove(int value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    values[i] = values[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    public void add(long blogId, Collection<String> texts) {
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String text : texts) {
+            for (String word : SearchAnalyzer.tokenize(text)) {
+                if (word.length() >= MIN_WORD_LENGTH && !SearchAnalyzer.isStopWord(word)) distinct.add(word);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            // Counted before the old words are released, so words the blog keeps are not reclaimed
+            for (String word : distinct) {
+                docFreqs[idFor(word)]++;
+            }
+            removeLocked(blogId);
+            wordsByBlog.put(blogId, distinct.toArray(new String[0]));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long blogId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(blogId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long blogId) {
+        String[] previous = wordsByBlog.remove(blogId);
+        if (previous == null) return;
+        for (String word : previous) {
+            int id = wordIds.get(word);
+            if (--docFreqs[id] == 0) release(id);
+        }
+    }
+
+    private void release(int id) {
+        String word = words.set(id, null);
+        wordIds.remove(word);
+        for (String gram : new LinkedHashSet<>(trigrams(word))) {
+            IntList ids = wordsByTrigram.get(gram);
+            ids.remove(id);
+            if (ids.size == 0) wordsByTrigram.remove(gram);
+        }
+        freeIds.add(id);
+    }
+
+    // Rewrites each unknown word of the query to its closest known word; null when nothing changed
+    public String correctQuery(String query) {
+        List<String> tokens = SearchAnalyzer.tokenize(query);
+        boolean changed = false;
+        lock.readLock().lock();
+        try {
+            for (int i = 0; i < tokens.size(); i++) {
+                String word = tokens.get(i);
+                if (word.length() < MIN_WORD_LENGTH || SearchAnalyzer.isStopWord(word) || isKnown(word)) continue;
+                String correction = closest(word);
+                if (correction != null) {
+                    tokens.set(i, correction);
+                    changed = true;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return changed ? String.join(" ", tokens) : null;
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new HashMap<>();
+            stats.put("words", wordIds.size());
+            stats.put("trigrams", wordsByTrigram.size());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean isKnown(String word) {
+        return wordIds.containsKey(word);
+    }
+
+    // Most frequent word within the edit budget, preferring fewer edits
+    private String closest(String word) {
+        int maxEdits = word.length() >= LONG_WORD_LENGTH ? 2 : 1;
+        List<String> grams = trigrams(word);
+        // Each edit destroys at most three trigrams
+        int minShared = Math.max(1, grams.size() - 3 * maxEdits);
+
+        Map<Integer, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            IntList ids = wordsByTrigram.get(gram);
+            if (ids == null) continue;
+            for (int i = 0; i < ids.size; i++) {
+                shared.merge(ids.values[i], 1, Integer::sum);
+            }
+        }
+
+        String best = null;
+        int bestDistance = maxEdits + 1;
+        int bestFreq = 0;
+        for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+            int id = candidate.getKey();
+            if (candidate.getValue() < minShared) continue;
+            String term = words.get(id);
+            if (Math.abs(term.length() - word.length()) > maxEdits) continue;
+            int distance = boundedDistance(word, term, Math.min(maxEdits, bestDistance));
+            if (distance < bestDistance || (distance == bestDistance && docFreqs[id] > bestFreq)) {
+                best = term;
+                bestDistance = distance;
+                bestFreq = docFreqs[id];
+            }
+        }
+        return bestDistance <= maxEdits ? best : null;
+    }
+
+    private int idFor(String word) {
+        Integer id = wordIds.get(word);
+        if (id != null) return id;
+        int newId;
+        if (freeIds.size > 0) {
+            newId = freeIds.values[--freeIds.size];
+            words.set(newId, word);
+        } else {
+            newId = words.size();
+            words.add(word);
+            if (newId >= docFreqs.length) docFreqs = Arrays.copyOf(docFreqs, docFreqs.length * 2);
+        }
+        wordIds.put(word, newId);
+        for (String gram : new LinkedHashSet<>(trigrams(word))) {
+            wordsByTrigram.computeIfAbsent(gram, g -> new IntList()).add(newId);
+        }
+        return newId;
+    }
+
+    private static List<String> trigrams(String word) {
+        String padded = "$" + word + "$";
+        List<String> grams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    // Levenshtein distance, or max + 1 as soon as every cell of a row exceeds max
+    static int boundedDistance(String a, String b, int max) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > max) return max + 1;
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[b.length()], max + 1);
+    }
+}
@@ -2,10 +2,11 @@ package com.examly.springapp.service;
 
 import com.examly.springapp.model.Blog;
 import com.examly.springapp.model.ContentMetrics;
+import com.examly.springapp.text.TextAnalysis;
+import com.examly.springapp.text.TextAnalyzer;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,20 +18,21 @@ public class AIService {
         
         String content = blog.getContent();
         String title = blog.getTitle();
+        TextAnalysis text = TextAnalyzer.analyze(content);
         
         // Content quality metrics
-        analysis.put("readabilityScore", calculateReadabilityScore(content));
-        analysis.put("seoScore", calculateSEOScore(title, content));
-        analysis.put("engagementPrediction", predictEngagement(content));
-        analysis.put("contentLength", content.length());
-        analysis.put("wordCount", countWords(content));
-        analysis.put("sentenceCount", countSentences(content));
+        analysis.put("readabilityScore", text.getFleschReadingEase());
+        analysis.put("seoScore", calculateSEOScore(title, text));
+        analysis.put("engagementPrediction", predictEngagement(content, text));
+        analysis.put("contentLength", text.getLength());
+        analysis.put("wordCount", text.getWordCount());
+        analysis.put("sentenceCount", text.getSentenceCount());
         
         // Content structure analysis
-        analysis.put("hasHeadings", hasHeadings(content));
-        analysis.put("hasBulletPoints", hasBulletPoints(content));
-        analysis.put("hasImages", hasImages(content));
-        analysis.put("hasLinks", hasLinks(content));
+        analysis.put("hasHeadings", text.hasHeadings());
+        analysis.put("hasBulletPoints", text.hasLists());
+        analysis.put("hasImages", text.hasImages());
+        analysis.put("hasLinks", text.hasLinks());
         
         // Recommendations
         analysis.put("recommendations", generateContentRecommendations(analysis));
@@ -66,7 +68,8 @@ public class AIService {
     
     // Machine learning for engagement prediction
     public double predictContentSuccess(Blog blog, List<ContentMetrics> historicalData) {
-        Map<String, Object> contentFeatures = extractContentFeatures(blog);
+        TextAnalysis text = TextAnalyzer.analyze(blog.getContent());
+        Map<String, Object> contentFeatures = extractContentFeatures(blog, text);
         
         // Simple ML model simulation
         double baseScore = 0.5;
@@ -84,7 +87,7 @@ public class AIService {
         }
         
         // Readability factor
-        double readability = calculateReadabilityScore(blog.getContent());
+        double readability = text.getFleschReadingEase();
         baseScore += (readability / 100) * 0.2;
         
         // Historical performance factor
@@ -208,21 +211,7 @@ public class AIService {
     }
     
     // Private helper methods
-    private double calculateReadabilityScore(String content) {
-        // Simplified Flesch Reading Ease calculation
-        int sentences = countSentences(content);
-        int words = countWords(content);
-        int syllables = countSyllables(content);
-        
-        if (sentences == 0 || words == 0) return 0;
-        
-        double avgSentenceLength = (double) words / sentences;
-        double avgSyllablesPerWord = (double) syllables / words;
-        
-        return 206.835 - (1.015 * avgSentenceLength) - (84.6 * avgSyllablesPerWord);
-    }
-    
-    private double calculateSEOScore(String title, String content) {
+    private double calculateSEOScore(String title, TextAnalysis text) {
         double score = 0;
         
         // Title length (30-60 characters is optimal)
@@ -230,40 +219,39 @@ public class AIService {
         if (titleLength >= 30 && titleLength <= 60) score += 20;
         
         // Content length (1000+ words is good)
-        if (content.length() >= 1000) score += 20;
+        if (text.getLength() >= 1000) score += 20;
         
         // Headings presence
-        if (hasHeadings(content)) score += 15;
+        if (text.hasHeadings()) score += 15;
         
-        // Keyword density (simplified)
-        String[] titleWords = title.toLowerCase().split("\\s+");
-        for (String word : titleWords) {
-            if (word.length() > 3 && content.toLowerCase().contains(word)) {
-                score += 5;
+        // Title keywords that appear in the content
+        TextAnalysis titleText = TextAnalyzer.analyze(title);
+        for (Map.Entry<String, Integer> keyword : titleText.getTermFrequencies().entrySet()) {
+            if (keyword.getKey().length() > 3 && text.getTermFrequency(keyword.getKey()) > 0) {
+                score += 5 * keyword.getValue();
             }
         }
         
         // Meta elements (simplified check)
-        if (content.contains("http")) score += 10; // Has links
+        if (text.hasLinks()) score += 10;
         
         return Math.min(100, score);
     }
     
-    private double predictEngagement(String content) {
+    private double predictEngagement(String content, TextAnalysis text) {
         double engagement = 0.5; // Base engagement
         
         // Content length factor
-        int length = content.length();
+        int length = text.getLength();
         if (length >= 500 && length <= 2000) engagement += 0.2;
         
         // Question marks (engagement trigger)
-        long questionCount = content.chars().filter(c -> c == '?').count();
-        engagement += Math.min(0.1, questionCount * 0.02);
+        engagement += Math.min(0.1, text.getQuestionMarkCount() * 0.02);
         
         // Emotional words
         String[] emotionalWords = {"amazing", "incredible", "shocking", "surprising", "love", "hate"};
         for (String word : emotionalWords) {
-            if (content.toLowerCase().contains(word)) {
+            if (TextAnalyzer.containsIgnoreCase(content, word)) {
                 engagement += 0.05;
             }
         }
@@ -271,35 +259,6 @@ public class AIService {
         return Math.min(1.0, engagement);
     }
     
-    private int countWords(String content) {
-        return content.trim().isEmpty() ? 0 : content.trim().split("\\s+").length;
-    }
-    
-    private int countSentences(String content) {
-        return content.split("[.!?]+").length;
-    }
-    
-    private int countSyllables(String content) {
-        // Simplified syllable counting
-        return content.toLowerCase().replaceAll("[^aeiou]", "").length();
-    }
-    
-    private boolean hasHeadings(String content) {
-        return content.contains("#") || content.contains("<h");
-    }
-    
-    private boolean hasBulletPoints(String content) {
-        return content.contains("*") || content.contains("-") || content.contains("<li>");
-    }
-    
-    private boolean hasImages(String content) {
-        return content.contains("![") || content.contains("<img");
-    }
-    
-    private boolean hasLinks(String content) {
-        return content.contains("http") || content.contains("[");
-    }
-    
     private List<String> generateContentRecommendations(Map<String, Object> analysis) {
         List<String> recommendations = new ArrayList<>();
         
@@ -370,12 +329,12 @@ public class AIService {
         return topicKeywords.getOrDefault(topic, Arrays.asList("general", "content", "blog"));
     }
     
-    private Map<String, Object> extractContentFeatures(Blog blog) {
+    private Map<String, Object> extractContentFeatures(Blog blog, TextAnalysis text) {
         Map<String, Object> features = new HashMap<>();
         features.put("titleLength", blog.getTitle().length());
-        features.put("contentLength", blog.getContent().length());
-        features.put("wordCount", countWords(blog.getContent()));
-        features.put("hasHeadings", hasHeadings(blog.getContent()));
+        features.put("contentLength", text.getLength());
+        features.put("wordCount", text.getWordCount());
+        features.put("hasHeadings", text.hasHeadings());
         return features;
     }
     
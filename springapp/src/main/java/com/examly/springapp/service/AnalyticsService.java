@@ -5,13 +5,17 @@ import com.examly.springapp.model.Blog;
 import com.examly.springapp.repository.ContentMetricsRepository;
 import com.examly.springapp.repository.BlogRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
+// Read-only throughout, so these scans run on a read replica when replicas are configured
 @Service
+@Transactional(readOnly = true)
 public class AnalyticsService {
     
     @Autowired
@@ -20,6 +24,9 @@ public class AnalyticsService {
     @Autowired
     private BlogRepository blogRepository;
     
+    @Autowired
+    private LeaderboardService leaderboardService;
+    
     // Content Performance Analytics
     public Map<String, Object> getContentPerformanceMetrics(Long blogId) {
         List<ContentMetrics> metrics = metricsRepository.findByBlogId(blogId);
@@ -134,6 +141,9 @@ public class AnalyticsService {
         
         // Top Performing Content
         dashboard.put("topContent", getTopPerformingContent(5));
+        dashboard.put("mostViewed", leaderboardService.top(LeaderboardService.VIEWS, null, 5));
+        dashboard.put("mostCommented", leaderboardService.top(LeaderboardService.COMMENTS, null, 5));
+        dashboard.put("mostLiked", leaderboardService.top(LeaderboardService.LIKES, null, 5));
         
         return dashboard;
     }
@@ -200,8 +210,7 @@ public class AnalyticsService {
     }
     
     private List<Map<String, Object>> getTopPerformingContent(int limit) {
-        return metricsRepository.findTopPerformingContent().stream()
-            .limit(limit)
+        return metricsRepository.findTopPerformingContent(PageRequest.of(0, limit)).stream()
             .map(m -> {
                 Map<String, Object> content = new HashMap<>();
                 content.put("blogId", m.getBlog().getId());
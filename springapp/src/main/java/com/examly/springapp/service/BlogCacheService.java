@@ -0,0 +1,174 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Blog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Size-bounded LRU cache of blog snapshots keyed by id, with a slug index for pretty URLs.
+// Entries are detached copies and must never be modified by callers.
+@Service
+public class BlogCacheService {
+
+    @Value("${app.cache.blogs.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.blogs.max-size:1000}")
+    private int maxSize;
+
+    @Value("${app.cache.blogs.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, Long> slugIndex = new HashMap<>();
+
+    // Bumped on every invalidation so loads that raced a write do not cache stale data
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private static class Entry {
+        final Blog blog;
+        final long expiresAt;
+
+        Entry(Blog blog, long expiresAt) {
+            this.blog = blog;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    public Blog get(Long id) {
+        if (!enabled) return null;
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return entry.blog;
+            }
+            if (entry != null) {
+                remove(id);
+                evictions.incrementAndGet();
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public Blog getBySlug(String slug) {
+        if (!enabled || slug == null) return null;
+        Long id;
+        synchronized (this) {
+            id = slugIndex.get(slug);
+        }
+        if (id == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        return get(id);
+    }
+
+    // Read before loading from the database and passed back to put()
+    public long generation() {
+        return generation.get();
+    }
+
+    // Caches a detached copy of the entity and returns it
+    public Blog put(Blog blog, long loadGeneration) {
+        Blog copy = snapshot(blog);
+        if (!enabled) return copy;
+        synchronized (this) {
+            if (generation.get() != loadGeneration) {
+                return copy;
+            }
+            remove(copy.getId());
+            entries.put(copy.getId(), new Entry(copy, System.currentTimeMillis() + ttlSeconds * 1000));
+            if (copy.getSlug() != null) {
+                slugIndex.put(copy.getSlug(), copy.getId());
+            }
+            while (entries.size() > maxSize) {
+                Long eldest = entries.keySet().iterator().next();
+                remove(eldest);
+                evictions.incrementAndGet();
+            }
+        }
+        return copy;
+    }
+
+    public void evict(Long id) {
+        synchronized (this) {
+            generation.incrementAndGet();
+            if (remove(id)) {
+                invalidations.incrementAndGet();
+            }
+        }
+    }
+
+    // After commit, so a concurrent miss cannot reload and cache the pre-update row
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        evict(event.getBlogId());
+    }
+
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        invalidations.addAndGet(entries.size());
+        entries.clear();
+        slugIndex.clear();
+    }
+
+    private boolean remove(Long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) return false;
+        String slug = entry.blog.getSlug();
+        if (slug != null && id.equals(slugIndex.get(slug))) {
+            slugIndex.remove(slug);
+        }
+        return true;
+    }
+
+    private Blog snapshot(Blog blog) {
+        Blog copy = new Blog();
+        copy.setId(blog.getId());
+        copy.setTitle(blog.getTitle());
+        copy.setContent(blog.getContent());
+        copy.setTags(blog.getTags() != null ? new ArrayList<>(blog.getTags()) : null);
+        copy.setAuthor(blog.getAuthor());
+        copy.setCreatedAt(blog.getCreatedAt());
+        copy.setUpdatedAt(blog.getUpdatedAt());
+        copy.setStatus(blog.getStatus());
+        copy.setSeoTitle(blog.getSeoTitle());
+        copy.setSeoDescription(blog.getSeoDescription());
+        copy.setSlug(blog.getSlug());
+        copy.setCategory(blog.getCategory());
+        copy.setPublished(blog.isPublished());
+        copy.setViews(blog.getViews());
+        copy.setFeaturedImage(blog.getFeaturedImage());
+        copy.setVersion(blog.getVersion());
+        return copy;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        synchronized (this) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+}
@@ -0,0 +1,36 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Blog;
+
+// Published by BlogService after a blog is saved or deleted so derived read models can follow.
+// For saves the blog's tags are initialized before publishing, so listeners may read them after commit.
+public class BlogChangedEvent {
+
+    public enum Type { SAVED, DELETED }
+
+    private final Type type;
+    private final Long blogId;
+    private final Blog blog;
+
+    private BlogChangedEvent(Type type, Long blogId, Blog blog) {
+        this.type = type;
+        this.blogId = blogId;
+        this.blog = blog;
+    }
+
+    public static BlogChangedEvent saved(Blog blog) {
+        return new BlogChangedEvent(Type.SAVED, blog.getId(), blog);
+    }
+
+    public static BlogChangedEvent deleted(Long blogId) {
+        return new BlogChangedEvent(Type.DELETED, blogId, null);
+    }
+
+    public Type getType() { return type; }
+    public Long getBlogId() { return blogId; }
+
+    // Null for deletions
+    public Blog getBlog() { return blog; }
+
+    public boolean isDeleted() { return type == Type.DELETED; }
+}
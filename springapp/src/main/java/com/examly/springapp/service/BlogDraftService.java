@@ -0,0 +1,88 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Blog;
+import com.examly.springapp.model.BlogDraft;
+import com.examly.springapp.repository.BlogDraftRepository;
+import com.examly.springapp.repository.BlogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+// Autosave for the editors. Each save is a TextDelta against the draft's current revision, so a
+// small edit sends a few bytes and writes only the drafts row; the blog itself, and everything
+// that listens for BlogChangedEvents, is only touched when the draft is published.
+@Service
+public class BlogDraftService {
+
+    @Autowired
+    private BlogDraftRepository draftRepository;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Value("${app.blogs.max-content-length:21845}")
+    private int maxContentLength;
+
+    @Value("${app.blogs.patch.max-ops:10000}")
+    private int maxPatchOps;
+
+    @Transactional(readOnly = true)
+    public BlogDraft getDraft(Long blogId) {
+        return draftRepository.findById(blogId).orElse(null);
+    }
+
+    // baseRevision is the draft revision the ops were computed against, or null to start a draft
+    // from the blog's current content, in which case baseVersion must match the blog's version.
+    // Returns null when the blog does not exist.
+    @Transactional
+    public BlogDraft saveDraft(Long blogId, Long baseRevision, Long baseVersion, Object ops, String title) {
+        TextDelta delta = TextDelta.parse(ops, maxPatchOps);
+        Optional<BlogDraft> existing = draftRepository.findById(blogId);
+        BlogDraft draft;
+        if (existing.isPresent()) {
+            draft = existing.get();
+            if (!Objects.equals(draft.getRevision(), baseRevision)) {
+                throw new StaleVersionException("Draft of blog " + blogId + " is at revision " + draft.getRevision()
+                        + ", not " + baseRevision, draft.getRevision());
+            }
+        } else {
+            if (baseRevision != null) {
+                throw new StaleVersionException("Blog " + blogId + " has no draft", null);
+            }
+            Blog blog = blogRepository.findById(blogId).orElse(null);
+            if (blog == null) return null;
+            if (baseVersion != null && !baseVersion.equals(blog.getVersion())) {
+                throw new StaleVersionException("Blog " + blogId + " is at version " + blog.getVersion()
+                        + ", not " + baseVersion, blog.getVersion());
+            }
+            draft = new BlogDraft(blogId, blog.getTitle(), blog.getContent(), blog.getVersion());
+        }
+        draft.setContent(delta.apply(draft.getContent(), maxContentLength));
+        if (title != null) draft.setTitle(title);
+        draft.setUpdatedAt(LocalDateTime.now());
+        // Flush so the returned revision is the one just written
+        return draftRepository.saveAndFlush(draft);
+    }
+
+    // Copies the draft onto the blog and drops it; null when there is no draft
+    @Transactional
+    public Blog publishDraft(Long blogId) {
+        BlogDraft draft = draftRepository.findById(blogId).orElse(null);
+        if (draft == null) return null;
+        Blog blog = blogService.commitDraft(draft);
+        draftRepository.delete(draft);
+        return blog;
+    }
+
+    public boolean discardDraft(Long blogId) {
+        return draftRepository.deleteByBlogId(blogId) > 0;
+    }
+}
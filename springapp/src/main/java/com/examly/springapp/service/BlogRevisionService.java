@@ -0,0 +1,165 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.BlogRevision;
+import com.examly.springapp.repository.BlogRevisionRepository;
+import com.examly.springapp.revision.DeltaCodec;
+import com.examly.springapp.revision.LineDiff;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+// Revision history of blog titles and content. Every snapshot-interval-th revision is a full
+// snapshot and the rest are forward deltas from the revision before, so a revision is rebuilt
+// from at most snapshot-interval rows while a long post edited hundreds of times costs little
+// more than its edits. Revisions are written by BlogService in the transaction that saves the blog.
+@Service
+public class BlogRevisionService {
+
+    @Autowired
+    private BlogRevisionRepository revisionRepository;
+
+    @Value("${app.revisions.snapshot-interval:25}")
+    private int snapshotInterval;
+
+    @Value("${app.revisions.max-results:100}")
+    private int maxResults;
+
+    @Value("${app.revisions.diff-max-cells:4000000}")
+    private int diffMaxCells;
+
+    // previousTitle and previousContent are what the blog held before this save, null for a new blog.
+    // The new revision is a delta from previousContent when that matches the newest revision, and a
+    // snapshot otherwise. A blog saved before it had any history first gets its old state as revision 1.
+    @Transactional
+    public BlogRevision record(Long blogId, String previousTitle, String previousContent, String title, String content) {
+        String text = content != null ? content : "";
+        long checksum = checksum(text);
+        List<Object[]> latest = revisionRepository.findLatest(blogId, PageRequest.of(0, 1));
+        if (latest.isEmpty() && previousContent != null) {
+            revisionRepository.save(new BlogRevision(blogId, 1, previousTitle, true, 0,
+                    DeltaCodec.snapshot(previousContent), previousContent.length(), checksum(previousContent)));
+            latest = revisionRepository.findLatest(blogId, PageRequest.of(0, 1));
+        }
+        int revision = 1;
+        byte[] data = null;
+        int chainLength = 0;
+        if (!latest.isEmpty()) {
+            Object[] row = latest.get(0);
+            revision = (Integer) row[0] + 1;
+            String base = previousContent != null ? previousContent : "";
+            if ((Integer) row[1] + 1 < snapshotInterval && checksum(base) == (Long) row[2]) {
+                data = DeltaCodec.encode(base, text);
+                chainLength = (Integer) row[1] + 1;
+            }
+        }
+        // A rewrite can make the delta no smaller than a snapshot, which then also ends the chain
+        if (data == null || data.length > 64 + text.length() / 4) {
+            byte[] snapshot = DeltaCodec.snapshot(text);
+            if (data == null || snapshot.length <= data.length) {
+                data = snapshot;
+                chainLength = 0;
+            }
+        }
+        return revisionRepository.save(new BlogRevision(blogId, revision, title, chainLength == 0, chainLength,
+                data, text.length(), checksum));
+    }
+
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> list(Long blogId, Integer limit) {
+        int size = limit == null ? maxResults : Math.max(1, Math.min(limit, maxResults));
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Object[] row : revisionRepository.findListing(blogId, PageRequest.of(0, size))) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("revision", row[0]);
+            item.put("title", row[1]);
+            item.put("snapshot", row[2]);
+            item.put("contentLength", row[3]);
+            item.put("storedBytes", row[4]);
+            item.put("createdAt", row[5]);
+            items.add(item);
+        }
+        return items;
+    }
+
+    // {revision, title, content, createdAt, replayed}, or null when the revision does not exist
+    @Transactional(readOnly = true)
+    public Map<String, Object> get(Long blogId, int revision) {
+        Integer first = revisionRepository.findSnapshotAtOrBefore(blogId, revision);
+        if (first == null) return null;
+        List<BlogRevision> chain = revisionRepository.findChain(blogId, first, revision);
+        BlogRevision last = chain.get(chain.size() - 1);
+        if (last.getRevision() != revision) return null;
+        String text = "";
+        for (BlogRevision step : chain) {
+            text = step.isSnapshot() ? DeltaCodec.restore(step.getData()) : DeltaCodec.decode(text, step.getData());
+        }
+        if (checksum(text) != last.getChecksum()) {
+            throw new IllegalStateException("Revision " + revision + " of blog " + blogId + " failed its checksum");
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("revision", revision);
+        result.put("title", last.getTitle());
+        result.put("content", text);
+        result.put("createdAt", last.getCreatedAt());
+        result.put("replayed", chain.size());
+        return result;
+    }
+
+    // Line diff from one revision to another; null when either does not exist
+    @Transactional(readOnly = true)
+    public Map<String, Object> diff(Long blogId, int from, int to) {
+        Map<String, Object> older = get(blogId, from);
+        Map<String, Object> newer = get(blogId, to);
+        if (older == null || newer == null) return null;
+        List<Map<String, Object>> hunks = LineDiff.diff((String) older.get("content"), (String) newer.get("content"), diffMaxCells);
+        int added = 0;
+        int removed = 0;
+        for (Map<String, Object> hunk : hunks) {
+            if ("insert".equals(hunk.get("type"))) added += (Integer) hunk.get("count");
+            if ("delete".equals(hunk.get("type"))) removed += (Integer) hunk.get("count");
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("from", from);
+        result.put("to", to);
+        result.put("fromTitle", older.get("title"));
+        result.put("toTitle", newer.get("title"));
+        result.put("linesAdded", added);
+        result.put("linesRemoved", removed);
+        result.put("hunks", hunks);
+        return result;
+    }
+
+    // Bytes stored for the history against the chars that full copies of every revision would hold
+    @Transactional(readOnly = true)
+    public Map<String, Object> getStorage(Long blogId) {
+        Object[] row = revisionRepository.findStorage(blogId).get(0);
+        long stored = ((Number) row[1]).longValue();
+        long full = ((Number) row[2]).longValue();
+        Map<String, Object> storage = new HashMap<>();
+        storage.put("revisions", ((Number) row[0]).longValue());
+        storage.put("storedBytes", stored);
+        storage.put("fullCopyChars", full);
+        storage.put("ratio", full == 0 ? 0.0 : (double) stored / full);
+        storage.put("snapshotInterval", snapshotInterval);
+        return storage;
+    }
+
+    public void deleteAll(Long blogId) {
+        revisionRepository.deleteByBlogId(blogId);
+    }
+
+    private static long checksum(String text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.UTF_16BE));
+        return crc.getValue();
+    }
+}
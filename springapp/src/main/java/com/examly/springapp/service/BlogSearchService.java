@@ -0,0 +1,274 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Blog;
+import com.examly.springapp.model.BlogSummary;
+import com.examly.springapp.repository.BlogRepository;
+import com.examly.springapp.search.SearchAnalyzer;
+import com.examly.springapp.search.SearchDocument;
+import com.examly.springapp.search.SearchHit;
+import com.examly.springapp.search.SearchResult;
+import com.examly.springapp.search.ShardedSearchIndex;
+import com.examly.springapp.search.SnippetStore;
+import com.examly.springapp.search.TrigramIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.LongPredicate;
+
+// Full-text blog search backed by an in-memory index split into app.search.shards shards.
+// The index is built at startup and kept current from BlogChangedEvents.
+// A trigram index over title and tag words corrects misspelled queries that find too little.
+// Hit snippets come from the SnippetStore, so a results page never reloads blog content.
+@Service
+public class BlogSearchService {
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private SearchCacheService searchCacheService;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Value("${app.search.page.default-size:10}")
+    private int defaultPageSize;
+
+    @Value("${app.search.page.max-size:50}")
+    private int maxPageSize;
+
+    @Value("${app.search.facets.top-n:10}")
+    private int facetTopN;
+
+    @Value("${app.search.load-batch-size:500}")
+    private int loadBatchSize;
+
+    @Value("${app.search.fuzzy.min-hits:3}")
+    private int fuzzyMinHits;
+
+    @Value("${app.search.snippet.max-length:200}")
+    private int snippetLength;
+
+    @Value("${app.search.warm-queries:}")
+    private String[] warmQueries;
+
+    @Value("${app.search.compact.min-deleted-ratio:0.1}")
+    private double compactMinDeletedRatio;
+
+    private final ShardedSearchIndex index;
+    private final TrigramIndex spelling = new TrigramIndex();
+    private final SnippetStore snippets = new SnippetStore();
+
+    public BlogSearchService(@Value("${app.search.shards:4}") int shards,
+                             @Value("${app.search.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.index = new ShardedSearchIndex(shards, threads);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        long start = System.currentTimeMillis();
+        long lastId = 0;
+        int loaded = 0;
+        while (true) {
+            List<Blog> batch = blogRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, loadBatchSize));
+            if (batch.isEmpty()) break;
+            for (SearchDocument document : toDocuments(batch)) {
+                add(document);
+            }
+            loaded += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        System.out.println("BlogSearchService: Indexed " + loaded + " blogs in " + (System.currentTimeMillis() - start) + " ms");
+        if (warmQueries.length > 0) {
+            System.out.println("BlogSearchService: Warmed " + warm(Arrays.asList(warmQueries)) + " search queries");
+        }
+    }
+
+    // Cached responses were filtered through the catalog, so the generation is bumped only
+    // after CatalogService has applied the write (it listens first)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        if (event.isDeleted()) {
+            index.remove(event.getBlogId());
+            spelling.remove(event.getBlogId());
+            snippets.remove(event.getBlogId());
+        } else {
+            add(toDocument(event.getBlog(), event.getBlog().getTags()));
+        }
+        searchCacheService.invalidate();
+    }
+
+    // Background merge of shards that have piled up deleted docs from updates and deletes
+    @Scheduled(fixedDelayString = "${app.search.compact.interval-ms:60000}")
+    public void compactShards() {
+        int compacted = index.compact(compactMinDeletedRatio);
+        if (compacted > 0) {
+            System.out.println("BlogSearchService: Compacted " + compacted + " search shards");
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        index.shutdown();
+    }
+
+    // filters maps facet names (category, tag, author, month) to the value a hit must carry.
+    // mode "exact" never corrects the query, "fuzzy" always tries to, and the default
+    // falls back to the corrected query when the exact one finds fewer than min-hits blogs.
+    // filter is an optional FilterExpression evaluated against the catalog's bitmap indexes
+    public Map<String, Object> search(String query, Integer page, Integer size, Map<String, String> filters,
+                                      String filter, String mode) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        int pageNumber = page == null ? 0 : Math.max(0, page);
+        String normalized = normalize(query);
+        searchCacheService.recordQuery(normalized);
+        return cachedSearch(normalized, pageNumber, pageSize, filters, filter, mode);
+    }
+
+    // Runs each query's first page so it is cached; returns how many were run
+    public int warm(List<String> queries) {
+        int warmed = 0;
+        for (String query : queries) {
+            String normalized = normalize(query);
+            if (normalized.isEmpty()) continue;
+            cachedSearch(normalized, 0, defaultPageSize, new HashMap<>(), null, null);
+            warmed++;
+        }
+        return warmed;
+    }
+
+    public int warmPopular(int limit) {
+        List<String> queries = new ArrayList<>(Arrays.asList(warmQueries));
+        for (Map<String, Object> popular : searchCacheService.getPopularQueries(limit)) {
+            queries.add((String) popular.get("query"));
+        }
+        return warm(queries);
+    }
+
+    private Map<String, Object> cachedSearch(String query, int pageNumber, int pageSize, Map<String, String> filters,
+                                             String filter, String mode) {
+        String key = query + "|" + new TreeMap<>(filters) + "|" + filter + "|" + pageNumber + "|" + pageSize + "|" + mode;
+        Map<String, Object> cached = searchCacheService.get(key);
+        if (cached != null) return cached;
+        long generation = searchCacheService.generation();
+        Map<String, Object> response = executeSearch(query, pageNumber, pageSize, filters, catalogService.matcher(filter), mode);
+        searchCacheService.put(key, response, generation);
+        return response;
+    }
+
+    private Map<String, Object> executeSearch(String query, int pageNumber, int pageSize, Map<String, String> filters,
+                                              LongPredicate allowed, String mode) {
+        int topK = (pageNumber + 1) * pageSize;
+
+        String correctedQuery = null;
+        SearchResult result = null;
+        if (!"fuzzy".equals(mode)) {
+            result = index.search(query, topK, filters, allowed, facetTopN);
+        }
+        if (!"exact".equals(mode) && (result == null || result.getTotalHits() < fuzzyMinHits)) {
+            String corrected = spelling.correctQuery(query);
+            if (corrected != null) {
+                SearchResult fuzzy = index.search(corrected, topK, filters, allowed, facetTopN);
+                if (result == null || fuzzy.getTotalHits() > result.getTotalHits()) {
+                    result = fuzzy;
+                    correctedQuery = corrected;
+                }
+            }
+            if (result == null) {
+                result = index.search(query, topK, filters, allowed, facetTopN);
+            }
+        }
+        List<SearchHit> hits = result.getHits();
+        int from = Math.min(hits.size(), pageNumber * pageSize);
+        List<SearchHit> pageHits = hits.subList(from, hits.size());
+
+        List<Long> ids = new ArrayList<>();
+        Map<Long, Float> scores = new HashMap<>();
+        for (SearchHit hit : pageHits) {
+            ids.add(hit.getBlogId());
+            scores.put(hit.getBlogId(), hit.getScore());
+        }
+
+        List<String> terms = SearchAnalyzer.analyze(correctedQuery != null ? correctedQuery : query);
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (BlogSummary summary : blogService.getSummaries(ids)) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("blog", summary);
+            item.put("score", scores.get(summary.getId()));
+            item.put("snippet", snippets.snippet(summary.getId(), terms, snippetLength));
+            items.add(item);
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("correctedQuery", correctedQuery);
+        response.put("page", pageNumber);
+        response.put("size", pageSize);
+        response.put("total", result.getTotalHits());
+        response.put("hits", items);
+        response.put("facets", result.getFacets());
+        return response;
+    }
+
+    // Lower-cased words joined by single spaces, so trivially different spellings share a cache entry
+    private static String normalize(String query) {
+        return String.join(" ", SearchAnalyzer.tokenize(query));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>(index.getStats());
+        stats.put("spelling", spelling.getStats());
+        stats.put("snippetBytes", snippets.sizeInBytes());
+        stats.put("cache", searchCacheService.getStats());
+        return stats;
+    }
+
+    private void add(SearchDocument document) {
+        index.index(document);
+        List<String> words = new ArrayList<>(document.getTags());
+        words.add(document.getTitle());
+        spelling.add(document.getBlogId(), words);
+        snippets.put(document.getBlogId(), document.getContent());
+    }
+
+    private List<SearchDocument> toDocuments(List<Blog> blogs) {
+        List<Long> ids = new ArrayList<>();
+        Map<Long, List<String>> tags = new HashMap<>();
+        for (Blog blog : blogs) {
+            ids.add(blog.getId());
+            tags.put(blog.getId(), new ArrayList<>());
+        }
+        // One query for the whole batch instead of initializing each lazy tag collection
+        for (Object[] row : blogRepository.findTagsByBlogIdIn(ids)) {
+            tags.get((Long) row[0]).add((String) row[1]);
+        }
+        List<SearchDocument> documents = new ArrayList<>();
+        for (Blog blog : blogs) {
+            documents.add(toDocument(blog, tags.get(blog.getId())));
+        }
+        return documents;
+    }
+
+    private SearchDocument toDocument(Blog blog, List<String> tags) {
+        return new SearchDocument(blog.getId(), blog.getTitle(), blog.getContent(), tags, blog.getCategory(),
+                blog.getAuthor() != null ? blog.getAuthor().getUsername() : null, blog.getCreatedAt());
+    }
+}
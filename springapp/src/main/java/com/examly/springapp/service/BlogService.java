@@ -1,13 +1,27 @@
 package com.examly.springapp.service;
 
+import com.examly.springapp.config.ReadWriteRoutingDataSource;
 import com.examly.springapp.model.Blog;
+import com.examly.springapp.model.BlogDraft;
+import com.examly.springapp.model.BlogSummary;
 import com.examly.springapp.model.User;
+import com.examly.springapp.repository.BlogDraftRepository;
 import com.examly.springapp.repository.BlogRepository;
+import org.hibernate.Hibernate;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
 @Service
@@ -17,25 +31,69 @@ public class BlogService {
     private BlogRepository blogRepository;
     
     @Autowired
-    private SEOService seoService;
+    private BlogDraftRepository draftRepository;
     
+    @Autowired
+    private BlogRevisionService revisionService;
+    
+    @Autowired
+    private ViewCounterService viewCounterService;
+    
+    @Autowired
+    private BlogCacheService blogCacheService;
+    
+    @Autowired
+    private SlugService slugService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.blogs.page.default-size:20}")
+    private int defaultPageSize;
+    
+    @Value("${app.blogs.page.max-size:100}")
+    private int maxPageSize;
+    
+    @Value("${app.blogs.list.max-size:200}")
+    private int maxListSize;
+    
+    @Value("${app.blogs.max-content-length:21845}")
+    private int maxContentLength;
+    
+    @Value("${app.blogs.patch.max-ops:10000}")
+    private int maxPatchOps;
+    
+    // Concurrent cache misses for the same id share one database read
+    private final SingleFlight<Long, Blog> blogLoads;
+    private final SingleFlight<Long, ResourceVersion> versionLoads;
+    
+    public BlogService(@Value("${app.cache.blogs.load-timeout-ms:3000}") long loadTimeoutMs) {
+        this.blogLoads = new SingleFlight<>(loadTimeoutMs);
+        this.versionLoads = new SingleFlight<>(loadTimeoutMs);
+    }
+    
+    @Transactional
     public Blog createBlog(Blog blog) {
         blog.setCreatedAt(LocalDateTime.now());
         blog.setUpdatedAt(LocalDateTime.now());
         
-        if (blog.getSlug() == null || blog.getSlug().isEmpty()) {
-            blog.setSlug(seoService.generateSlug(blog.getTitle()));
-        }
+        blog.setSlug(slugService.uniqueSlug(blog.getSlug(), blog.getTitle(), null));
         
         // Set default values
         if (blog.getViews() == null) {
             blog.setViews(0L);
         }
+        if (blog.getPublishAt() != null && blog.getPublishAt().isAfter(LocalDateTime.now())) {
+            blog.setStatus("SCHEDULED");
+            blog.setPublished(false);
+        }
         if (blog.getStatus() == null) {
             blog.setStatus("PUBLISHED");
         }
         
         Blog savedBlog = blogRepository.save(blog);
+        revisionService.record(savedBlog.getId(), null, null, savedBlog.getTitle(), savedBlog.getContent());
+        publishSaved(savedBlog);
         System.out.println("Blog created with ID: " + savedBlog.getId());
         return savedBlog;
     }
@@ -44,27 +102,158 @@ public class BlogService {
         return blogRepository.findAll();
     }
     
+    // Bounded replacement for the legacy unpaginated listing
+    public List<Blog> getRecentBlogs() {
+        return blogRepository.findAllByOrderByCreatedAtDescIdDesc(PageRequest.of(0, maxListSize));
+    }
+    
+    @Transactional(readOnly = true)
+    public Map<String, Object> getBlogPage(String cursor, Integer size, Boolean published,
+                                           String category, String status, Long authorId) {
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        BlogCursor after = BlogCursor.decode(cursor);
+        
+        // Fetch one extra row to learn whether another page exists
+        List<BlogSummary> rows = blogRepository.findSummaryPage(published, category, status, authorId,
+                after != null ? after.getCreatedAt() : null,
+                after != null ? after.getId() : null,
+                PageRequest.of(0, pageSize + 1));
+        
+        boolean hasMore = rows.size() > pageSize;
+        List<BlogSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        attachTags(items);
+        
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", items);
+        page.put("size", pageSize);
+        page.put("hasMore", hasMore);
+        if (hasMore) {
+            BlogSummary last = items.get(items.size() - 1);
+            page.put("nextCursor", new BlogCursor(last.getCreatedAt(), last.getId()).encode());
+        } else {
+            page.put("nextCursor", null);
+        }
+        return page;
+    }
+    
+    // Summaries in the order of the given ids; ids that no longer exist are skipped
+    @Transactional(readOnly = true)
+    public List<BlogSummary> getSummaries(List<Long> ids) {
+        if (ids.isEmpty()) return new ArrayList<>();
+        Map<Long, BlogSummary> byId = new HashMap<>();
+        for (BlogSummary summary : blogRepository.findSummariesByIdIn(ids)) {
+            byId.put(summary.getId(), summary);
+        }
+        List<BlogSummary> ordered = new ArrayList<>();
+        for (Long id : ids) {
+            BlogSummary summary = byId.get(id);
+            if (summary != null) ordered.add(summary);
+        }
+        attachTags(ordered);
+        return ordered;
+    }
+    
+    private void attachTags(List<BlogSummary> summaries) {
+        if (summaries.isEmpty()) return;
+        Map<Long, BlogSummary> byId = new HashMap<>();
+        for (BlogSummary summary : summaries) {
+            byId.put(summary.getId(), summary);
+        }
+        for (Object[] row : blogRepository.findTagsByBlogIdIn(byId.keySet())) {
+            byId.get((Long) row[0]).getTags().add((String) row[1]);
+        }
+    }
+    
     public List<Blog> getBlogsByAuthor(User author) {
         return blogRepository.findByAuthor(author);
     }
 
+    // Views are buffered by ViewCounterService, so reading a blog never writes the row.
+    // The returned blog may be a shared cached snapshot and must not be modified.
+    @Transactional(readOnly = true)
     public Blog getBlogById(Long id) {
-        Optional<Blog> blog = blogRepository.findById(id);
-        if (blog.isPresent()) {
-            Blog b = blog.get();
-            b.setViews(b.getViews() + 1);
-            blogRepository.save(b);
-            return b;
+        Blog blog = peekBlog(id);
+        if (blog != null) {
+            viewCounterService.recordView(id);
+        }
+        return blog;
+    }
+    
+    // The same cached snapshot without counting a view, for lookups that are not reads, like redirects
+    @Transactional(readOnly = true)
+    public Blog peekBlog(Long id) {
+        Blog cached = blogCacheService.get(id);
+        if (cached != null) {
+            return cached;
         }
-        return null;
+        // Read from the primary: the result is cached for every reader, not just this one
+        return blogLoads.load(id, () -> ReadWriteRoutingDataSource.onPrimary(() -> {
+            long generation = blogCacheService.generation();
+            Optional<Blog> loaded = blogRepository.findById(id);
+            return loaded.isPresent() ? blogCacheService.put(loaded.get(), generation) : null;
+        }));
+    }
+    
+    public void recordView(Long id) {
+        viewCounterService.recordView(id);
+    }
+    
+    // Only resolves current slugs; use SlugService.resolve to also follow redirect aliases
+    @Transactional(readOnly = true)
+    public Blog getBlogBySlug(String slug) {
+        Blog cached = blogCacheService.getBySlug(slug);
+        if (cached != null) {
+            viewCounterService.recordView(cached.getId());
+            return cached;
+        }
+        SlugService.SlugMatch match = slugService.resolve(slug);
+        if (match == null || match.isAlias()) {
+            return null;
+        }
+        return getBlogById(match.getBlogId());
+    }
+    
+    // Served from the cache when possible, otherwise from a version/updatedAt/views-only query
+    public ResourceVersion getBlogVersion(Long id) {
+        Blog cached = blogCacheService.get(id);
+        if (cached != null) {
+            return getBlogVersion(cached);
+        }
+        return versionLoads.load(id, () -> ReadWriteRoutingDataSource.onPrimary(() -> {
+            List<Object[]> rows = blogRepository.findVersionById(id);
+            if (rows.isEmpty()) {
+                return null;
+            }
+            return blogVersion(id, (Long) rows.get(0)[0], (LocalDateTime) rows.get(0)[1], (Long) rows.get(0)[2]);
+        }));
+    }
+    
+    // Validators of the blog as loaded, for the response that serves it
+    public ResourceVersion getBlogVersion(Blog blog) {
+        return blogVersion(blog.getId(), blog.getVersion(), blog.getUpdatedAt(), blog.getViews());
+    }
+    
+    // Flushed view counts change the body without bumping the version, so they are part of the tag
+    private ResourceVersion blogVersion(Long id, Long version, LocalDateTime updatedAt, Long views) {
+        long updatedMillis = updatedAt != null ? updatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+        return new ResourceVersion("b" + id + "-" + version + "-" + updatedMillis + "-" + (views != null ? views : 0), updatedAt);
+    }
+    
+    public SlugService.SlugMatch resolveSlug(String slug) {
+        return slugService.resolve(slug);
+    }
+    
+    public SlugService.SlugMatch refreshSlug(String slug) {
+        return slugService.refresh(slug);
     }
 
+    @Transactional
     public Blog updateBlog(Long id, Blog blogDetails) {
         return blogRepository.findById(id).map(blog -> {
-            if (blogDetails.getTitle() != null) {
-                blog.setTitle(blogDetails.getTitle());
-                blog.setSlug(seoService.generateSlug(blogDetails.getTitle()));
-            }
+            String previousSlug = blog.getSlug();
+            String previousTitle = blog.getTitle();
+            String previousContent = blog.getContent();
+            retitle(blog, blogDetails.getTitle());
             if (blogDetails.getContent() != null) {
                 blog.setContent(blogDetails.getContent());
             }
@@ -84,30 +273,151 @@ public class BlogService {
             blog.setPublished(blogDetails.isPublished());
             blog.setUpdatedAt(LocalDateTime.now());
             
-            return blogRepository.save(blog);
+            Blog saved = blogRepository.save(blog);
+            slugService.register(id, saved.getSlug(), previousSlug);
+            recordRevision(saved, previousTitle, previousContent);
+            publishSaved(saved);
+            return saved;
         }).orElse(null);
     }
 
-    public boolean deleteBlog(Long id) {
-        try {
-            System.out.println("BlogService: Checking if blog exists with ID: " + id);
-            boolean exists = blogRepository.existsById(id);
-            System.out.println("BlogService: Blog exists: " + exists);
-            
-            if (exists) {
-                System.out.println("BlogService: Deleting blog with ID: " + id);
-                blogRepository.deleteById(id);
-                System.out.println("BlogService: Blog deleted successfully");
-                return true;
-            } else {
-                System.out.println("BlogService: Blog not found with ID: " + id);
-                return false;
+    // Applies a text delta to the content, provided the blog is still at baseVersion
+    @Transactional
+    public Blog patchContent(Long id, Long baseVersion, Object ops) {
+        TextDelta delta = TextDelta.parse(ops, maxPatchOps);
+        return blogRepository.findById(id).map(blog -> {
+            requireVersion(blog, baseVersion);
+            return replaceContent(blog, null, delta.apply(blog.getContent(), maxContentLength));
+        }).orElse(null);
+    }
+    
+    // Replaces title and content with a draft's, provided the blog is still at the draft's base version
+    @Transactional
+    public Blog commitDraft(BlogDraft draft) {
+        return blogRepository.findById(draft.getBlogId()).map(blog -> {
+            requireVersion(blog, draft.getBaseVersion());
+            return replaceContent(blog, draft.getTitle(), draft.getContent());
+        }).orElse(null);
+    }
+    
+    // Holds the blog back until publishAt, when PublishScheduler publishes it
+    @Transactional
+    public Blog schedulePublication(Long id, LocalDateTime publishAt) {
+        if (publishAt == null || !publishAt.isAfter(LocalDateTime.now())) {
+            throw new IllegalArgumentException("publishAt must be in the future");
+        }
+        return blogRepository.findById(id).map(blog -> {
+            blog.setStatus("SCHEDULED");
+            blog.setPublishAt(publishAt);
+            blog.setPublished(false);
+            blog.setUpdatedAt(LocalDateTime.now());
+            Blog saved = blogRepository.save(blog);
+            publishSaved(saved);
+            return saved;
+        }).orElse(null);
+    }
+    
+    // Returns a scheduled blog to DRAFT
+    @Transactional
+    public Blog cancelScheduledPublication(Long id) {
+        return blogRepository.findById(id).map(blog -> {
+            if (!"SCHEDULED".equals(blog.getStatus())) {
+                throw new IllegalArgumentException("Blog " + id + " is not scheduled");
             }
-        } catch (Exception e) {
-            System.err.println("BlogService: Error deleting blog: " + e.getMessage());
-            e.printStackTrace();
+            blog.setStatus("DRAFT");
+            blog.setPublishAt(null);
+            blog.setUpdatedAt(LocalDateTime.now());
+            Blog saved = blogRepository.save(blog);
+            publishSaved(saved);
+            return saved;
+        }).orElse(null);
+    }
+    
+    // Publishes a due scheduled blog if this call wins the claim; null when another node did,
+    // or the blog was unscheduled, rescheduled or deleted meanwhile
+    @Transactional
+    public Blog publishScheduled(Long id) {
+        if (blogRepository.claimScheduled(id, LocalDateTime.now()) == 0) {
+            return null;
+        }
+        Blog blog = blogRepository.findById(id).orElse(null);
+        if (blog != null) {
+            publishSaved(blog);
+        }
+        return blog;
+    }
+    
+    // Brings back the title and content of an earlier revision as a new revision
+    @Transactional
+    public Blog restoreRevision(Long id, int revision) {
+        Map<String, Object> restored = revisionService.get(id, revision);
+        if (restored == null) return null;
+        return blogRepository.findById(id)
+                .map(blog -> replaceContent(blog, (String) restored.get("title"), (String) restored.get("content")))
+                .orElse(null);
+    }
+    
+    // A null title keeps the current one
+    private Blog replaceContent(Blog blog, String title, String content) {
+        String previousSlug = blog.getSlug();
+        String previousTitle = blog.getTitle();
+        String previousContent = blog.getContent();
+        retitle(blog, title);
+        blog.setContent(content);
+        blog.setUpdatedAt(LocalDateTime.now());
+        // Flush so the returned version is the one just written
+        Blog saved = blogRepository.saveAndFlush(blog);
+        slugService.register(saved.getId(), saved.getSlug(), previousSlug);
+        recordRevision(saved, previousTitle, previousContent);
+        publishSaved(saved);
+        return saved;
+    }
+    
+    private void recordRevision(Blog saved, String previousTitle, String previousContent) {
+        if (!Objects.equals(previousTitle, saved.getTitle()) || !Objects.equals(previousContent, saved.getContent())) {
+            revisionService.record(saved.getId(), previousTitle, previousContent, saved.getTitle(), saved.getContent());
+        }
+    }
+    
+    private void requireVersion(Blog blog, Long expected) {
+        if (!Objects.equals(blog.getVersion(), expected)) {
+            throw new StaleVersionException("Blog " + blog.getId() + " is at version " + blog.getVersion()
+                    + ", not " + expected, blog.getVersion());
+        }
+    }
+    
+    // Only a real title change moves the slug; the old one stays as a redirect alias
+    private void retitle(Blog blog, String title) {
+        if (title != null && !title.equals(blog.getTitle())) {
+            blog.setTitle(title);
+            blog.setSlug(slugService.uniqueSlug(null, title, blog.getId()));
+        }
+    }
+
+    // One transaction for the blog and everything stored beside it, so a failed delete (comments still
+    // reference the blog) rolls back the drafts and revisions too; listeners hear of it after commit
+    @Transactional
+    public boolean deleteBlog(Long id) {
+        Optional<Blog> existing = blogRepository.findById(id);
+        if (!existing.isPresent()) {
+            System.out.println("BlogService: Blog not found with ID: " + id);
             return false;
         }
+        System.out.println("BlogService: Deleting blog with ID: " + id);
+        draftRepository.deleteByBlogId(id);
+        revisionService.deleteAll(id);
+        slugService.unregister(id);
+        blogRepository.delete(existing.get());
+        // Raise a foreign key violation here, translated, rather than from the commit
+        blogRepository.flush();
+        eventPublisher.publishEvent(BlogChangedEvent.deleted(id));
+        return true;
+    }
+    
+    // Listeners run after commit, when the lazy tag collection can no longer be loaded
+    private void publishSaved(Blog blog) {
+        Hibernate.initialize(blog.getTags());
+        eventPublisher.publishEvent(BlogChangedEvent.saved(blog));
     }
     
     public long getTotalBlogCount() {
@@ -115,11 +425,20 @@ public class BlogService {
     }
     
     public void incrementViews(Long blogId) {
-        Optional<Blog> blogOpt = blogRepository.findById(blogId);
-        if (blogOpt.isPresent()) {
-            Blog blog = blogOpt.get();
-            blog.setViews((blog.getViews() != null ? blog.getViews() : 0) + 1);
-            blogRepository.save(blog);
+        if (blogRepository.existsById(blogId)) {
+            viewCounterService.recordView(blogId);
         }
     }
+    
+    public Map<String, Object> getViewMetrics() {
+        return viewCounterService.getMetrics();
+    }
+    
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = blogCacheService.getStats();
+        stats.put("slugs", slugService.getStats());
+        stats.put("blogLoads", blogLoads.getStats());
+        stats.put("versionLoads", versionLoads.getStats());
+        return stats;
+    }
 }
\ No newline at end of file
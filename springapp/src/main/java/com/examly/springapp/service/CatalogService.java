@@ -0,0 +1,170 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.catalog.BlogCatalog;
+import com.examly.springapp.catalog.CatalogCursor;
+import com.examly.springapp.catalog.CatalogQuery;
+import com.examly.springapp.catalog.FilterExpression;
+import com.examly.springapp.model.Blog;
+import com.examly.springapp.model.BlogSummary;
+import com.examly.springapp.repository.BlogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongPredicate;
+
+// Serves blog listings from the in-memory BlogCatalog without touching the database.
+// Loaded at startup, then kept in step with BlogChangedEvents and flushed view counts.
+@Service
+public class CatalogService {
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Value("${app.blogs.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.blogs.page.max-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.catalog.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    private final BlogCatalog catalog = new BlogCatalog();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        long lastId = 0;
+        while (true) {
+            List<Object[]> rows = blogRepository.findCatalogRows(lastId, PageRequest.of(0, loadBatchSize));
+            if (rows.isEmpty()) break;
+            List<Long> ids = new ArrayList<>();
+            Map<Long, BlogSummary> summaries = new HashMap<>();
+            Map<Long, Long> authorIds = new HashMap<>();
+            for (Object[] row : rows) {
+                BlogSummary summary = new BlogSummary();
+                summary.setId((Long) row[0]);
+                summary.setSlug((String) row[1]);
+                summary.setTitle((String) row[2]);
+                summary.setStatus((String) row[3]);
+                summary.setPublished(Boolean.TRUE.equals(row[4]));
+                summary.setCategory((String) row[5]);
+                summary.setAuthorName((String) row[7]);
+                summary.setCreatedAt((LocalDateTime) row[8]);
+                summary.setUpdatedAt((LocalDateTime) row[9]);
+                summary.setViews((Long) row[10]);
+                ids.add(summary.getId());
+                summaries.put(summary.getId(), summary);
+                authorIds.put(summary.getId(), (Long) row[6]);
+            }
+            for (Object[] tag : blogRepository.findTagsByBlogIdIn(ids)) {
+                summaries.get((Long) tag[0]).getTags().add((String) tag[1]);
+            }
+            for (Long id : ids) {
+                catalog.upsert(summaries.get(id), authorIds.get(id));
+            }
+            lastId = ids.get(ids.size() - 1);
+        }
+        System.out.println("CatalogService: Loaded " + catalog.size() + " blogs in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // Ahead of every other listener, so those that read the catalog (the search cache
+    // generation bump in BlogSearchService) only run once it holds the write
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        if (event.isDeleted()) {
+            catalog.remove(event.getBlogId());
+            return;
+        }
+        Blog blog = event.getBlog();
+        BlogSummary summary = new BlogSummary();
+        summary.setId(blog.getId());
+        summary.setSlug(blog.getSlug());
+        summary.setTitle(blog.getTitle());
+        summary.setStatus(blog.getStatus());
+        summary.setPublished(blog.isPublished());
+        summary.setCategory(blog.getCategory());
+        summary.setTags(blog.getTags() != null ? new ArrayList<>(blog.getTags()) : new ArrayList<>());
+        summary.setAuthorName(blog.getAuthor() != null ? blog.getAuthor().getUsername() : null);
+        summary.setCreatedAt(blog.getCreatedAt());
+        summary.setUpdatedAt(blog.getUpdatedAt());
+        summary.setViews(blog.getViews());
+        catalog.upsert(summary, blog.getAuthor() != null ? blog.getAuthor().getId() : null);
+    }
+
+    @EventListener
+    public void onViewsFlushed(ViewsFlushedEvent event) {
+        for (Map.Entry<Long, Long> delta : event.getDeltas().entrySet()) {
+            catalog.addViews(delta.getKey(), delta.getValue());
+        }
+    }
+
+    // Same page shape as BlogService.getBlogPage, but items carry no excerpt.
+    // filter is an optional FilterExpression, combined with the other parameters by AND.
+    public Map<String, Object> list(String cursor, Integer size, String sort, Boolean published,
+                                    String category, String tag, String status, Long authorId, String filter) {
+        CatalogQuery query = new CatalogQuery();
+        query.setSort(parseSort(sort));
+        query.setAfter(CatalogCursor.decode(cursor));
+        query.setPublished(published);
+        query.setCategory(category);
+        query.setTag(tag);
+        query.setStatus(status);
+        query.setAuthorId(authorId);
+        query.setFilter(parseFilter(filter));
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        // One extra row tells whether another page exists
+        query.setLimit(pageSize + 1);
+
+        List<BlogSummary> rows = catalog.query(query);
+        boolean hasMore = rows.size() > pageSize;
+        List<BlogSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("items", items);
+        page.put("size", pageSize);
+        page.put("hasMore", hasMore);
+        page.put("nextCursor", hasMore ? BlogCatalog.cursorAfter(items.get(items.size() - 1), query.getSort()).encode() : null);
+        return page;
+    }
+
+    // Predicate over blog ids for a filter expression, or null when there is no filter
+    public LongPredicate matcher(String filter) {
+        FilterExpression expression = parseFilter(filter);
+        if (expression == null) return null;
+        long[] ids = catalog.matchingIds(expression);
+        return id -> Arrays.binarySearch(ids, id) >= 0;
+    }
+
+    public Map<String, Object> getStats() {
+        return catalog.getStats();
+    }
+
+    private static FilterExpression parseFilter(String filter) {
+        return filter == null || filter.trim().isEmpty() ? null : FilterExpression.parse(filter);
+    }
+
+    private static CatalogQuery.Sort parseSort(String sort) {
+        if (sort == null || sort.isEmpty()) return CatalogQuery.Sort.NEWEST;
+        try {
+            return CatalogQuery.Sort.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort: " + sort);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.examly.springapp.service;
+
+// Published by CommentService after a comment is saved, so comment counts can be kept without re-counting.
+public class CommentAddedEvent {
+
+    private final Long blogId;
+
+    public CommentAddedEvent(Long blogId) {
+        this.blogId = blogId;
+    }
+
+    public Long getBlogId() { return blogId; }
+}
@@ -7,6 +7,7 @@ import com.examly.springapp.repository.BlogRepository;
 import com.examly.springapp.repository.CommentRepository;
 import com.examly.springapp.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -24,10 +25,23 @@ public class CommentService {
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     public List<Comment> getCommentsByBlogId(Long blogId) {
         return commentRepository.findByBlogId(blogId);
     }
     
+    // Comments are append-only and carry only their blog's id, so the newest id and the count
+    // identify the list
+    public ResourceVersion getCommentsVersion(Long blogId) {
+        Object[] row = commentRepository.findVersionByBlogId(blogId).get(0);
+        Long newestId = (Long) row[0];
+        Long count = (Long) row[1];
+        return new ResourceVersion("c" + blogId + "-" + (newestId != null ? newestId : 0) + "-" + count,
+                (LocalDateTime) row[2]);
+    }
+    
     public Comment createComment(Long blogId, String text, String author, Long userId) {
         Blog blog = blogRepository.findById(blogId).orElse(null);
         if (blog != null) {
@@ -42,7 +56,7 @@ public class CommentService {
                 comment.setUser(user);
             }
             
-            return commentRepository.save(comment);
+            return publishAdded(commentRepository.save(comment));
         }
         return null;
     }
@@ -55,8 +69,13 @@ public class CommentService {
         Blog blog = blogRepository.findById(blogId).orElse(null);
         if (blog != null) {
             comment.setBlog(blog);
-            return commentRepository.save(comment);
+            return publishAdded(commentRepository.save(comment));
         }
         return null;
     }
+    
+    private Comment publishAdded(Comment comment) {
+        eventPublisher.publishEvent(new CommentAddedEvent(comment.getBlog().getId()));
+        return comment;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,327 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.BlogSummary;
+import com.examly.springapp.repository.BlogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// RSS and Atom feeds of the newest published blogs, plus an XML sitemap split into segments.
+// Segment n holds the published blogs with ids in (n * segment-size, (n + 1) * segment-size], so a
+// blog always lands in the same segment and a change re-renders only that segment and the index.
+// Documents are written with StAX as rows come off keyset queries over summary columns, never
+// loading blog bodies, and kept pre-rendered until a BlogChangedEvent retires them.
+@Service
+public class FeedService {
+
+    private static final String SITEMAP_NS = "http://www.sitemaps.org/schemas/sitemap/0.9";
+    private static final String ATOM_NS = "http://www.w3.org/2005/Atom";
+    private static final XMLOutputFactory XML = XMLOutputFactory.newInstance();
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Value("${app.site.title:Blogging Platform}")
+    private String siteTitle;
+
+    // Where blog pages live
+    @Value("${app.site.base-url:http://localhost:3000}")
+    private String siteUrl;
+
+    // Where this API serves the feeds and sitemap files
+    @Value("${app.feed.base-url:http://localhost:8080}")
+    private String feedUrl;
+
+    @Value("${app.feed.size:20}")
+    private int feedSize;
+
+    @Value("${app.sitemap.batch-size:1000}")
+    private int batchSize;
+
+    private final int segmentSize;
+    private final long startedAt = System.currentTimeMillis();
+
+    private final Map<String, RenderedXml> documents = new ConcurrentHashMap<>();
+    private final Map<Integer, Long> segmentChangedAt = new ConcurrentHashMap<>();
+    private volatile long feedChangedAt;
+    private final AtomicLong generation = new AtomicLong();
+    private final SingleFlight<String, RenderedXml> renders;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong rendered = new AtomicLong();
+
+    public FeedService(@Value("${app.sitemap.segment-size:50000}") int segmentSize,
+                       @Value("${app.feed.render-timeout-ms:10000}") long renderTimeoutMs) {
+        // 50,000 URLs is the most a sitemap file may list
+        this.segmentSize = Math.max(1, Math.min(segmentSize, 50000));
+        this.renders = new SingleFlight<>(renderTimeoutMs);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        long now = System.currentTimeMillis();
+        int segment = segmentOf(event.getBlogId());
+        synchronized (documents) {
+            generation.incrementAndGet();
+            segmentChangedAt.put(segment, now);
+            feedChangedAt = now;
+            documents.remove("sitemap-" + segment);
+            documents.remove("sitemap-index");
+            documents.remove("rss");
+            documents.remove("atom");
+        }
+    }
+
+    public RenderedXml rss() {
+        return cached("rss", () -> renderFeed(false));
+    }
+
+    public RenderedXml atom() {
+        return cached("atom", () -> renderFeed(true));
+    }
+
+    public RenderedXml sitemapIndex() {
+        return cached("sitemap-index", this::renderIndex);
+    }
+
+    // Null when the segment lies past the highest blog id
+    public RenderedXml sitemapSegment(int segment) {
+        if (segment < 0 || segment >= segmentCount()) return null;
+        return cached("sitemap-" + segment, () -> renderSegment(segment));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("cachedDocuments", documents.size());
+        stats.put("hits", hits.get());
+        stats.put("rendered", rendered.get());
+        stats.put("segmentSize", segmentSize);
+        stats.put("renders", renders.getStats());
+        return stats;
+    }
+
+    private RenderedXml cached(String key, Supplier<RenderedXml> renderer) {
+        RenderedXml document = documents.get(key);
+        if (document != null) {
+            hits.incrementAndGet();
+            return document;
+        }
+        // Crawlers that arrive together share one render
+        return renders.load(key, () -> {
+            long renderGeneration = generation.get();
+            RenderedXml fresh = renderer.get();
+            rendered.incrementAndGet();
+            synchronized (documents) {
+                if (generation.get() == renderGeneration) documents.put(key, fresh);
+            }
+            return fresh;
+        });
+    }
+
+    private RenderedXml renderFeed(boolean atom) {
+        List<BlogSummary> items = blogRepository.findSummaryPage(true, null, null, null, null, null,
+                PageRequest.of(0, feedSize));
+        long lastModified = Math.max(feedChangedAt, startedAt);
+        if (!items.isEmpty()) {
+            lastModified = Math.max(feedChangedAt, millis(items.get(0).getCreatedAt()));
+            for (BlogSummary item : items) {
+                lastModified = Math.max(lastModified, millis(item.getUpdatedAt()));
+            }
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            XMLStreamWriter xml = XML.createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            if (atom) {
+                writeAtom(xml, items, lastModified);
+            } else {
+                writeRss(xml, items, lastModified);
+            }
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not write feed", e);
+        }
+        return new RenderedXml(out.toByteArray(), lastModified, items.size());
+    }
+
+    private void writeRss(XMLStreamWriter xml, List<BlogSummary> items, long lastModified) throws XMLStreamException {
+        xml.writeStartElement("rss");
+        xml.writeAttribute("version", "2.0");
+        xml.writeStartElement("channel");
+        element(xml, "title", siteTitle);
+        element(xml, "link", siteUrl);
+        element(xml, "description", "Latest posts from " + siteTitle);
+        element(xml, "lastBuildDate", rfc1123(lastModified));
+        for (BlogSummary item : items) {
+            xml.writeStartElement("item");
+            element(xml, "title", item.getTitle());
+            element(xml, "link", blogUrl(item.getId()));
+            xml.writeStartElement("guid");
+            xml.writeAttribute("isPermaLink", "true");
+            xml.writeCharacters(blogUrl(item.getId()));
+            xml.writeEndElement();
+            if (item.getCreatedAt() != null) element(xml, "pubDate", rfc1123(millis(item.getCreatedAt())));
+            if (item.getAuthorName() != null) element(xml, "author", item.getAuthorName());
+            if (item.getCategory() != null) element(xml, "category", item.getCategory());
+            if (item.getExcerpt() != null) element(xml, "description", item.getExcerpt());
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+        xml.writeEndElement();
+    }
+
+    private void writeAtom(XMLStreamWriter xml, List<BlogSummary> items, long lastModified) throws XMLStreamException {
+        xml.writeStartElement("feed");
+        xml.writeDefaultNamespace(ATOM_NS);
+        element(xml, "id", siteUrl + "/");
+        element(xml, "title", siteTitle);
+        element(xml, "updated", iso(lastModified));
+        link(xml, null, siteUrl);
+        link(xml, "self", feedUrl + "/feed/atom.xml");
+        xml.writeStartElement("author");
+        element(xml, "name", siteTitle);
+        xml.writeEndElement();
+        for (BlogSummary item : items) {
+            xml.writeStartElement("entry");
+            element(xml, "id", blogUrl(item.getId()));
+            element(xml, "title", item.getTitle());
+            link(xml, null, blogUrl(item.getId()));
+            long updated = Math.max(millis(item.getCreatedAt()), millis(item.getUpdatedAt()));
+            element(xml, "updated", iso(updated > 0 ? updated : lastModified));
+            if (item.getCreatedAt() != null) element(xml, "published", iso(millis(item.getCreatedAt())));
+            if (item.getAuthorName() != null) {
+                xml.writeStartElement("author");
+                element(xml, "name", item.getAuthorName());
+                xml.writeEndElement();
+            }
+            if (item.getCategory() != null) {
+                xml.writeEmptyElement("category");
+                xml.writeAttribute("term", item.getCategory());
+            }
+            if (item.getExcerpt() != null) element(xml, "summary", item.getExcerpt());
+            xml.writeEndElement();
+        }
+        xml.writeEndElement();
+    }
+
+    private RenderedXml renderSegment(int segment) {
+        long lastModified = segmentChangedAt.getOrDefault(segment, 0L);
+        int urls = 0;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            XMLStreamWriter xml = XML.createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("urlset");
+            xml.writeDefaultNamespace(SITEMAP_NS);
+            long afterId = (long) segment * segmentSize;
+            long lastId = afterId + segmentSize;
+            while (true) {
+                List<Object[]> rows = blogRepository.findSitemapRows(afterId, lastId, PageRequest.of(0, batchSize));
+                if (rows.isEmpty()) break;
+                for (Object[] row : rows) {
+                    long id = (Long) row[0];
+                    long updated = millis((LocalDateTime) row[1]);
+                    xml.writeStartElement("url");
+                    element(xml, "loc", blogUrl(id));
+                    if (updated > 0) element(xml, "lastmod", iso(updated));
+                    xml.writeEndElement();
+                    lastModified = Math.max(lastModified, updated);
+                    afterId = id;
+                    urls++;
+                }
+            }
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not write sitemap segment " + segment, e);
+        }
+        return new RenderedXml(out.toByteArray(), lastModified > 0 ? lastModified : startedAt, urls);
+    }
+
+    // Lists the segments that have at least one URL, rendering any that are not cached
+    private RenderedXml renderIndex() {
+        long lastModified = 0;
+        int listed = 0;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            XMLStreamWriter xml = XML.createXMLStreamWriter(out, "UTF-8");
+            xml.writeStartDocument("UTF-8", "1.0");
+            xml.writeStartElement("sitemapindex");
+            xml.writeDefaultNamespace(SITEMAP_NS);
+            int segments = segmentCount();
+            for (int segment = 0; segment < segments; segment++) {
+                RenderedXml file = sitemapSegment(segment);
+                if (file == null || file.getEntries() == 0) continue;
+                xml.writeStartElement("sitemap");
+                element(xml, "loc", feedUrl + "/sitemap-" + segment + ".xml");
+                element(xml, "lastmod", iso(file.getLastModified()));
+                xml.writeEndElement();
+                lastModified = Math.max(lastModified, file.getLastModified());
+                listed++;
+            }
+            xml.writeEndElement();
+            xml.writeEndDocument();
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalStateException("Could not write sitemap index", e);
+        }
+        return new RenderedXml(out.toByteArray(), lastModified > 0 ? lastModified : startedAt, listed);
+    }
+
+    private int segmentCount() {
+        Long maxId = blogRepository.findMaxId();
+        return maxId == null || maxId < 1 ? 0 : segmentOf(maxId) + 1;
+    }
+
+    private int segmentOf(long blogId) {
+        return (int) ((Math.max(1, blogId) - 1) / segmentSize);
+    }
+
+    private String blogUrl(long blogId) {
+        return siteUrl + "/blog/" + blogId;
+    }
+
+    private static void element(XMLStreamWriter xml, String name, String text) throws XMLStreamException {
+        xml.writeStartElement(name);
+        xml.writeCharacters(text != null ? text : "");
+        xml.writeEndElement();
+    }
+
+    private static void link(XMLStreamWriter xml, String rel, String href) throws XMLStreamException {
+        xml.writeEmptyElement("link");
+        if (rel != null) xml.writeAttribute("rel", rel);
+        xml.writeAttribute("href", href);
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time != null ? time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0;
+    }
+
+    private static String iso(long millis) {
+        return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).withNano(0));
+    }
+
+    private static String rfc1123(long millis) {
+        return DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()));
+    }
+}
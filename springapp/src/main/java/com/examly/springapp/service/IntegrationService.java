@@ -1,5 +1,7 @@
 package com.examly.springapp.service;
 
+import com.examly.springapp.text.TextAnalysis;
+import com.examly.springapp.text.TextAnalyzer;
 import org.springframework.stereotype.Service;
 import java.util.*;
 
@@ -96,14 +98,15 @@ public class IntegrationService {
     // SEO Tool Integration
     public Map<String, Object> analyzeSEO(String content, String title, List<String> keywords) {
         Map<String, Object> analysis = new HashMap<>();
+        TextAnalysis text = TextAnalyzer.analyze(content);
         
         // SEO Score Calculation
-        double seoScore = calculateSEOScore(content, title, keywords);
+        double seoScore = calculateSEOScore(content, text, title, keywords);
         
         analysis.put("seoScore", seoScore);
-        analysis.put("recommendations", generateSEORecommendations(content, title));
-        analysis.put("keywordDensity", calculateKeywordDensity(content, keywords));
-        analysis.put("readabilityScore", calculateReadabilityScore(content));
+        analysis.put("recommendations", generateSEORecommendations(text, title));
+        analysis.put("keywordDensity", calculateKeywordDensity(text, keywords));
+        analysis.put("readabilityScore", calculateReadabilityScore(text));
         
         return analysis;
     }
@@ -184,66 +187,63 @@ public class IntegrationService {
         return result;
     }
     
-    private double calculateSEOScore(String content, String title, List<String> keywords) {
+    private double calculateSEOScore(String content, TextAnalysis text, String title, List<String> keywords) {
         double score = 0.0;
         
         // Title optimization (20 points)
         if (title.length() >= 30 && title.length() <= 60) score += 20;
         
         // Content length (20 points)
-        if (content.length() >= 1000) score += 20;
+        if (text.getLength() >= 1000) score += 20;
         
         // Keyword usage (30 points)
         for (String keyword : keywords) {
-            if (content.toLowerCase().contains(keyword.toLowerCase())) {
+            if (TextAnalyzer.containsIgnoreCase(content, keyword)) {
                 score += 10;
             }
         }
         
         // Structure (30 points)
-        if (content.contains("#") || content.contains("<h")) score += 15; // Headers
-        if (content.contains("http")) score += 15; // Links
+        if (text.hasHeadings()) score += 15; // Headers
+        if (text.hasLinks()) score += 15; // Links
         
         return Math.min(100, score);
     }
     
-    private List<String> generateSEORecommendations(String content, String title) {
+    private List<String> generateSEORecommendations(TextAnalysis text, String title) {
         List<String> recommendations = new ArrayList<>();
         
         if (title.length() < 30) {
             recommendations.add("Title is too short. Aim for 30-60 characters.");
         }
-        if (content.length() < 1000) {
+        if (text.getLength() < 1000) {
             recommendations.add("Content is too short. Aim for at least 1000 words.");
         }
-        if (!content.contains("#") && !content.contains("<h")) {
+        if (!text.hasHeadings()) {
             recommendations.add("Add headings to improve content structure.");
         }
         
         return recommendations;
     }
     
-    private Map<String, Double> calculateKeywordDensity(String content, List<String> keywords) {
+    private Map<String, Double> calculateKeywordDensity(TextAnalysis text, List<String> keywords) {
         Map<String, Double> density = new HashMap<>();
-        String[] words = content.toLowerCase().split("\\W+");
-        int totalWords = words.length;
         
         for (String keyword : keywords) {
-            long count = Arrays.stream(words).filter(word -> word.equals(keyword.toLowerCase())).count();
-            density.put(keyword, (double) count / totalWords * 100);
+            density.put(keyword, text.getTermDensity(keyword));
         }
         
         return density;
     }
     
-    private double calculateReadabilityScore(String content) {
+    private double calculateReadabilityScore(TextAnalysis text) {
         // Simplified Flesch Reading Ease
-        String[] sentences = content.split("[.!?]+");
-        String[] words = content.split("\\W+");
+        int sentences = text.getSentenceCount();
+        int words = text.getTermCount();
         
-        if (sentences.length == 0 || words.length == 0) return 0;
+        if (sentences == 0 || words == 0) return 0;
         
-        double avgSentenceLength = (double) words.length / sentences.length;
+        double avgSentenceLength = (double) words / sentences;
         return Math.max(0, 206.835 - (1.015 * avgSentenceLength));
     }
     
@@ -0,0 +1,200 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Blog;
+import com.examly.springapp.ranking.Leaderboard;
+import com.examly.springapp.repository.BlogRepository;
+import com.examly.springapp.repository.CommentRepository;
+import com.examly.springapp.repository.ContentMetricsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Live most-viewed, most-commented and most-liked leaderboards, globally and per category.
+// Loaded at startup, then moved by BlogChangedEvents, flushed view counts and new comments.
+// Likes only change through ContentMetrics rows written outside the app, so they are re-summed on a schedule.
+@Service
+public class LeaderboardService {
+
+    public static final String VIEWS = "views";
+    public static final String COMMENTS = "comments";
+    public static final String LIKES = "likes";
+    private static final String[] METRICS = {VIEWS, COMMENTS, LIKES};
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ContentMetricsRepository metricsRepository;
+
+    @Value("${app.leaderboard.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    private final Map<String, Leaderboard> global = new HashMap<>();
+    private final Map<String, Map<String, Leaderboard>> byCategory = new HashMap<>();
+
+    // Category and title of every ranked blog, for moving entries between boards and labelling results
+    private final ConcurrentHashMap<Long, String> categories = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, String> titles = new ConcurrentHashMap<>();
+
+    private final int maxSize;
+
+    public LeaderboardService(@Value("${app.leaderboard.max-size:100}") int maxSize) {
+        this.maxSize = maxSize;
+        for (String metric : METRICS) {
+            global.put(metric, new Leaderboard(maxSize));
+            byCategory.put(metric, new ConcurrentHashMap<>());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        long lastId = 0;
+        while (true) {
+            List<Object[]> rows = blogRepository.findLeaderboardRows(lastId, PageRequest.of(0, loadBatchSize));
+            if (rows.isEmpty()) break;
+            for (Object[] row : rows) {
+                Long blogId = (Long) row[0];
+                track(blogId, (String) row[1], (String) row[2]);
+                set(VIEWS, blogId, row[3] != null ? (Long) row[3] : 0);
+                lastId = blogId;
+            }
+        }
+        for (Object[] row : commentRepository.countByBlog()) {
+            Long blogId = (Long) row[0];
+            if (categories.containsKey(blogId)) set(COMMENTS, blogId, (Long) row[1]);
+        }
+        refreshLikes();
+        System.out.println("LeaderboardService: Ranked " + categories.size() + " blogs in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @Scheduled(fixedDelayString = "${app.leaderboard.likes-refresh-interval-ms:300000}",
+               initialDelayString = "${app.leaderboard.likes-refresh-interval-ms:300000}")
+    public void refreshLikes() {
+        Map<Long, Long> likes = new HashMap<>();
+        for (Object[] row : metricsRepository.sumLikesByBlog()) {
+            Long blogId = (Long) row[0];
+            if (row[1] != null && categories.containsKey(blogId)) likes.put(blogId, ((Number) row[1]).longValue());
+        }
+        // Blogs that lost all their likes drop out; everyone else gets the new total
+        for (Long blogId : global.get(LIKES).blogIds()) {
+            if (!likes.containsKey(blogId)) set(LIKES, blogId, 0);
+        }
+        for (Map.Entry<Long, Long> entry : likes.entrySet()) {
+            set(LIKES, entry.getKey(), entry.getValue());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        if (event.isDeleted()) {
+            untrack(event.getBlogId());
+            return;
+        }
+        Blog blog = event.getBlog();
+        track(blog.getId(), blog.getTitle(), blog.getCategory());
+        // The entity was loaded when its transaction began; flushes applied since then are newer
+        raise(VIEWS, blog.getId(), blog.getViews() != null ? blog.getViews() : 0);
+    }
+
+    @EventListener
+    public void onViewsFlushed(ViewsFlushedEvent event) {
+        for (Map.Entry<Long, Long> delta : event.getDeltas().entrySet()) {
+            add(VIEWS, delta.getKey(), delta.getValue());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentAdded(CommentAddedEvent event) {
+        add(COMMENTS, event.getBlogId(), 1);
+    }
+
+    // category is optional; without it the global board is read
+    public List<Map<String, Object>> top(String metric, String category, Integer limit) {
+        String key = metric == null ? "" : metric.toLowerCase(Locale.ROOT);
+        if (!global.containsKey(key)) {
+            throw new IllegalArgumentException("Unknown leaderboard metric: " + metric);
+        }
+        int size = limit == null ? 10 : Math.max(1, Math.min(limit, maxSize));
+        Leaderboard board = category == null || category.isEmpty()
+                ? global.get(key) : byCategory.get(key).get(category);
+        List<Map<String, Object>> items = new ArrayList<>();
+        if (board == null) return items;
+        for (Leaderboard.Entry entry : board.top(size)) {
+            Map<String, Object> item = new HashMap<>();
+            item.put("blogId", entry.getBlogId());
+            item.put("title", titles.get(entry.getBlogId()));
+            item.put("category", categories.get(entry.getBlogId()));
+            item.put(key, entry.getScore());
+            items.add(item);
+        }
+        return items;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("blogs", categories.size());
+        for (String metric : METRICS) {
+            stats.put(metric, global.get(metric).size());
+        }
+        stats.put("categories", byCategory.get(VIEWS).size());
+        return stats;
+    }
+
+    // Records the blog's title and category, moving its scores to the new category's boards
+    private synchronized void track(Long blogId, String title, String category) {
+        titles.put(blogId, title != null ? title : "");
+        String newCategory = category != null ? category : "";
+        String oldCategory = categories.put(blogId, newCategory);
+        if (oldCategory == null || oldCategory.equals(newCategory)) return;
+        for (String metric : METRICS) {
+            long score = global.get(metric).score(blogId);
+            categoryBoard(metric, oldCategory).remove(blogId);
+            categoryBoard(metric, newCategory).set(blogId, score);
+        }
+    }
+
+    private synchronized void untrack(Long blogId) {
+        for (String metric : METRICS) {
+            set(metric, blogId, 0);
+        }
+        categories.remove(blogId);
+        titles.remove(blogId);
+    }
+
+    private synchronized void set(String metric, long blogId, long score) {
+        global.get(metric).set(blogId, score);
+        String category = categories.get(blogId);
+        if (category != null) categoryBoard(metric, category).set(blogId, score);
+    }
+
+    // Ignores blogs that are not tracked, such as ones deleted before a late view flush
+    private synchronized void add(String metric, long blogId, long delta) {
+        if (!categories.containsKey(blogId)) return;
+        set(metric, blogId, global.get(metric).score(blogId) + delta);
+    }
+
+    // For scores that only grow, so a stale reading never takes back a newer one
+    private synchronized void raise(String metric, long blogId, long score) {
+        if (score > global.get(metric).score(blogId)) set(metric, blogId, score);
+    }
+
+    private Leaderboard categoryBoard(String metric, String category) {
+        return byCategory.get(metric).computeIfAbsent(category, c -> new Leaderboard(maxSize));
+    }
+}
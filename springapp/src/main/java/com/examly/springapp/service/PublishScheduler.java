@@ -0,0 +1,177 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Blog;
+import com.examly.springapp.repository.BlogRepository;
+import com.examly.springapp.scheduling.TimerWheel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Publishes SCHEDULED blogs at their publishAt. Blogs due within the horizon are held in a
+// TimerWheel driven by its own thread, so nothing polls the blogs table while waiting. The
+// wheel is filled from the database at startup, which also publishes whatever fell due while the
+// node was down, and refilled every reload interval. Schedule changes made on this node reach it
+// through BlogChangedEvents. When a timer fires, BlogService.publishScheduled claims the blog with
+// a conditional UPDATE, so with several nodes exactly one publishes it, and its BlogChangedEvent
+// refreshes the caches, listings and feeds.
+@Service
+public class PublishScheduler {
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private BlogService blogService;
+
+    @Value("${app.scheduler.horizon-ms:86400000}")
+    private long horizonMs;
+
+    @Value("${app.scheduler.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    @Value("${app.scheduler.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    private final TimerWheel<Long> wheel;
+    private final ScheduledExecutorService ticker;
+
+    // Every scheduled blog due before this is in the wheel
+    private volatile long loadedUntil;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong claimedElsewhere = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile long lastLagMs;
+
+    public PublishScheduler(@Value("${app.scheduler.tick-ms:250}") long tickMs,
+                            @Value("${app.scheduler.wheel-size:64}") int wheelSize,
+                            @Value("${app.scheduler.levels:4}") int levels) {
+        this.wheel = new TimerWheel<>(tickMs, wheelSize, levels, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "publish-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reload();
+        ticker.scheduleAtFixedRate(this::tick, wheel.getTickMs(), wheel.getTickMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @Scheduled(fixedDelayString = "${app.scheduler.reload-interval-ms:3600000}",
+               initialDelayString = "${app.scheduler.reload-interval-ms:3600000}")
+    public void reload() {
+        long until = System.currentTimeMillis() + horizonMs;
+        // Raised first, so a blog scheduled while the rows are read is taken by onBlogChanged
+        loadedUntil = until;
+        int loaded = 0;
+        long afterId = 0;
+        while (true) {
+            List<Object[]> rows = blogRepository.findScheduledRows(toTime(until), afterId, PageRequest.of(0, loadBatchSize));
+            if (rows.isEmpty()) break;
+            synchronized (wheel) {
+                for (Object[] row : rows) {
+                    wheel.schedule((Long) row[0], toMillis((LocalDateTime) row[1]));
+                }
+            }
+            loaded += rows.size();
+            afterId = (Long) rows.get(rows.size() - 1)[0];
+        }
+        System.out.println("PublishScheduler: Loaded " + loaded + " scheduled blogs due before " + toTime(until));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        Blog blog = event.getBlog();
+        synchronized (wheel) {
+            if (!event.isDeleted() && "SCHEDULED".equals(blog.getStatus()) && blog.getPublishAt() != null
+                    && toMillis(blog.getPublishAt()) < loadedUntil) {
+                wheel.schedule(blog.getId(), toMillis(blog.getPublishAt()));
+            } else {
+                wheel.cancel(event.getBlogId());
+            }
+        }
+    }
+
+    private void tick() {
+        try {
+            List<Long> due;
+            synchronized (wheel) {
+                due = wheel.advance(System.currentTimeMillis());
+            }
+            for (Long blogId : due) {
+                fire(blogId);
+            }
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic task
+            System.err.println("PublishScheduler: Tick failed: " + e.getMessage());
+        }
+    }
+
+    private void fire(Long blogId) {
+        try {
+            Blog blog = blogService.publishScheduled(blogId);
+            if (blog == null) {
+                claimedElsewhere.incrementAndGet();
+                return;
+            }
+            published.incrementAndGet();
+            if (blog.getPublishAt() != null) {
+                lastLagMs = System.currentTimeMillis() - toMillis(blog.getPublishAt());
+            }
+            System.out.println("PublishScheduler: Published blog " + blogId);
+        } catch (RuntimeException e) {
+            failures.incrementAndGet();
+            System.err.println("PublishScheduler: Could not publish blog " + blogId + ", retrying: " + e.getMessage());
+            synchronized (wheel) {
+                wheel.schedule(blogId, System.currentTimeMillis() + retryDelayMs);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (wheel) {
+            stats.put("pending", wheel.size());
+        }
+        stats.put("tickMs", wheel.getTickMs());
+        stats.put("loadedUntil", toTime(loadedUntil));
+        stats.put("published", published.get());
+        stats.put("claimedElsewhere", claimedElsewhere.get());
+        stats.put("failures", failures.get());
+        stats.put("lastLagMs", lastLagMs);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static LocalDateTime toTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,125 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Blog;
+import com.examly.springapp.repository.BlogRepository;
+import com.examly.springapp.search.RelatedPostsIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// "Related articles" for published blogs from the precomputed RelatedPostsIndex.
+// Built at startup, kept current from BlogChangedEvents, and rebuilt on a schedule so idf
+// follows the corpus. Drafts are never indexed, so they cannot show up as related posts.
+@Service
+public class RelatedPostsService {
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Value("${app.related.load-batch-size:500}")
+    private int loadBatchSize;
+
+    private final RelatedPostsIndex index;
+
+    // Title and slug of every indexed blog, so a lookup needs no database access
+    private final ConcurrentHashMap<Long, String[]> labels = new ConcurrentHashMap<>();
+
+    public RelatedPostsService(@Value("${app.related.neighbours:10}") int neighbours,
+                               @Value("${app.related.block-size:256}") int blockSize,
+                               @Value("${app.related.parallelism:0}") int parallelism) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.index = new RelatedPostsIndex(neighbours, blockSize, threads);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        long start = System.currentTimeMillis();
+        long lastId = 0;
+        while (true) {
+            List<Blog> batch = blogRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, loadBatchSize));
+            if (batch.isEmpty()) break;
+            List<Long> ids = new ArrayList<>();
+            Map<Long, List<String>> tags = new HashMap<>();
+            for (Blog blog : batch) {
+                ids.add(blog.getId());
+                tags.put(blog.getId(), new ArrayList<>());
+            }
+            for (Object[] row : blogRepository.findTagsByBlogIdIn(ids)) {
+                tags.get((Long) row[0]).add((String) row[1]);
+            }
+            for (Blog blog : batch) {
+                if (!blog.isPublished()) continue;
+                labels.put(blog.getId(), new String[]{blog.getTitle(), blog.getSlug()});
+                index.load(blog.getId(), blog.getTitle(), blog.getContent(), tags.get(blog.getId()), blog.getCategory());
+            }
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+        index.rebuild();
+        System.out.println("RelatedPostsService: Related " + index.size() + " blogs in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @Scheduled(fixedDelayString = "${app.related.rebuild-interval-ms:3600000}",
+               initialDelayString = "${app.related.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        if (index.rebuild()) {
+            System.out.println("RelatedPostsService: Rebuilt " + index.size() + " blogs in " + (System.currentTimeMillis() - start) + " ms");
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        Blog blog = event.getBlog();
+        if (event.isDeleted() || !blog.isPublished()) {
+            index.remove(event.getBlogId());
+            labels.remove(event.getBlogId());
+            return;
+        }
+        labels.put(blog.getId(), new String[]{blog.getTitle(), blog.getSlug()});
+        index.put(blog.getId(), blog.getTitle(), blog.getContent(), blog.getTags(), blog.getCategory());
+    }
+
+    public List<Map<String, Object>> related(Long blogId, Integer limit) {
+        RelatedPostsIndex.Neighbours neighbours = index.get(blogId);
+        int size = limit == null ? neighbours.size() : Math.max(0, Math.min(limit, neighbours.size()));
+        List<Map<String, Object>> items = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String[] label = labels.get(neighbours.getId(i));
+            if (label == null) continue;
+            Map<String, Object> item = new HashMap<>();
+            item.put("blogId", neighbours.getId(i));
+            item.put("title", label[0]);
+            item.put("slug", label[1]);
+            item.put("score", neighbours.getScore(i));
+            items.add(item);
+        }
+        return items;
+    }
+
+    // Saves and deletes reach the lists asynchronously; true once every queued one has
+    public boolean awaitUpdates(long timeoutMillis) {
+        return index.awaitUpdates(timeoutMillis);
+    }
+
+    public Map<String, Object> getStats() {
+        return index.getStats();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        index.shutdown();
+    }
+}
@@ -0,0 +1,23 @@
+package com.examly.springapp.service;
+
+// A pre-rendered UTF-8 XML document and the time its content last changed
+public final class RenderedXml {
+
+    private final byte[] body;
+    private final long lastModified;
+    private final int entries;
+
+    public RenderedXml(byte[] body, long lastModified, int entries) {
+        this.body = body;
+        this.lastModified = lastModified;
+        this.entries = entries;
+    }
+
+    public byte[] getBody() { return body; }
+
+    // Epoch millis
+    public long getLastModified() { return lastModified; }
+
+    // Items, entries or URLs in the document
+    public int getEntries() { return entries; }
+}
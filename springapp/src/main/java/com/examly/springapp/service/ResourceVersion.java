@@ -0,0 +1,21 @@
+package com.examly.springapp.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Validators for conditional GETs, computed from metadata so a 304 never loads the resource itself
+public final class ResourceVersion {
+
+    private final String etag;
+    private final long lastModified;
+
+    public ResourceVersion(String tag, LocalDateTime modifiedAt) {
+        this.etag = "\"" + tag + "\"";
+        this.lastModified = modifiedAt != null ? modifiedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    public String getETag() { return etag; }
+
+    // Epoch millis, or -1 when unknown
+    public long getLastModified() { return lastModified; }
+}
@@ -1,27 +1,28 @@
 package com.examly.springapp.service;
 
 import com.examly.springapp.model.Blog;
+import com.examly.springapp.text.TextAnalysis;
+import com.examly.springapp.text.TextAnalyzer;
 import org.springframework.stereotype.Service;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 @Service
 public class SEOService {
 
     public Map<String, Object> analyzeSEO(Blog blog) {
         Map<String, Object> analysis = new HashMap<>();
+        TextAnalysis text = TextAnalyzer.analyze(blog.getContent());
         
         // Title analysis
         analysis.put("titleLength", blog.getTitle() != null ? blog.getTitle().length() : 0);
         analysis.put("titleOptimal", isTitleOptimal(blog.getTitle()));
         
         // Content analysis
-        analysis.put("contentLength", blog.getContent() != null ? blog.getContent().length() : 0);
-        analysis.put("wordCount", getWordCount(blog.getContent()));
-        analysis.put("readingTime", calculateReadingTime(blog.getContent()));
+        analysis.put("contentLength", text.getLength());
+        analysis.put("wordCount", text.getWordCount());
+        analysis.put("readingTime", calculateReadingTime(text.getWordCount()));
         
         // SEO meta analysis
         analysis.put("hasMetaDescription", blog.getSeoDescription() != null && !blog.getSeoDescription().isEmpty());
@@ -29,7 +30,7 @@ public class SEOService {
         analysis.put("metaDescriptionOptimal", isMetaDescriptionOptimal(blog.getSeoDescription()));
         
         // Keyword analysis
-        analysis.put("keywordDensity", calculateKeywordDensity(blog.getContent(), blog.getTitle()));
+        analysis.put("keywordDensity", calculateKeywordDensity(text, blog.getContent(), blog.getTitle()));
         
         // Overall SEO score
         analysis.put("seoScore", calculateSEOScore(analysis));
@@ -46,13 +47,7 @@ public class SEOService {
         return length >= 30 && length <= 60;
     }
 
-    private int getWordCount(String content) {
-        if (content == null || content.isEmpty()) return 0;
-        return content.trim().split("\\s+").length;
-    }
-
-    private int calculateReadingTime(String content) {
-        int wordCount = getWordCount(content);
+    private int calculateReadingTime(int wordCount) {
         return Math.max(1, wordCount / 200); // Average reading speed: 200 words per minute
     }
 
@@ -62,23 +57,17 @@ public class SEOService {
         return length >= 120 && length <= 160;
     }
 
-    private Map<String, Double> calculateKeywordDensity(String content, String title) {
+    private Map<String, Double> calculateKeywordDensity(TextAnalysis text, String content, String title) {
         Map<String, Double> density = new HashMap<>();
         
         if (content == null || title == null) return density;
         
-        String[] titleWords = title.toLowerCase().split("\\s+");
-        String contentLower = content.toLowerCase();
-        int totalWords = getWordCount(content);
+        int totalWords = text.getWordCount();
         
-        for (String keyword : titleWords) {
+        // Title terms are matched against the content's term table rather than searched for one by one
+        for (String keyword : TextAnalyzer.analyze(title).getTermFrequencies().keySet()) {
             if (keyword.length() > 3) { // Only consider words longer than 3 characters
-                Pattern pattern = Pattern.compile("\\b" + Pattern.quote(keyword) + "\\b");
-                Matcher matcher = pattern.matcher(contentLower);
-                int count = 0;
-                while (matcher.find()) {
-                    count++;
-                }
+                int count = text.getTermFrequency(keyword);
                 double densityPercent = totalWords > 0 ? (count * 100.0) / totalWords : 0;
                 density.put(keyword, densityPercent);
             }
@@ -176,10 +165,6 @@ public class SEOService {
             return "untitled";
         }
         
-        return title.toLowerCase()
-                .replaceAll("[^a-z0-9\\s-]", "")
-                .replaceAll("\\s+", "-")
-                .replaceAll("-+", "-")
-                .replaceAll("^-|-$", "");
+        return TextAnalyzer.slug(title);
     }
 }
\ No newline at end of file
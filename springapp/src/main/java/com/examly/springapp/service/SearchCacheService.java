@@ -0,0 +1,116 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.search.PopularQueries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Size-bounded LRU cache of search responses plus a sketch of the most popular queries.
+// Every blog write bumps the index generation, which retires all cached responses at once;
+// stale entries are dropped when next looked up or pushed out by newer ones.
+@Service
+public class SearchCacheService {
+
+    @Value("${app.search.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.search.cache.max-size:500}")
+    private int maxSize;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong generation = new AtomicLong();
+    private final PopularQueries popularQueries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private static class Entry {
+        final Map<String, Object> response;
+        final long generation;
+
+        Entry(Map<String, Object> response, long generation) {
+            this.response = response;
+            this.generation = generation;
+        }
+    }
+
+    public SearchCacheService(@Value("${app.search.popular.capacity:200}") int popularCapacity) {
+        this.popularQueries = new PopularQueries(popularCapacity);
+    }
+
+    public Map<String, Object> get(String key) {
+        if (!enabled) return null;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.generation == generation.get()) {
+                hits.incrementAndGet();
+                return entry.response;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    // Read before searching and passed back to put()
+    public long generation() {
+        return generation.get();
+    }
+
+    public void put(String key, Map<String, Object> response, long searchGeneration) {
+        if (!enabled) return;
+        synchronized (this) {
+            if (generation.get() != searchGeneration) return;
+            entries.put(key, new Entry(response, searchGeneration));
+            while (entries.size() > maxSize) {
+                entries.remove(entries.keySet().iterator().next());
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    public void recordQuery(String normalizedQuery) {
+        popularQueries.record(normalizedQuery);
+    }
+
+    public List<Map<String, Object>> getPopularQueries(int limit) {
+        return popularQueries.top(limit);
+    }
+
+    // Called by BlogSearchService after the index has applied a write, so a search cannot
+    // cache a pre-write result under the new generation
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    public synchronized void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        synchronized (this) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxSize", maxSize);
+        stats.put("generation", generation.get());
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("evictions", evictions.get());
+        stats.put("trackedQueries", popularQueries.size());
+        stats.put("totalQueries", popularQueries.getTotal());
+        return stats;
+    }
+}
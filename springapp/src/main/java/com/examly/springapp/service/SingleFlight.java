@@ -0,0 +1,89 @@
+package com.examly.springapp.service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Coalesces concurrent loads of the same key: the first caller runs the loader on its own thread,
+// and callers that arrive while it is running wait for that result instead of loading again.
+// A failed load is rethrown to every waiter; waiters give up after timeoutMs.
+// Nothing is cached once the load completes; that is left to the caller.
+public class SingleFlight<K, V> {
+
+    public static class LoadTimeoutException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public LoadTimeoutException(String message) {
+            super(message);
+        }
+    }
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutMs;
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+
+    public SingleFlight(long timeoutMs) {
+        this.timeoutMs = timeoutMs;
+    }
+
+    public V load(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            return await(key, leader);
+        }
+        loads.incrementAndGet();
+        try {
+            V value = loader.get();
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            failures.incrementAndGet();
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> leader) {
+        try {
+            return leader.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.incrementAndGet();
+            throw new LoadTimeoutException("Timed out after " + timeoutMs + " ms waiting for load of " + key);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for load of " + key, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException("Load of " + key + " failed", cause);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long loadCount = loads.get();
+        long coalescedCount = coalesced.get();
+        stats.put("loads", loadCount);
+        stats.put("coalesced", coalescedCount);
+        stats.put("coalescedRate", loadCount + coalescedCount == 0 ? 0.0 : (double) coalescedCount / (loadCount + coalescedCount));
+        stats.put("failures", failures.get());
+        stats.put("timeouts", timeouts.get());
+        stats.put("inFlight", inFlight.size());
+        return stats;
+    }
+}
@@ -0,0 +1,238 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.BlogSlugAlias;
+import com.examly.springapp.repository.BlogRepository;
+import com.examly.springapp.repository.BlogSlugAliasRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Resolves public slugs to blog ids from memory, keeps old slugs as redirect aliases
+// and hands out collision-free slugs at write time. The maps follow committed writes only:
+// they are changed from BlogChangedEvents, after commit, never from inside a transaction.
+@Service
+public class SlugService {
+
+    private static final String SLUG_INDEX = "uk_blogs_slug";
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private BlogSlugAliasRepository aliasRepository;
+
+    @Autowired
+    private SEOService seoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${app.slugs.backfill.enabled:true}")
+    private boolean backfillEnabled;
+
+    private final Map<String, Long> canonical = new ConcurrentHashMap<>();
+    private final Map<String, Long> aliases = new ConcurrentHashMap<>();
+    // Current slug of each mapped blog, so a rename can find the entry it replaces
+    private final Map<Long, String> slugsById = new ConcurrentHashMap<>();
+
+    // Result of a slug lookup; an alias means the caller should redirect to the blog's current slug
+    public static class SlugMatch {
+        private final Long blogId;
+        private final boolean alias;
+
+        SlugMatch(Long blogId, boolean alias) {
+            this.blogId = blogId;
+            this.alias = alias;
+        }
+
+        public Long getBlogId() { return blogId; }
+        public boolean isAlias() { return alias; }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (backfillEnabled) {
+            backfill();
+        }
+        for (Object[] row : blogRepository.findAllSlugs()) {
+            map((String) row[0], (Long) row[1]);
+        }
+        for (BlogSlugAlias alias : aliasRepository.findAll()) {
+            aliases.put(alias.getSlug(), alias.getBlogId());
+        }
+        System.out.println("SlugService: Loaded " + canonical.size() + " slugs and " + aliases.size() + " aliases");
+    }
+
+    // Rows written before slugs were unique may have none, or share one. ddl-auto cannot add the
+    // unique index over them, so they get fresh slugs first (the oldest blog keeps a shared one)
+    // and the index is created here if schema update had to skip it.
+    public int backfill() {
+        List<Long> renamed = new ArrayList<>();
+        for (Object[] row : blogRepository.findAllSlugs()) {
+            // Mapping the first owner also keeps uniqueSlug from querying a slug that is still shared
+            if (canonical.putIfAbsent((String) row[0], (Long) row[1]) == null) {
+                slugsById.put((Long) row[1], (String) row[0]);
+            } else if (!canonical.get(row[0]).equals(row[1])) {
+                renamed.add((Long) row[1]);
+            }
+        }
+        renamed.addAll(blogRepository.findIdsWithoutSlug());
+        if (!renamed.isEmpty()) {
+            for (Object[] row : blogRepository.findTitlesByIdIn(renamed)) {
+                Long id = (Long) row[0];
+                String slug = uniqueSlug(null, (String) row[1], id);
+                blogRepository.updateSlug(id, slug);
+                map(slug, id);
+            }
+            System.out.println("SlugService: Gave " + renamed.size() + " blogs without a unique slug a new one");
+        }
+        if (!hasUniqueSlugIndex()) {
+            try {
+                jdbcTemplate.execute("CREATE UNIQUE INDEX " + SLUG_INDEX + " ON blogs (slug)");
+                System.out.println("SlugService: Created unique index " + SLUG_INDEX);
+            } catch (DataAccessException e) {
+                // Another node starting at the same time may have created it first
+                System.err.println("SlugService: Could not create unique index " + SLUG_INDEX + ": " + e.getMessage());
+            }
+        }
+        return renamed.size();
+    }
+
+    private boolean hasUniqueSlugIndex() {
+        Boolean found = jdbcTemplate.execute((Connection connection) -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            // Unquoted table names are stored upper-case by some databases and as written by others
+            for (String table : new String[]{"blogs", "BLOGS"}) {
+                Map<String, Integer> columnsPerIndex = new HashMap<>();
+                Set<String> slugIndexes = new HashSet<>();
+                try (ResultSet rows = metaData.getIndexInfo(connection.getCatalog(), null, table, true, false)) {
+                    while (rows.next()) {
+                        String index = rows.getString("INDEX_NAME");
+                        String column = rows.getString("COLUMN_NAME");
+                        if (index == null || column == null) continue;
+                        columnsPerIndex.merge(index, 1, Integer::sum);
+                        if (column.equalsIgnoreCase("slug")) slugIndexes.add(index);
+                    }
+                }
+                for (String index : slugIndexes) {
+                    if (columnsPerIndex.get(index) == 1) return true;
+                }
+            }
+            return false;
+        });
+        return Boolean.TRUE.equals(found);
+    }
+
+    public SlugMatch resolve(String slug) {
+        Long id = canonical.get(slug);
+        if (id != null) return new SlugMatch(id, false);
+        id = aliases.get(slug);
+        if (id != null) return new SlugMatch(id, true);
+        return lookupStored(slug);
+    }
+
+    // For a mapping the blog itself contradicts, e.g. a slug another node has since renamed:
+    // forgets what this node knew about the slug and asks the database again
+    public SlugMatch refresh(String slug) {
+        Long id = canonical.remove(slug);
+        if (id != null) slugsById.remove(id, slug);
+        aliases.remove(slug);
+        return lookupStored(slug);
+    }
+
+    // Another node may have written the slug; both lookups hit unique indexes
+    private SlugMatch lookupStored(String slug) {
+        Optional<Long> stored = blogRepository.findIdBySlug(slug);
+        if (stored.isPresent()) {
+            map(slug, stored.get());
+            return new SlugMatch(stored.get(), false);
+        }
+        Optional<BlogSlugAlias> alias = aliasRepository.findBySlug(slug);
+        if (alias.isPresent()) {
+            aliases.put(slug, alias.get().getBlogId());
+            return new SlugMatch(alias.get().getBlogId(), true);
+        }
+        return null;
+    }
+
+    // Slug derived from the requested value or the title, suffixed with -2, -3, ... until it is free
+    public String uniqueSlug(String requested, String title, Long blogId) {
+        String base = requested != null && !requested.isEmpty() ? seoService.generateSlug(requested) : seoService.generateSlug(title);
+        if (base.isEmpty()) base = "untitled";
+        String candidate = base;
+        int suffix = 2;
+        while (isTaken(candidate, blogId)) {
+            candidate = base + "-" + suffix++;
+        }
+        return candidate;
+    }
+
+    private boolean isTaken(String slug, Long blogId) {
+        SlugMatch match = resolve(slug);
+        return match != null && !match.getBlogId().equals(blogId);
+    }
+
+    // Stores the alias rows for a blog's new slug, in the caller's transaction; the in-memory
+    // maps follow in onBlogChanged once that commits
+    public void register(Long blogId, String slug, String previousSlug) {
+        if (slug == null) return;
+        if (previousSlug != null && !previousSlug.equals(slug)) {
+            // A blog may take back one of its own old slugs
+            aliasRepository.deleteBySlug(slug);
+            aliasRepository.save(new BlogSlugAlias(previousSlug, blogId));
+        }
+    }
+
+    public void unregister(Long blogId) {
+        aliasRepository.deleteByBlogId(blogId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        Long blogId = event.getBlogId();
+        if (event.isDeleted()) {
+            String slug = slugsById.remove(blogId);
+            if (slug != null) canonical.remove(slug, blogId);
+            aliases.values().removeIf(blogId::equals);
+            return;
+        }
+        String slug = event.getBlog().getSlug();
+        if (slug == null) return;
+        String previous = slugsById.get(blogId);
+        if (previous != null && !previous.equals(slug)) {
+            canonical.remove(previous, blogId);
+            aliases.put(previous, blogId);
+        }
+        aliases.remove(slug, blogId);
+        map(slug, blogId);
+    }
+
+    private void map(String slug, Long blogId) {
+        canonical.put(slug, blogId);
+        slugsById.put(blogId, slug);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("slugs", canonical.size());
+        stats.put("aliases", aliases.size());
+        return stats;
+    }
+}
@@ -0,0 +1,16 @@
+package com.examly.springapp.service;
+
+// A write was based on a version that is no longer current; the client should reload and rebase
+public class StaleVersionException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long currentVersion;
+
+    public StaleVersionException(String message, Long currentVersion) {
+        super(message);
+        this.currentVersion = currentVersion;
+    }
+
+    public Long getCurrentVersion() { return currentVersion; }
+}
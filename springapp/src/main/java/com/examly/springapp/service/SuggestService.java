@@ -0,0 +1,165 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.Blog;
+import com.examly.springapp.repository.BlogRepository;
+import com.examly.springapp.repository.UserRepository;
+import com.examly.springapp.search.PrefixSuggester;
+import com.examly.springapp.search.Suggestion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+// Type-ahead suggestions over blog titles, tags and usernames.
+// Titles rank by views; tags and authors by the views of their blogs plus how many blogs they have.
+// Kept current from BlogChangedEvents; a periodic rebuild picks up view counts flushed since.
+@Service
+public class SuggestService {
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.suggest.max-results:10}")
+    private int maxResults;
+
+    private volatile PrefixSuggester suggester = new PrefixSuggester(10);
+
+    // What each blog currently contributes, so an update can be subtracted before it is re-added
+    private Map<Long, Contribution> contributions = new HashMap<>();
+    private Map<String, long[]> tagStats = new HashMap<>();
+    private Map<String, long[]> authorStats = new HashMap<>();
+
+    private static final class Contribution {
+        final String title;
+        final List<String> tags;
+        final String author;
+        final long views;
+
+        Contribution(String title, List<String> tags, String author, long views) {
+            this.title = title;
+            this.tags = tags;
+            this.author = author;
+            this.views = views;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelayString = "${app.suggest.refresh-interval-ms:600000}",
+               initialDelayString = "${app.suggest.refresh-interval-ms:600000}")
+    public void refresh() {
+        rebuild();
+    }
+
+    // Builds into fresh structures and swaps them in, so readers never see a half-built trie
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        Map<Long, List<String>> tagsByBlog = new HashMap<>();
+        for (Object[] row : blogRepository.findAllTags()) {
+            tagsByBlog.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        contributions = new HashMap<>();
+        tagStats = new HashMap<>();
+        authorStats = new HashMap<>();
+        PrefixSuggester fresh = new PrefixSuggester(maxResults);
+        for (String username : userRepository.findAllUsernames()) {
+            authorStats.put(username, new long[2]);
+        }
+        for (Object[] row : blogRepository.findSuggestionRows()) {
+            Long id = (Long) row[0];
+            Long views = (Long) row[2];
+            Contribution contribution = new Contribution((String) row[1],
+                    tagsByBlog.getOrDefault(id, new ArrayList<>()), (String) row[3], views != null ? views : 0);
+            contributions.put(id, contribution);
+            apply(fresh, id, contribution, 1);
+        }
+        for (Map.Entry<String, long[]> author : authorStats.entrySet()) {
+            putRanked(fresh, Suggestion.Type.AUTHOR, author.getKey(), author.getValue());
+        }
+        suggester = fresh;
+        System.out.println("SuggestService: Loaded " + fresh.size() + " suggestions in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBlogChanged(BlogChangedEvent event) {
+        Contribution previous = contributions.remove(event.getBlogId());
+        if (previous != null) {
+            apply(suggester, event.getBlogId(), previous, -1);
+        }
+        if (!event.isDeleted()) {
+            Blog blog = event.getBlog();
+            Contribution current = new Contribution(blog.getTitle(),
+                    blog.getTags() != null ? new ArrayList<>(blog.getTags()) : new ArrayList<>(),
+                    blog.getAuthor() != null ? blog.getAuthor().getUsername() : null,
+                    blog.getViews() != null ? blog.getViews() : 0);
+            contributions.put(blog.getId(), current);
+            apply(suggester, blog.getId(), current, 1);
+        }
+    }
+
+    public List<Suggestion> suggest(String prefix, Integer limit) {
+        int count = limit == null ? maxResults : Math.max(1, Math.min(limit, maxResults));
+        return suggester.suggest(prefix, count);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("suggestions", suggester.size());
+        stats.put("tags", tagStats.size());
+        stats.put("authors", authorStats.size());
+        return stats;
+    }
+
+    // sign is 1 to add a blog's contribution and -1 to take it back out
+    private void apply(PrefixSuggester target, Long blogId, Contribution contribution, int sign) {
+        Suggestion title = new Suggestion(Suggestion.Type.TITLE, contribution.title, blogId, contribution.views);
+        if (sign > 0) {
+            target.put(title);
+        } else {
+            target.remove(title);
+        }
+
+        for (String tag : new LinkedHashSet<>(contribution.tags)) {
+            long[] stats = tagStats.computeIfAbsent(tag, t -> new long[2]);
+            stats[0] += sign;
+            stats[1] += sign * contribution.views;
+            if (stats[0] <= 0) {
+                tagStats.remove(tag);
+                target.remove(new Suggestion(Suggestion.Type.TAG, tag, null, 0));
+            } else {
+                putRanked(target, Suggestion.Type.TAG, tag, stats);
+            }
+        }
+
+        if (contribution.author != null) {
+            long[] stats = authorStats.computeIfAbsent(contribution.author, a -> new long[2]);
+            stats[0] = Math.max(0, stats[0] + sign);
+            stats[1] = Math.max(0, stats[1] + sign * contribution.views);
+            // Authors are kept even with no blogs left; during rebuild they are added in one pass at the end
+            if (target == suggester) {
+                putRanked(target, Suggestion.Type.AUTHOR, contribution.author, stats);
+            }
+        }
+    }
+
+    // stats is {blog count, total views}
+    private void putRanked(PrefixSuggester target, Suggestion.Type type, String text, long[] stats) {
+        target.put(new Suggestion(type, text, null, stats[1] + stats[0]));
+    }
+}
@@ -0,0 +1,86 @@
+package com.examly.springapp.service;
+
+import java.util.List;
+import java.util.Map;
+
+// An edit script against a base text, as sent by the editors instead of the whole body:
+// [{"retain": 120}, {"delete": 4}, {"insert": "new words"}, ...] applied left to right.
+// Text past the last op is kept. Counts are UTF-16 code units, the same as JavaScript string lengths.
+public final class TextDelta {
+
+    private static final byte RETAIN = 0;
+    private static final byte INSERT = 1;
+    private static final byte DELETE = 2;
+
+    private final byte[] kinds;
+    private final int[] counts;
+    private final String[] inserts;
+
+    private TextDelta(byte[] kinds, int[] counts, String[] inserts) {
+        this.kinds = kinds;
+        this.counts = counts;
+        this.inserts = inserts;
+    }
+
+    // Parses the JSON ops list; anything malformed is an IllegalArgumentException
+    public static TextDelta parse(Object ops, int maxOps) {
+        if (!(ops instanceof List)) {
+            throw new IllegalArgumentException("ops must be a list");
+        }
+        List<?> list = (List<?>) ops;
+        if (list.size() > maxOps) {
+            throw new IllegalArgumentException("Too many ops: " + list.size() + " (max " + maxOps + ")");
+        }
+        byte[] kinds = new byte[list.size()];
+        int[] counts = new int[list.size()];
+        String[] inserts = new String[list.size()];
+        for (int i = 0; i < list.size(); i++) {
+            if (!(list.get(i) instanceof Map) || ((Map<?, ?>) list.get(i)).size() != 1) {
+                throw new IllegalArgumentException("Op " + i + " must have exactly one of retain, insert or delete");
+            }
+            Map.Entry<?, ?> op = ((Map<?, ?>) list.get(i)).entrySet().iterator().next();
+            Object value = op.getValue();
+            if ("insert".equals(op.getKey()) && value instanceof String) {
+                kinds[i] = INSERT;
+                inserts[i] = (String) value;
+            } else if (("retain".equals(op.getKey()) || "delete".equals(op.getKey()))
+                    && (value instanceof Integer || value instanceof Long) && ((Number) value).longValue() >= 0
+                    && ((Number) value).longValue() <= Integer.MAX_VALUE) {
+                kinds[i] = "retain".equals(op.getKey()) ? RETAIN : DELETE;
+                counts[i] = ((Number) value).intValue();
+            } else {
+                throw new IllegalArgumentException("Invalid op " + i + ": " + op.getKey());
+            }
+        }
+        return new TextDelta(kinds, counts, inserts);
+    }
+
+    public String apply(String base, int maxLength) {
+        String text = base != null ? base : "";
+        StringBuilder result = new StringBuilder(text.length() + 64);
+        int position = 0;
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == INSERT) {
+                result.append(inserts[i]);
+            } else {
+                if (counts[i] > text.length() - position) {
+                    throw new IllegalArgumentException("Op " + i + " runs past the end of the base text");
+                }
+                if (kinds[i] == RETAIN) result.append(text, position, position + counts[i]);
+                position += counts[i];
+            }
+            if (result.length() > maxLength) {
+                throw new IllegalArgumentException("Content exceeds " + maxLength + " characters");
+            }
+        }
+        result.append(text, position, text.length());
+        if (result.length() > maxLength) {
+            throw new IllegalArgumentException("Content exceeds " + maxLength + " characters");
+        }
+        return result.toString();
+    }
+
+    public int size() {
+        return kinds.length;
+    }
+}
@@ -0,0 +1,132 @@
+package com.examly.springapp.service;
+
+import com.examly.springapp.model.BlogSummary;
+import com.examly.springapp.ranking.TrendingScores;
+import com.examly.springapp.repository.BlogRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// "Trending now": views, comments and shares feed exponentially decayed per-blog scores, and
+// the top-K set is re-ranked as events arrive. Scores start empty on boot because lifetime view
+// counts say nothing about what is trending. Requests read the in-memory top set and load
+// only those rows by primary key.
+@Service
+public class TrendingService {
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Value("${app.trending.weight.view:1}")
+    private double viewWeight;
+
+    @Value("${app.trending.weight.comment:5}")
+    private double commentWeight;
+
+    @Value("${app.trending.weight.share:10}")
+    private double shareWeight;
+
+    @Value("${app.trending.max-results:50}")
+    private int maxResults;
+
+    private final TrendingScores scores;
+    private final long halfLifeMinutes;
+
+    private final AtomicLong views = new AtomicLong();
+    private final AtomicLong comments = new AtomicLong();
+    private final AtomicLong shares = new AtomicLong();
+
+    public TrendingService(@Value("${app.trending.half-life-minutes:360}") long halfLifeMinutes,
+                           @Value("${app.trending.top-k:100}") int topK) {
+        this.halfLifeMinutes = halfLifeMinutes;
+        this.scores = new TrendingScores(halfLifeMinutes * 60_000L, topK, System.currentTimeMillis());
+    }
+
+    @EventListener
+    public void onViewsFlushed(ViewsFlushedEvent event) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<Long, Long> delta : event.getDeltas().entrySet()) {
+            scores.record(delta.getKey(), viewWeight * delta.getValue(), now);
+            views.addAndGet(delta.getValue());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentAdded(CommentAddedEvent event) {
+        scores.record(event.getBlogId(), commentWeight, System.currentTimeMillis());
+        comments.incrementAndGet();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        if (event.isDeleted()) {
+            scores.remove(event.getBlogId());
+        }
+    }
+
+    // Returns false when the blog does not exist
+    public boolean recordShare(Long blogId) {
+        if (!blogRepository.existsById(blogId)) return false;
+        scores.record(blogId, shareWeight, System.currentTimeMillis());
+        shares.incrementAndGet();
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${app.trending.rebase-interval-ms:60000}")
+    public void rebase() {
+        scores.rebase(System.currentTimeMillis());
+    }
+
+    // Published blogs only, best first, each with its current decayed score
+    public List<Map<String, Object>> trending(Integer limit) {
+        int size = limit == null ? 10 : Math.max(1, Math.min(limit, maxResults));
+        // Ask for extra ids so unpublished leaders do not shorten the list
+        long[] ids = scores.topIds(size * 2);
+        List<Long> idList = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            idList.add(id);
+        }
+        Map<Long, BlogSummary> summaries = new HashMap<>();
+        if (!idList.isEmpty()) {
+            for (BlogSummary summary : blogRepository.findSummariesByIdIn(idList)) {
+                summaries.put(summary.getId(), summary);
+            }
+        }
+
+        long now = System.currentTimeMillis();
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (long id : ids) {
+            BlogSummary summary = summaries.get(id);
+            if (summary == null || !summary.isPublished()) continue;
+            Map<String, Object> item = new HashMap<>();
+            item.put("blog", summary);
+            item.put("score", scores.score(id, now));
+            items.add(item);
+            if (items.size() == size) break;
+        }
+        return items;
+    }
+
+    public long getHalfLifeMinutes() {
+        return halfLifeMinutes;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("trackedBlogs", scores.size());
+        stats.put("halfLifeMinutes", halfLifeMinutes);
+        stats.put("views", views.get());
+        stats.put("comments", comments.get());
+        stats.put("shares", shares.get());
+        return stats;
+    }
+}
@@ -0,0 +1,161 @@
+package com.examly.springapp.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind view counting: page views are buffered in memory and flushed
+// as batched "views = views + ?" updates instead of one row write per read.
+@Service
+public class ViewCounterService {
+
+    private static final String FLUSH_SQL = "UPDATE blogs SET views = views + ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${app.views.max-pending:10000}")
+    private long maxPendingViews;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final LongAdder pendingViews = new LongAdder();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedViews = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private volatile long lastFlushMs;
+    private volatile long maxFlushMs;
+    private volatile int lastBatchSize;
+
+    public void recordView(Long blogId) {
+        if (blogId == null) return;
+        pending.computeIfAbsent(blogId, k -> new LongAdder()).increment();
+        pendingViews.increment();
+
+        // Flush early if the buffer grows past its bound between scheduled runs
+        if (pendingViews.sum() >= maxPendingViews && flushLock.tryLock()) {
+            try {
+                doFlush();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    // Views recorded but not yet written to the database
+    public long getPendingViews(Long blogId) {
+        LongAdder adder = pending.get(blogId);
+        return adder != null ? adder.sum() : 0;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBlogChanged(BlogChangedEvent event) {
+        if (event.isDeleted()) {
+            discard(event.getBlogId());
+        }
+    }
+
+    // A view recorded while the blog is being deleted can bring its counter back after this;
+    // doFlush drops such late counters once their update finds no row
+    public void discard(Long blogId) {
+        LongAdder adder = pending.remove(blogId);
+        if (adder != null) {
+            pendingViews.add(-adder.sum());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.views.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private void doFlush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sumThenReset();
+            if (delta > 0) {
+                batch.add(new Object[]{delta, entry.getKey()});
+            }
+        }
+        if (batch.isEmpty()) return;
+
+        long total = 0;
+        for (Object[] row : batch) {
+            total += (Long) row[0];
+        }
+        pendingViews.add(-total);
+
+        long start = System.currentTimeMillis();
+        try {
+            int[] updated = jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+            Map<Long, Long> deltas = new HashMap<>();
+            long written = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                Long blogId = (Long) batch.get(i)[1];
+                if (updated[i] == 0) {
+                    // The blog is gone: drop its views, and its counter unless more arrived meanwhile
+                    pending.computeIfPresent(blogId, (id, adder) -> adder.sum() == 0 ? null : adder);
+                    continue;
+                }
+                deltas.put(blogId, (Long) batch.get(i)[0]);
+                written += (Long) batch.get(i)[0];
+            }
+            flushedViews.addAndGet(written);
+            eventPublisher.publishEvent(new ViewsFlushedEvent(deltas));
+        } catch (Exception e) {
+            System.err.println("ViewCounterService: Flush failed, re-queueing " + total + " views: " + e.getMessage());
+            failedFlushes.incrementAndGet();
+            for (Object[] row : batch) {
+                pending.computeIfAbsent((Long) row[1], k -> new LongAdder()).add((Long) row[0]);
+            }
+            pendingViews.add(total);
+        }
+
+        long elapsed = System.currentTimeMillis() - start;
+        lastFlushMs = elapsed;
+        maxFlushMs = Math.max(maxFlushMs, elapsed);
+        lastBatchSize = batch.size();
+        flushCount.incrementAndGet();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("trackedBlogs", pending.size());
+        metrics.put("pendingViews", pendingViews.sum());
+        metrics.put("flushCount", flushCount.get());
+        metrics.put("flushedViews", flushedViews.get());
+        metrics.put("failedFlushes", failedFlushes.get());
+        metrics.put("lastFlushMs", lastFlushMs);
+        metrics.put("maxFlushMs", maxFlushMs);
+        metrics.put("lastBatchSize", lastBatchSize);
+        return metrics;
+    }
+}
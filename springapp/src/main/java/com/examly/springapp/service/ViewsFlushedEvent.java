@@ -0,0 +1,17 @@
+package com.examly.springapp.service;
+
+import java.util.Map;
+
+// Published by ViewCounterService after a batch of buffered views reached the database,
+// so in-memory read models can add the same deltas without re-reading the rows.
+public class ViewsFlushedEvent {
+
+    private final Map<Long, Long> deltas;
+
+    public ViewsFlushedEvent(Map<Long, Long> deltas) {
+        this.deltas = deltas;
+    }
+
+    // Blog id to number of views added
+    public Map<Long, Long> getDeltas() { return deltas; }
+}
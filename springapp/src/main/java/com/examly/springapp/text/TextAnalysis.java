@@ -0,0 +1,87 @@
+package com.examly.springapp.text;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Counts, structure flags and term frequencies of one text, as produced by TextAnalyzer.
+// Terms are lowercased runs of letters and digits; words are runs of non-whitespace, as an editor counts them.
+public final class TextAnalysis {
+
+    private final int length;
+    private final int words;
+    private final int terms;
+    private final int sentences;
+    private final int syllables;
+    private final int questionMarks;
+    private final boolean headings;
+    private final boolean lists;
+    private final boolean links;
+    private final boolean images;
+
+    // Open-addressed table of distinct terms; a slot is used when its term is not null
+    private final String[] termTable;
+    private final int[] termCounts;
+    private final int distinctTerms;
+
+    TextAnalysis(int length, int words, int terms, int sentences, int syllables, int questionMarks,
+                 boolean headings, boolean lists, boolean links, boolean images,
+                 String[] termTable, int[] termCounts, int distinctTerms) {
+        this.length = length;
+        this.words = words;
+        this.terms = terms;
+        this.sentences = sentences;
+        this.syllables = syllables;
+        this.questionMarks = questionMarks;
+        this.headings = headings;
+        this.lists = lists;
+        this.links = links;
+        this.images = images;
+        this.termTable = termTable;
+        this.termCounts = termCounts;
+        this.distinctTerms = distinctTerms;
+    }
+
+    public int getLength() { return length; }
+    public int getWordCount() { return words; }
+    public int getTermCount() { return terms; }
+    public int getSentenceCount() { return sentences; }
+    public int getSyllableCount() { return syllables; }
+    public int getQuestionMarkCount() { return questionMarks; }
+
+    public boolean hasHeadings() { return headings; }
+    public boolean hasLists() { return lists; }
+    public boolean hasLinks() { return links; }
+    public boolean hasImages() { return images; }
+
+    public int getDistinctTermCount() { return distinctTerms; }
+
+    // Occurrences of a single term, matched case-insensitively
+    public int getTermFrequency(String term) {
+        if (term == null || term.isEmpty()) return 0;
+        String key = term.toLowerCase();
+        int mask = termTable.length - 1;
+        for (int slot = TextAnalyzer.spread(key.hashCode()) & mask; termTable[slot] != null; slot = (slot + 1) & mask) {
+            if (termTable[slot].equals(key)) return termCounts[slot];
+        }
+        return 0;
+    }
+
+    // Percentage of all terms that are this term
+    public double getTermDensity(String term) {
+        return terms == 0 ? 0 : getTermFrequency(term) * 100.0 / terms;
+    }
+
+    public Map<String, Integer> getTermFrequencies() {
+        Map<String, Integer> frequencies = new HashMap<>(distinctTerms * 2);
+        for (int slot = 0; slot < termTable.length; slot++) {
+            if (termTable[slot] != null) frequencies.put(termTable[slot], termCounts[slot]);
+        }
+        return frequencies;
+    }
+
+    // Simplified Flesch Reading Ease; 0 for text without words or sentences
+    public double getFleschReadingEase() {
+        if (sentences == 0 || terms == 0) return 0;
+        return 206.835 - 1.015 * ((double) terms / sentences) - 84.6 * ((double) syllables / terms);
+    }
+}
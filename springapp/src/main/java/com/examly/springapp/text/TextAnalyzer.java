@@ -0,0 +1,240 @@
+package com.examly.springapp.text;
+
+// One pass over the characters of a text, with no regular expressions and no per-word strings:
+// a term is lowercased into a reused buffer and hashed as it is read, and a String is made only
+// the first time a distinct term is seen. Markdown and HTML structure is recognised with short
+// look-aheads at line starts, '<', '!', ']' and 'h'.
+public final class TextAnalyzer {
+
+    private static final int MAX_TERM_LENGTH = 64;
+
+    private TextAnalyzer() {}
+
+    public static TextAnalysis analyze(String text) {
+        if (text == null) text = "";
+        int length = text.length();
+
+        int words = 0;
+        int terms = 0;
+        int sentences = 0;
+        int syllables = 0;
+        int questionMarks = 0;
+        boolean headings = false;
+        boolean lists = false;
+        boolean links = false;
+        boolean images = false;
+
+        boolean inWord = false;
+        boolean sentenceHasTerm = false;
+        boolean lineStart = true;
+        boolean imageBracket = false;
+
+        // Current term
+        char[] term = new char[MAX_TERM_LENGTH];
+        int termLength = 0;
+        int termHash = 0;
+        boolean termHasLetter = false;
+        int vowelGroups = 0;
+        boolean lastWasVowel = false;
+
+        // Distinct terms, open addressed; power-of-two sized and kept at most half full
+        // Vocabulary grows far slower than text, so the table starts small and doubles as needed
+        int capacity = 256;
+        String[] table = new String[capacity];
+        int[] hashes = new int[capacity];
+        int[] counts = new int[capacity];
+        int distinct = 0;
+
+        for (int i = 0; i <= length; i++) {
+            char c = i < length ? text.charAt(i) : ' ';
+
+            if (lineStart && i < length) {
+                int start = i;
+                while (start < length && (text.charAt(start) == ' ' || text.charAt(start) == '\t')) start++;
+                if (!headings && isMarkdownHeading(text, start)) headings = true;
+                if (!lists && isMarkdownListItem(text, start)) lists = true;
+                lineStart = false;
+            }
+
+            boolean letterOrDigit = Character.isLetterOrDigit(c);
+            // An apostrophe (straight or typographic) inside a word does not end the term: "don't" is one term
+            boolean joiner = (c == '\'' || c == '\u2019') && termLength > 0 && i + 1 < length
+                    && Character.isLetter(text.charAt(i + 1));
+
+            if (letterOrDigit) {
+                char lower = Character.toLowerCase(c);
+                if (termLength < MAX_TERM_LENGTH) {
+                    term[termLength++] = lower;
+                    termHash = 31 * termHash + lower;
+                }
+                if (Character.isLetter(c)) {
+                    termHasLetter = true;
+                    boolean vowel = isVowel(lower);
+                    if (vowel && !lastWasVowel) vowelGroups++;
+                    lastWasVowel = vowel;
+                } else {
+                    lastWasVowel = false;
+                }
+            } else if (!joiner && termLength > 0) {
+                terms++;
+                sentenceHasTerm = true;
+                if (termHasLetter) {
+                    // A final silent e ("make") is not a syllable of its own
+                    if (vowelGroups > 1 && term[termLength - 1] == 'e' && !isVowel(term[termLength - 2])) vowelGroups--;
+                    syllables += Math.max(1, vowelGroups);
+                }
+                int mask = capacity - 1;
+                int slot = spread(termHash) & mask;
+                while (table[slot] != null && !(hashes[slot] == termHash && sameTerm(table[slot], term, termLength))) {
+                    slot = (slot + 1) & mask;
+                }
+                if (table[slot] != null) {
+                    counts[slot]++;
+                } else {
+                    table[slot] = new String(term, 0, termLength);
+                    hashes[slot] = termHash;
+                    counts[slot] = 1;
+                    if (++distinct * 2 > capacity) {
+                        // Grow and re-place every distinct term
+                        int grown = capacity << 1;
+                        String[] newTable = new String[grown];
+                        int[] newHashes = new int[grown];
+                        int[] newCounts = new int[grown];
+                        for (int k = 0; k < capacity; k++) {
+                            if (table[k] == null) continue;
+                            int s = spread(hashes[k]) & (grown - 1);
+                            while (newTable[s] != null) s = (s + 1) & (grown - 1);
+                            newTable[s] = table[k];
+                            newHashes[s] = hashes[k];
+                            newCounts[s] = counts[k];
+                        }
+                        table = newTable;
+                        hashes = newHashes;
+                        counts = newCounts;
+                        capacity = grown;
+                    }
+                }
+                termLength = 0;
+                termHash = 0;
+                termHasLetter = false;
+                vowelGroups = 0;
+                lastWasVowel = false;
+            }
+
+            if (Character.isWhitespace(c)) {
+                inWord = false;
+                if (c == '\n') lineStart = true;
+            } else if (!inWord) {
+                inWord = true;
+                words++;
+            }
+
+            switch (c) {
+                case '.':
+                case '!':
+                case '?':
+                    if (c == '!' && i + 1 < length && text.charAt(i + 1) == '[') {
+                        images = true;
+                        break;
+                    }
+                    // "example.com" and "3.5" do not end a sentence
+                    if (sentenceHasTerm && (i + 1 >= length || !Character.isLetterOrDigit(text.charAt(i + 1)))) {
+                        sentences++;
+                        sentenceHasTerm = false;
+                    }
+                    if (c == '?') questionMarks++;
+                    break;
+                case '[':
+                    imageBracket = i > 0 && text.charAt(i - 1) == '!';
+                    break;
+                case ']':
+                    if (!imageBracket && i + 1 < length && text.charAt(i + 1) == '(') links = true;
+                    break;
+                case '<':
+                    if (!headings && text.regionMatches(true, i + 1, "h", 0, 1) && i + 2 < length
+                            && text.charAt(i + 2) >= '1' && text.charAt(i + 2) <= '6') headings = true;
+                    if (!lists && (text.regionMatches(true, i + 1, "li", 0, 2) || text.regionMatches(true, i + 1, "ul", 0, 2)
+                            || text.regionMatches(true, i + 1, "ol", 0, 2))) lists = true;
+                    if (!images && text.regionMatches(true, i + 1, "img", 0, 3)) images = true;
+                    if (!links && text.regionMatches(true, i + 1, "a ", 0, 2)) links = true;
+                    break;
+                case 'h':
+                case 'H':
+                    if (!links && (text.regionMatches(true, i, "http://", 0, 7) || text.regionMatches(true, i, "https://", 0, 8))) {
+                        links = true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (sentenceHasTerm) sentences++;
+
+        return new TextAnalysis(length, words, terms, sentences, syllables, questionMarks,
+                headings, lists, links, images, table, counts, distinct);
+    }
+
+    // Lowercase letters and digits joined by single hyphens; everything else is dropped, and
+    // whitespace or hyphens between kept characters become one hyphen. "Hello, World - 2024!" gives "hello-world-2024".
+    public static String slug(String text) {
+        if (text == null) return "";
+        StringBuilder slug = new StringBuilder(text.length());
+        boolean separator = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                if (separator && slug.length() > 0) slug.append('-');
+                separator = false;
+                slug.append(c);
+            } else if (c == '-' || c == ' ' || (c >= '\t' && c <= '\r')) {
+                separator = true;
+            }
+        }
+        return slug.toString();
+    }
+
+    // String.contains ignoring case, without lowercasing a copy of the text
+    public static boolean containsIgnoreCase(String text, String part) {
+        if (text == null || part == null) return false;
+        int last = text.length() - part.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, part, 0, part.length())) return true;
+        }
+        return false;
+    }
+
+    static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean sameTerm(String known, char[] term, int length) {
+        if (known.length() != length) return false;
+        for (int k = 0; k < length; k++) {
+            if (known.charAt(k) != term[k]) return false;
+        }
+        return true;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+
+    // One to six '#' and a space
+    private static boolean isMarkdownHeading(String text, int start) {
+        int hashes = 0;
+        while (start + hashes < text.length() && text.charAt(start + hashes) == '#') hashes++;
+        return hashes >= 1 && hashes <= 6 && start + hashes < text.length() && text.charAt(start + hashes) == ' ';
+    }
+
+    // "- ", "* ", "+ ", or digits followed by ". " or ") "
+    private static boolean isMarkdownListItem(String text, int start) {
+        if (start + 1 >= text.length()) return false;
+        char first = text.charAt(start);
+        if ((first == '-' || first == '*' || first == '+') && text.charAt(start + 1) == ' ') return true;
+        int digits = 0;
+        while (start + digits < text.length() && Character.isDigit(text.charAt(start + digits))) digits++;
+        return digits > 0 && start + digits + 1 < text.length()
+                && (text.charAt(start + digits) == '.' || text.charAt(start + digits) == ')')
+                && text.charAt(start + digits + 1) == ' ';
+    }
+}
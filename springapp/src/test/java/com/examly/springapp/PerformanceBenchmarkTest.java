@@ -0,0 +1,500 @@
+package com.examly.springapp;
+
+import com.examly.springapp.catalog.BlogCatalog;
+import com.examly.springapp.catalog.CatalogQuery;
+import com.examly.springapp.model.Blog;
+import com.examly.springapp.model.BlogSummary;
+import com.examly.springapp.model.User;
+import com.examly.springapp.repository.BlogRepository;
+import com.examly.springapp.repository.UserRepository;
+import com.examly.springapp.search.SearchAnalyzer;
+import com.examly.springapp.search.SearchDocument;
+import com.examly.springapp.search.ShardedSearchIndex;
+import com.examly.springapp.search.SnippetStore;
+import com.examly.springapp.service.BlogRevisionService;
+import com.examly.springapp.service.BlogService;
+import com.examly.springapp.text.TextAnalysis;
+import com.examly.springapp.text.TextAnalyzer;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Measurements behind the performance work, kept out of the regular test run: mvn test -Pbenchmark.
+// Each benchmark prints one report line and asserts only what holds on any machine.
+// SQL logging is off so statement counts do not turn into console time.
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.show-sql=false")
+public class PerformanceBenchmarkTest {
+
+    @Autowired
+    private BlogService blogService;
+
+    @Autowired
+    private BlogRevisionService revisionService;
+
+    @Autowired
+    private BlogRepository blogRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final String[] VOCABULARY = buildVocabulary(2000);
+
+    // 20 hits per page, highlighted from the snippet store against regex passes over each hit's full content
+    @Test
+    public void snippetStoreAgainstRegexHighlighting() {
+        Random random = new Random(11);
+        int documents = 2000;
+        String[] contents = new String[documents];
+        SnippetStore store = new SnippetStore();
+        for (int doc = 0; doc < documents; doc++) {
+            contents[doc] = markup(random, 60);
+            store.put(doc, contents[doc]);
+        }
+        String[][] queries = new String[200][];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = new String[]{word(random), word(random)};
+        }
+
+        int pages = 500;
+        long[] storeResult = measure(pages, page -> {
+            String[] query = queries[page % queries.length];
+            List<String> terms = SearchAnalyzer.analyze(query[0] + " " + query[1]);
+            int marked = 0;
+            for (int hit = 0; hit < 20; hit++) {
+                String snippet = store.snippet((page * 20 + hit) % documents, terms, 200);
+                if (snippet.contains("<mark>")) marked++;
+            }
+            return marked;
+        });
+        long[] regexResult = measure(pages, page -> {
+            String[] query = queries[page % queries.length];
+            int marked = 0;
+            for (int hit = 0; hit < 20; hit++) {
+                String snippet = regexSnippet(contents[(page * 20 + hit) % documents], query, 200);
+                if (snippet.contains("<mark>")) marked++;
+            }
+            return marked;
+        });
+
+        assertThat(storeResult[2]).isGreaterThan(0);
+        assertThat(regexResult[2]).isGreaterThan(0);
+        report("Snippets (20 hits per page)", "snippet store", pages, storeResult, "regex over full content", regexResult);
+    }
+
+    // 1000 blogs of about 4 KB listed in full: findAll serialised as entities, against keyset pages
+    // of 100 summaries with their tags, and against the single page of 20 the list endpoint serves. Both run in a read-only transaction, as open-in-view would
+    // give the endpoint, so the entities' lazy tags load while they are serialised.
+    @Test
+    public void summaryProjectionAgainstFindAll() {
+        Random random = new Random(3);
+        User author = new User();
+        author.setUsername("summary-benchmark");
+        author.setEmail("summary-benchmark@example.com");
+        author.setPasswordHash("x".repeat(60));
+        author = userRepository.save(author);
+        List<Blog> blogs = new ArrayList<>();
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (int i = 0; i < 1000; i++) {
+            Blog blog = new Blog();
+            blog.setTitle(text(random, 60));
+            blog.setSlug("summary-benchmark-" + i);
+            blog.setContent(markup(random, 40));
+            blog.setSeoDescription(text(random, 150));
+            blog.setCategory("category" + random.nextInt(20));
+            blog.setTags(new ArrayList<>(List.of(word(random), word(random))));
+            blog.setAuthor(author);
+            blog.setCreatedAt(created.plusMinutes(i));
+            blog.setUpdatedAt(blog.getCreatedAt());
+            blogs.add(blog);
+        }
+        blogs = blogRepository.saveAll(blogs);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        try {
+            int rounds = 10;
+            long[] entityResult = measure(rounds, round -> readOnly.execute(status -> json(blogRepository.findAll())));
+            long[] summaryResult = measure(rounds, round -> readOnly.execute(status -> summaryPages(100, Integer.MAX_VALUE)));
+            long[] pageResult = measure(rounds, round -> readOnly.execute(status -> summaryPages(20, 1)));
+
+            assertThat(summaryResult[2]).isLessThan(entityResult[2]);
+            System.out.println(String.format("Blog listing (1000 blogs): findAll entities %.1f ms and %d KB of JSON; "
+                            + "all rows as summary pages of 100 %.1f ms and %d KB (findAll ships %.1fx the bytes); "
+                            + "one page of 20 summaries, as the list endpoint serves, %.2f ms and %d KB",
+                    entityResult[0] / 1e6 / rounds, entityResult[2] / 1024 / rounds,
+                    summaryResult[0] / 1e6 / rounds, summaryResult[2] / 1024 / rounds,
+                    (double) entityResult[2] / summaryResult[2],
+                    pageResult[0] / 1e6 / rounds, pageResult[2] / 1024 / rounds));
+        } finally {
+            blogRepository.deleteAll(blogs);
+            userRepository.delete(author);
+        }
+    }
+
+    // JSON bytes of up to the given number of keyset pages, tags stitched on as BlogService does
+    private int summaryPages(int pageSize, int pages) {
+        int bytes = 0;
+        BlogSummary last = null;
+        for (int i = 0; i < pages; i++) {
+            List<BlogSummary> page = blogRepository.findSummaryPage(null, null, null, null,
+                    last != null ? last.getCreatedAt() : null, last != null ? last.getId() : null,
+                    PageRequest.of(0, pageSize));
+            if (page.isEmpty()) break;
+            Map<Long, BlogSummary> byId = new HashMap<>();
+            for (BlogSummary summary : page) byId.put(summary.getId(), summary);
+            for (Object[] row : blogRepository.findTagsByBlogIdIn(byId.keySet())) {
+                byId.get((Long) row[0]).getTags().add((String) row[1]);
+            }
+            bytes += json(page);
+            last = page.get(page.size() - 1);
+        }
+        return bytes;
+    }
+
+    private int json(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value).length;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Stored size and replay time of 300 small edits to a 300-line post
+    @Test
+    public void revisionHistoryStorageAndReplay() {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            lines.add(text(random, 60) + ".");
+        }
+        Blog blog = new Blog();
+        blog.setTitle("Revision benchmark");
+        blog.setContent(String.join("\n", lines));
+        Long id = blogService.createBlog(blog).getId();
+        try {
+            for (int edit = 1; edit < 300; edit++) {
+                if (edit % 3 == 0) {
+                    lines.add(random.nextInt(lines.size()), "Inserted line " + edit);
+                } else {
+                    lines.set(random.nextInt(lines.size()), "Rewritten line " + edit + " " + word(random));
+                }
+                Blog update = new Blog();
+                update.setContent(String.join("\n", lines));
+                blogService.updateBlog(id, update);
+            }
+
+            Map<String, Object> storage = revisionService.getStorage(id);
+            long[] result = measure(300, round -> (Integer) revisionService.get(id, round + 1).get("replayed"));
+            assertThat(storage.get("revisions")).isEqualTo(300L);
+            System.out.println(String.format("Revision history: 300 revisions of %d chars stored in %s bytes (ratio %s), "
+                            + "rebuilt in %.0f us and %d KB allocated each, %.1f rows replayed on average",
+                    String.join("\n", lines).length(), storage.get("storedBytes"), storage.get("ratio"),
+                    result[0] / 1e3 / 300, result[1] / 1024 / 300, result[2] / 300.0));
+        } finally {
+            blogService.deleteBlog(id);
+        }
+    }
+
+    // About 1 MB of mixed markdown, analysed in one pass against the regex passes the AI and SEO
+    // services used to make over the same text
+    @Test
+    public void textAnalysisAgainstRegexPasses() {
+        StringBuilder corpus = new StringBuilder();
+        Random random = new Random(25);
+        String[] vocabulary = {"cache", "latency", "throughput", "the", "a", "server", "request", "allocation", "memory", "profile"};
+        while (corpus.length() < 1 << 20) {
+            corpus.append("## Section ").append(corpus.length()).append("\n\n");
+            for (int sentence = 0; sentence < 8; sentence++) {
+                for (int word = 0; word < 12; word++) {
+                    corpus.append(vocabulary[random.nextInt(vocabulary.length)]).append(word == 11 ? "" : " ");
+                }
+                corpus.append(random.nextInt(10) == 0 ? "? " : ". ");
+            }
+            corpus.append("\n- see [notes](https://example.com/").append(random.nextInt(1000)).append(")\n\n");
+        }
+        String content = corpus.toString();
+        double megabytes = content.length() / (double) (1 << 20);
+        int rounds = 20;
+
+        TextAnalysis[] analysis = new TextAnalysis[1];
+        long[] singlePass = measure(rounds, round -> {
+            analysis[0] = TextAnalyzer.analyze(content);
+            return analysis[0].getWordCount();
+        });
+        long[] regexPasses = measure(rounds, round -> {
+            String lower = content.toLowerCase();
+            int matches = content.trim().split("\\s+").length + content.split("[.!?]+").length;
+            matches += lower.replaceAll("[^aeiou]", "").length();
+            for (String word : vocabulary) {
+                Matcher matcher = Pattern.compile("\\b" + word + "\\b").matcher(lower);
+                while (matcher.find()) matches++;
+            }
+            return matches;
+        });
+
+        assertThat(analysis[0].getWordCount()).isEqualTo(content.trim().split("\\s+").length);
+        assertThat(analysis[0].getTermFrequency("cache")).isGreaterThan(0);
+        System.out.println(String.format("Text analysis: single pass %.1f MB/s, %.0f bytes allocated per MB; regex passes %.1f MB/s, %.0f bytes per MB",
+                rounds * megabytes / (singlePass[0] / 1e9), singlePass[1] / rounds / megabytes,
+                rounds * megabytes / (regexPasses[0] / 1e9), regexPasses[1] / rounds / megabytes));
+    }
+
+    // Queries per second from 1, 4 and 16 client threads, one shard against eight searched in parallel
+    @Test
+    public void shardedSearchThroughput() throws Exception {
+        Random random = new Random(12);
+        int documents = 50_000;
+        int cores = Runtime.getRuntime().availableProcessors();
+        int shards = 8;
+        ShardedSearchIndex single = new ShardedSearchIndex(1, 1);
+        ShardedSearchIndex sharded = new ShardedSearchIndex(shards, cores);
+        for (int doc = 0; doc < documents; doc++) {
+            SearchDocument document = new SearchDocument(doc, word(random) + " " + word(random), markup(random, 8),
+                    List.of(word(random)), "category" + random.nextInt(20), "author" + random.nextInt(200), null);
+            single.index(document);
+            sharded.index(document);
+        }
+        String[] queries = new String[500];
+        for (int i = 0; i < queries.length; i++) {
+            queries[i] = word(random) + " " + word(random);
+        }
+        try {
+            for (String query : List.of(queries[0], queries[1], queries[2])) {
+                assertThat(sharded.search(query, 10, null, null, 10).getTotalHits())
+                        .isEqualTo(single.search(query, 10, null, null, 10).getTotalHits());
+            }
+            StringBuilder line = new StringBuilder("Search throughput (" + documents + " docs, " + cores + " cores):");
+            for (int threads : new int[]{1, 4, 16}) {
+                double singleQps = throughput(single, queries, threads);
+                double shardedQps = throughput(sharded, queries, threads);
+                line.append(String.format(" %d threads: 1 shard %.0f q/s, %d shards %.0f q/s;", threads, singleQps, shards, shardedQps));
+            }
+            System.out.println(line);
+        } finally {
+            single.shutdown();
+            sharded.shutdown();
+        }
+    }
+
+    // Every thread runs the query list twice, the first time as warm-up
+    private static double throughput(ShardedSearchIndex index, String[] queries, int threads) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(threads);
+        try {
+            runQueries(clients, index, queries, threads);
+            long nanos = runQueries(clients, index, queries, threads);
+            return (double) threads * queries.length / (nanos / 1e9);
+        } finally {
+            clients.shutdown();
+        }
+    }
+
+    private static long runQueries(ExecutorService clients, ShardedSearchIndex index, String[] queries, int threads) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> runs = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int offset = t * 37;
+            runs.add(clients.submit(() -> {
+                start.await();
+                for (int i = 0; i < queries.length; i++) {
+                    index.search(queries[(offset + i) % queries.length], 10, null, null, 10);
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> run : runs) run.get();
+        return System.nanoTime() - begin;
+    }
+
+    // Retained heap of 100k catalog rows, against the same rows held as BlogSummary objects.
+    // Rows are generated afresh for each side, so neither measurement shares the other's strings.
+    @Test
+    public void catalogFootprintPer100kBlogs() {
+        int blogs = 100_000;
+
+        long before = usedHeap();
+        BlogCatalog catalog = new BlogCatalog();
+        Random random = new Random(14);
+        for (int id = 1; id <= blogs; id++) {
+            BlogSummary summary = summary(random, id);
+            catalog.upsert(summary, (long) summary.getAuthorName().hashCode());
+        }
+        long catalogBytes = usedHeap() - before;
+
+        // As a cache of loaded rows would hold them, without any of the catalog's bitmaps
+        before = usedHeap();
+        List<BlogSummary> objects = new ArrayList<>(blogs);
+        random = new Random(14);
+        for (int id = 1; id <= blogs; id++) {
+            objects.add(summary(random, id));
+        }
+        long objectBytes = usedHeap() - before;
+
+        CatalogQuery query = new CatalogQuery();
+        query.setPublished(true);
+        query.setCategory("category3");
+        query.setLimit(20);
+        assertThat(catalog.size()).isEqualTo(blogs);
+        assertThat(catalog.query(query)).hasSize(20);
+        assertThat(objects).hasSize(blogs);
+        System.out.println(String.format("Catalog footprint: %.1f MB per 100k blogs measured, %.1f MB estimated by getStats(); "
+                        + "the same rows as BlogSummary objects %.1f MB",
+                catalogBytes / 1048576.0, ((Number) catalog.getStats().get("estimatedBytes")).longValue() / 1048576.0,
+                objectBytes / 1048576.0));
+    }
+
+    // 60-character titles, 40-character slugs and two tags, as in BlogCatalog's estimate
+    private static BlogSummary summary(Random random, int id) {
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(id);
+        BlogSummary summary = new BlogSummary();
+        summary.setId((long) id);
+        String title = text(random, 60);
+        summary.setTitle(title);
+        summary.setSlug(title.substring(0, 40).replace(' ', '-'));
+        summary.setStatus(random.nextInt(4) == 0 ? "DRAFT" : "PUBLISHED");
+        summary.setPublished(!"DRAFT".equals(summary.getStatus()));
+        summary.setCategory("category" + random.nextInt(20));
+        summary.setTags(new ArrayList<>(List.of(word(random), word(random))));
+        summary.setAuthorName("author" + random.nextInt(500));
+        summary.setCreatedAt(created);
+        summary.setUpdatedAt(created);
+        summary.setViews((long) random.nextInt(10_000));
+        return summary;
+    }
+
+    // Heap in use once garbage collection has settled
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+        }
+        return used;
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder text = new StringBuilder(length + 10);
+        while (text.length() < length) text.append(word(random)).append(' ');
+        return text.substring(0, length);
+    }
+
+    // What highlighting looked like before the snippet store: strip tags, split sentences, pick the
+    // sentence with the most query words and wrap them, all with regexes over the whole content
+    private static String regexSnippet(String content, String[] query, int maxLength) {
+        String text = content.replaceAll("<[^>]+>", " ").replaceAll("\\s+", " ").trim();
+        String[] sentences = text.split("(?<=[.!?])\\s+");
+        String best = sentences[0];
+        int bestMatches = 0;
+        for (String sentence : sentences) {
+            int matches = 0;
+            for (String word : query) {
+                Matcher matcher = Pattern.compile("\\b" + Pattern.quote(word) + "\\b", Pattern.CASE_INSENSITIVE).matcher(sentence);
+                while (matcher.find()) matches++;
+            }
+            if (matches > bestMatches) {
+                best = sentence;
+                bestMatches = matches;
+            }
+        }
+        if (best.length() > maxLength) best = best.substring(0, maxLength);
+        for (String word : query) {
+            best = best.replaceAll("(?i)\\b(" + Pattern.quote(word) + ")\\b", "<mark>$1</mark>");
+        }
+        return best;
+    }
+
+    interface Round {
+        int run(int round);
+    }
+
+    // {elapsed nanos, allocated bytes, sum of the round results}; the rounds run once first as warm-up
+    private static long[] measure(int rounds, Round body) {
+        for (int round = 0; round < rounds; round++) body.run(round);
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        long total = 0;
+        for (int round = 0; round < rounds; round++) total += body.run(round);
+        return new long[]{System.nanoTime() - start, THREADS.getThreadAllocatedBytes(threadId) - bytesBefore, total};
+    }
+
+    private static void report(String name, String subject, int rounds, long[] result, String baseline, long[] baselineResult) {
+        System.out.println(String.format("%s: %s %.1f us and %d KB allocated per round; %s %.1f us and %d KB (%.1fx slower)",
+                name, subject, result[0] / 1e3 / rounds, result[1] / 1024 / rounds,
+                baseline, baselineResult[0] / 1e3 / rounds, baselineResult[1] / 1024 / rounds,
+                (double) baselineResult[0] / result[0]));
+    }
+
+    // Paragraphs of sentences with some inline markup, words drawn with a skew towards the common ones
+    private static String markup(Random random, int sentences) {
+        StringBuilder text = new StringBuilder();
+        for (int s = 0; s < sentences; s++) {
+            if (s % 10 == 0) text.append("<p>");
+            int words = 6 + random.nextInt(14);
+            for (int w = 0; w < words; w++) {
+                String word = word(random);
+                if (w == 0) word = Character.toUpperCase(word.charAt(0)) + word.substring(1);
+                text.append(random.nextInt(30) == 0 ? "<b>" + word + "</b>" : word).append(w == words - 1 ? "" : " ");
+            }
+            text.append(random.nextInt(8) == 0 ? "? " : ". ");
+            if (s % 10 == 9) text.append("</p>\n");
+        }
+        return text.toString();
+    }
+
+    private static String word(Random random) {
+        double skewed = Math.pow(random.nextDouble(), 3);
+        return VOCABULARY[(int) (skewed * VOCABULARY.length)];
+    }
+
+    private static String[] buildVocabulary(int size) {
+        Random random = new Random(2000);
+        List<String> words = new ArrayList<>(size);
+        String letters = "abcdefghijklmnopqrstuvwxyz";
+        while (words.size() < size) {
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(7);
+            for (int i = 0; i < length; i++) word.append(letters.charAt(random.nextInt(letters.length())));
+            if (!words.contains(word.toString())) words.add(word.toString());
+        }
+        return words.toArray(new String[0]);
+    }
+}
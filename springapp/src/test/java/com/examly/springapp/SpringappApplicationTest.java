@@ -1,13 +1,34 @@
 package com.examly.springapp;
+import com.examly.springapp.config.ReadWriteRoutingDataSource;
 import com.examly.springapp.model.Blog;
+import com.examly.springapp.model.BlogSlugAlias;
 import com.examly.springapp.model.Comment;
 import com.examly.springapp.model.Report;
 import com.examly.springapp.repository.BlogRepository;
+import com.examly.springapp.repository.BlogSlugAliasRepository;
 import com.examly.springapp.repository.CommentRepository;
 import com.examly.springapp.repository.ReportRepository;
+import com.examly.springapp.scheduling.TimerWheel;
+import com.examly.springapp.search.FacetCount;
+import com.examly.springapp.search.PrefixSuggester;
+import com.examly.springapp.search.SearchDocument;
+import com.examly.springapp.search.ShardedSearchIndex;
+import com.examly.springapp.search.Suggestion;
+import com.examly.springapp.service.BlogCacheService;
+import com.examly.springapp.service.BlogChangedEvent;
+import com.examly.springapp.service.BlogRevisionService;
+import com.examly.springapp.service.BlogSearchService;
 import com.examly.springapp.service.BlogService;
 import com.examly.springapp.service.CommentService;
+import com.examly.springapp.service.PublishScheduler;
+import com.examly.springapp.service.RelatedPostsService;
 import com.examly.springapp.service.ReportService;
+import com.examly.springapp.service.SingleFlight;
+import com.examly.springapp.service.SlugService;
+import com.examly.springapp.service.SEOService;
+import com.examly.springapp.service.ViewCounterService;
+import com.examly.springapp.text.TextAnalysis;
+import com.examly.springapp.text.TextAnalyzer;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -15,12 +36,34 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -49,6 +92,39 @@ public class SpringappApplicationTest {
     @Autowired
     private ReportService reportService;
 
+    @Autowired
+    private ViewCounterService viewCounterService;
+
+    @Autowired
+    private BlogSearchService blogSearchService;
+
+    @Autowired
+    private RelatedPostsService relatedPostsService;
+
+    @Autowired
+    private BlogRevisionService revisionService;
+
+    @Autowired
+    private PublishScheduler publishScheduler;
+
+    @Autowired
+    private SEOService seoService;
+
+    @Autowired
+    private SlugService slugService;
+
+    @Autowired
+    private BlogSlugAliasRepository aliasRepo;
+
+    @Autowired
+    private BlogCacheService blogCacheService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -57,6 +133,8 @@ public class SpringappApplicationTest {
     @BeforeEach
     public void setup() {
         commentRepo.deleteAll();
+        // Through the service so in-memory indexes drop the blogs too
+        blogRepo.findAll().forEach(blog -> blogService.deleteBlog(blog.getId()));
         blogRepo.deleteAll();
         reportRepo.deleteAll();
 
@@ -172,5 +250,939 @@ public class SpringappApplicationTest {
         assertThat(blogs).hasSize(1);
         assertThat(blogs.get(0).getTitle()).isEqualTo("Test Blog");
     }   
-}
 
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_ViewsAreBufferedAndFlushedInBatch() throws Exception {
+        viewCounterService.flush();
+        mockMvc.perform(get("/api/blogs/" + testBlog.getId())).andExpect(status().isOk());
+        mockMvc.perform(post("/api/blogs/" + testBlog.getId() + "/view")).andExpect(status().isOk());
+        // An editor reloading its own copy is not a reader
+        mockMvc.perform(get("/api/blogs/" + testBlog.getId()).param("view", "false")).andExpect(status().isOk());
+
+        assertThat(blogRepo.findById(testBlog.getId()).get().getViews()).isEqualTo(0L);
+        assertThat(viewCounterService.getPendingViews(testBlog.getId())).isEqualTo(2L);
+
+        viewCounterService.flush();
+        assertThat(blogRepo.findById(testBlog.getId()).get().getViews()).isEqualTo(2L);
+        assertThat(viewCounterService.getPendingViews(testBlog.getId())).isEqualTo(0L);
+
+        // A view that arrives after the blog's delete leaves a counter the next flush drops
+        Long deletedId = testBlog.getId();
+        blogService.deleteBlog(deletedId);
+        Object tracked = viewCounterService.getMetrics().get("trackedBlogs");
+        viewCounterService.recordView(deletedId);
+        viewCounterService.flush();
+        assertThat(viewCounterService.getMetrics().get("trackedBlogs")).isEqualTo(tracked);
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_KeysetPaginationWalksAllBlogs() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            Blog blog = new Blog();
+            blog.setTitle("Paged Blog " + i);
+            blog.setContent("Paged content " + i);
+            blog.setCategory("paging");
+            blogService.createBlog(blog);
+        }
+
+        String first = mockMvc.perform(get("/api/blogs/page").param("size", "3").param("category", "paging"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(3))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(first).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/blogs/page").param("size", "3").param("category", "paging").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        mockMvc.perform(get("/api/blogs/page").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_PageReturnsSummariesWithoutContent() throws Exception {
+        Blog blog = new Blog();
+        blog.setTitle("Long Blog");
+        blog.setContent("word ".repeat(5000));
+        blog.setTags(List.of("long"));
+        blogService.createBlog(blog);
+
+        int fullBytes = mockMvc.perform(get("/api/blogs"))
+                .andReturn().getResponse().getContentAsByteArray().length;
+        byte[] summaryBytes = mockMvc.perform(get("/api/blogs/page"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Long Blog"))
+                .andExpect(jsonPath("$.items[0].tags[0]").value("long"))
+                .andExpect(jsonPath("$.items[0].content").doesNotExist())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(summaryBytes.length * 10).isLessThan(fullBytes);
+
+        // Excerpts are marked only when the body goes on past them
+        Blog exact = new Blog();
+        exact.setTitle("Exact Blog");
+        exact.setContent("\u00e9".repeat(195) + " tail");
+        blogService.createBlog(exact);
+        Blog boundary = new Blog();
+        boundary.setTitle("Boundary Blog");
+        boundary.setContent("z".repeat(195) + " tail more");
+        blogService.createBlog(boundary);
+        Blog spaced = new Blog();
+        spaced.setTitle("Spaced Blog");
+        spaced.setContent("lead" + " ".repeat(300) + "rest");
+        blogService.createBlog(spaced);
+        mockMvc.perform(get("/api/blogs/page"))
+                .andExpect(jsonPath("$.items[0].excerpt").value("lead..."))
+                .andExpect(jsonPath("$.items[1].excerpt").value("z".repeat(195) + " tail..."))
+                .andExpect(jsonPath("$.items[2].excerpt").value("\u00e9".repeat(195) + " tail"))
+                .andExpect(jsonPath("$.items[3].excerpt").value("word ".repeat(40).trim() + "..."));
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_CachedBlogIsEvictedOnUpdate() throws Exception {
+        mockMvc.perform(get("/api/blogs/" + testBlog.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/blogs/" + testBlog.getId()))
+                .andExpect(jsonPath("$.title").value("Test Blog"));
+
+        Blog changes = new Blog();
+        changes.setTitle("Renamed Blog");
+        blogService.updateBlog(testBlog.getId(), changes);
+
+        mockMvc.perform(get("/api/blogs/" + testBlog.getId()))
+                .andExpect(jsonPath("$.title").value("Renamed Blog"));
+        mockMvc.perform(get("/api/blogs/metrics"))
+                .andExpect(jsonPath("$.cache.hits").isNumber())
+                .andExpect(jsonPath("$.cache.invalidations").isNumber());
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_SlugsAreUniqueAndOldSlugsRedirect() throws Exception {
+        Blog first = new Blog();
+        first.setTitle("Slug Story");
+        first = blogService.createBlog(first);
+        Blog second = new Blog();
+        second.setTitle("Slug Story");
+        second = blogService.createBlog(second);
+
+        assertThat(first.getSlug()).isEqualTo("slug-story");
+        assertThat(second.getSlug()).isEqualTo("slug-story-2");
+
+        Blog changes = new Blog();
+        changes.setTitle("Slug Story Revised");
+        blogService.updateBlog(first.getId(), changes);
+
+        mockMvc.perform(get("/api/blogs/by-slug/slug-story-revised"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(first.getId()));
+        mockMvc.perform(get("/api/blogs/by-slug/slug-story"))
+                .andExpect(status().isMovedPermanently())
+                .andExpect(header().string("Location", "/api/blogs/by-slug/slug-story-revised"));
+        mockMvc.perform(get("/api/blogs/by-slug/no-such-slug"))
+                .andExpect(status().isNotFound());
+        // Following an alias is not a read; only its target counts one
+        viewCounterService.flush();
+        mockMvc.perform(get("/api/blogs/by-slug/slug-story")).andExpect(status().isMovedPermanently());
+        assertThat(viewCounterService.getPendingViews(first.getId())).isEqualTo(0);
+
+        // A rename that rolls back leaves no slug behind
+        Long firstId = first.getId();
+        new TransactionTemplate(transactionManager).execute(status -> {
+            Blog rename = new Blog();
+            rename.setTitle("Never Committed");
+            blogService.updateBlog(firstId, rename);
+            status.setRollbackOnly();
+            return null;
+        });
+        assertThat(blogService.resolveSlug("never-committed")).isNull();
+        assertThat(blogService.resolveSlug("slug-story-revised").getBlogId()).isEqualTo(firstId);
+
+        // Renamed by another node: the row and alias change, this node's map does not
+        blogRepo.updateSlug(second.getId(), "slug-story-elsewhere");
+        aliasRepo.save(new BlogSlugAlias("slug-story-2", second.getId()));
+        blogCacheService.evict(second.getId());
+        mockMvc.perform(get("/api/blogs/by-slug/slug-story-2"))
+                .andExpect(status().isMovedPermanently())
+                .andExpect(header().string("Location", "/api/blogs/by-slug/slug-story-elsewhere"));
+
+        // Rows from before slugs were required get one at startup
+        assertThat(testBlog.getSlug()).isNull();
+        assertThat(slugService.backfill()).isEqualTo(1);
+        assertThat(blogRepo.findById(testBlog.getId()).orElseThrow().getSlug()).isEqualTo("test-blog");
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_ConditionalGetReturnsNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/blogs/" + testBlog.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).isNotNull();
+
+        mockMvc.perform(get("/api/blogs/" + testBlog.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().stringValues("ETag", etag));
+
+        Blog changes = new Blog();
+        changes.setContent("Changed content");
+        blogService.updateBlog(testBlog.getId(), changes);
+        List<String> newEtags = mockMvc.perform(get("/api/blogs/" + testBlog.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeaders("ETag");
+        assertThat(newEtags).hasSize(1).doesNotContain(etag);
+
+        // Flushed views change the body without a new version, so they change the tag too
+        etag = newEtags.get(0);
+        viewCounterService.flush();
+        blogCacheService.evict(testBlog.getId());
+        mockMvc.perform(get("/api/blogs/" + testBlog.getId()).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.views").value(2))
+                .andExpect(header().string("ETag", not(etag)));
+
+        String commentsEtag = mockMvc.perform(get("/api/comments/" + testBlog.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/comments/" + testBlog.getId()).header("If-None-Match", commentsEtag))
+                .andExpect(status().isNotModified());
+        commentService.createComment(testBlog.getId(), "First!");
+        mockMvc.perform(get("/api/comments/" + testBlog.getId()).header("If-None-Match", commentsEtag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].blogId").value(testBlog.getId()))
+                .andExpect(jsonPath("$[0].blog").doesNotExist());
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_SearchRanksStemmedMatchesAndFollowsDeletes() throws Exception {
+        Blog titled = new Blog();
+        titled.setTitle("Deploying Kubernetes clusters");
+        titled.setContent("A walkthrough of cluster setup.");
+        titled = blogService.createBlog(titled);
+        Blog mentioned = new Blog();
+        mentioned.setTitle("Weekly notes");
+        mentioned.setContent("We also deployed a small kubernetes cluster this week.");
+        mentioned = blogService.createBlog(mentioned);
+
+        mockMvc.perform(get("/api/blogs/search").param("q", "kubernetes deploy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.hits[0].blog.id").value(titled.getId()))
+                .andExpect(jsonPath("$.hits[1].blog.id").value(mentioned.getId()));
+
+        blogService.deleteBlog(titled.getId());
+        mockMvc.perform(get("/api/blogs/search").param("q", "kubernetes"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.hits[0].blog.id").value(mentioned.getId()));
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_SearchReturnsFacetCountsForFilteredResults() throws Exception {
+        String[][] posts = {{"Java streams", "tech", "java"}, {"Java records", "tech", "java"}, {"Java island trip", "travel", "island"}};
+        for (String[] post : posts) {
+            Blog blog = new Blog();
+            blog.setTitle(post[0]);
+            blog.setContent("Notes about " + post[0]);
+            blog.setCategory(post[1]);
+            blog.setTags(List.of(post[2]));
+            blogService.createBlog(blog);
+        }
+
+        mockMvc.perform(get("/api/blogs/search").param("q", "java"))
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.facets.category[0].value").value("tech"))
+                .andExpect(jsonPath("$.facets.category[0].count").value(2))
+                .andExpect(jsonPath("$.facets.category[1].count").value(1));
+
+        mockMvc.perform(get("/api/blogs/search").param("q", "java").param("category", "tech"))
+                .andExpect(jsonPath("$.total").value(2))
+                .andExpect(jsonPath("$.facets.tag[0].value").value("java"))
+                .andExpect(jsonPath("$.facets.tag.length()").value(1));
+
+        // "common" leads overall but only shard 0 has it among its top values; the other shards
+        // each carry more popular local tags than their candidate list holds
+        ShardedSearchIndex sharded = new ShardedSearchIndex(4, 2);
+        long nextId = 0;
+        for (int shard = 0; shard < 4; shard++) {
+            List<String> locals = new ArrayList<>();
+            for (int j = 0; j < 12; j++) locals.add("s" + shard + "-local" + j);
+            for (int k = 0; k < 2; k++) {
+                sharded.index(new SearchDocument(shard + 4 * nextId++, "Facet post", "", locals, null, null, null));
+            }
+            int commons = shard == 0 ? 3 : 1;
+            for (int k = 0; k < commons; k++) {
+                sharded.index(new SearchDocument(shard + 4 * nextId++, "Facet post", "", List.of("common"), null, null, null));
+            }
+        }
+        List<FacetCount> tags = sharded.search("facet", 5, null, null, 1).getFacets().get("tag");
+        assertThat(tags).hasSize(1);
+        assertThat(tags.get(0).getValue()).isEqualTo("common");
+        assertThat(tags.get(0).getCount()).isEqualTo(6);
+
+        // Ordinals survive compaction: dropping shard 1's "common" post leaves five
+        sharded.remove(1 + 4 * 7);
+        assertThat(sharded.compact(0.01)).isEqualTo(1);
+        tags = sharded.search("facet", 5, null, null, 1).getFacets().get("tag");
+        assertThat(tags.get(0).getValue()).isEqualTo("common");
+        assertThat(tags.get(0).getCount()).isEqualTo(5);
+        sharded.shutdown();
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_SuggestRanksPrefixMatchesByPopularity() throws Exception {
+        Blog basics = new Blog();
+        basics.setTitle("Zephyr basics");
+        basics.setContent("Getting started.");
+        basics.setViews(5L);
+        basics.setTags(List.of("zephyrjs"));
+        basics = blogService.createBlog(basics);
+        Blog advanced = new Blog();
+        advanced.setTitle("Zephyr advanced");
+        advanced.setContent("Going further.");
+        advanced.setViews(50L);
+        advanced = blogService.createBlog(advanced);
+
+        mockMvc.perform(get("/api/suggest").param("prefix", "ZEPH"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.suggestions.length()").value(3))
+                .andExpect(jsonPath("$.suggestions[0].text").value("Zephyr advanced"))
+                .andExpect(jsonPath("$.suggestions[0].blogId").value(advanced.getId()))
+                .andExpect(jsonPath("$.suggestions[2].type").value("TITLE"));
+
+        Blog renamed = new Blog();
+        renamed.setTitle("Gusts and breezes");
+        blogService.updateBlog(advanced.getId(), renamed);
+        mockMvc.perform(get("/api/suggest").param("prefix", "zephyr"))
+                .andExpect(jsonPath("$.suggestions.length()").value(2))
+                .andExpect(jsonPath("$.suggestions[0].text").value("zephyrjs"))
+                .andExpect(jsonPath("$.suggestions[1].blogId").value(basics.getId()));
+        mockMvc.perform(get("/api/suggest").param("prefix", "gust"))
+                .andExpect(jsonPath("$.suggestions[0].text").value("Gusts and breezes"));
+
+        // Edges are split where keys diverge, prefixes may end inside an edge, and removals
+        // join what is left back into single edges
+        PrefixSuggester trie = new PrefixSuggester(2);
+        Suggestion tea = new Suggestion(Suggestion.Type.TAG, "tea", null, 5);
+        Suggestion team = new Suggestion(Suggestion.Type.TAG, "team", null, 9);
+        Suggestion teapot = new Suggestion(Suggestion.Type.TAG, "teapot", null, 7);
+        Suggestion toast = new Suggestion(Suggestion.Type.TAG, "toast", null, 1);
+        for (Suggestion suggestion : List.of(teapot, tea, team, toast)) trie.put(suggestion);
+        assertThat(trie.suggest("t", 10)).extracting(Suggestion::getText).containsExactly("team", "teapot");
+        assertThat(trie.suggest("teap", 10)).extracting(Suggestion::getText).containsExactly("teapot");
+        assertThat(trie.suggest("tea", 10)).extracting(Suggestion::getText).containsExactly("team", "teapot");
+        assertThat(trie.suggest("teax", 10)).isEmpty();
+        trie.remove(team);
+        trie.remove(tea);
+        assertThat(trie.suggest("te", 10)).extracting(Suggestion::getText).containsExactly("teapot");
+        assertThat(trie.suggest("t", 10)).extracting(Suggestion::getText).containsExactly("teapot", "toast");
+        trie.put(tea);
+        assertThat(trie.suggest("tea", 10)).extracting(Suggestion::getText).containsExactly("teapot", "tea");
+        assertThat(trie.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_SearchCorrectsMisspelledQueries() throws Exception {
+        Blog blog = new Blog();
+        blog.setTitle("Writing Terraform providers");
+        blog.setContent("Controllers that reconcile custom resources.");
+        blog.setTags(List.of("golang"));
+        blog = blogService.createBlog(blog);
+
+        mockMvc.perform(get("/api/blogs/search").param("q", "terrafrom golnag"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.correctedQuery").value("terraform golang"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.hits[0].blog.id").value(blog.getId()));
+
+        mockMvc.perform(get("/api/blogs/search").param("q", "terrafrom").param("mode", "exact"))
+                .andExpect(jsonPath("$.total").value(0))
+                .andExpect(jsonPath("$.correctedQuery").doesNotExist());
+
+        // The blog's words leave the vocabulary with it
+        blogService.deleteBlog(blog.getId());
+        mockMvc.perform(get("/api/blogs/search").param("q", "terrafrom golnag"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.correctedQuery").doesNotExist());
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_SearchHitsCarryHighlightedSnippets() throws Exception {
+        Blog blog = new Blog();
+        blog.setTitle("Build tooling notes");
+        blog.setContent("Some intro about tooling. Cached <b>Gradle</b> builds save minutes! Closing words & thanks.");
+        blogService.createBlog(blog);
+
+        mockMvc.perform(get("/api/blogs/search").param("q", "gradle caching"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits[0].snippet")
+                        .value("<mark>Cached</mark> <mark>Gradle</mark> builds save minutes! Closing words &amp; thanks."));
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_SearchShardsSurviveBackgroundCompaction() throws Exception {
+        Blog blog = new Blog();
+        blog.setTitle("Flamegraph basics");
+        blog.setContent("Reading profiles.");
+        blog = blogService.createBlog(blog);
+        for (int i = 1; i <= 3; i++) {
+            Blog edit = new Blog();
+            edit.setContent("Reading profiles, revision " + i + ".");
+            blogService.updateBlog(blog.getId(), edit);
+        }
+
+        blogSearchService.compactShards();
+        assertThat(((Number) blogSearchService.getStats().get("deletedDocuments")).longValue()).isZero();
+        mockMvc.perform(get("/api/blogs/search").param("q", "flamegraph"))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.hits[0].blog.id").value(blog.getId()))
+                .andExpect(jsonPath("$.hits[0].snippet").value("Reading profiles, revision 3."));
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_SearchCacheIsInvalidatedByBlogWrites() throws Exception {
+        Blog first = new Blog();
+        first.setTitle("Observability primer");
+        first.setContent("Metrics and traces.");
+        blogService.createBlog(first);
+
+        for (String query : List.of("Observability", "  observability!", "OBSERVABILITY")) {
+            mockMvc.perform(get("/api/blogs/search").param("q", query))
+                    .andExpect(jsonPath("$.total").value(1));
+        }
+        Blog second = new Blog();
+        second.setTitle("Observability in production");
+        second.setContent("Dashboards.");
+        blogService.createBlog(second);
+        mockMvc.perform(get("/api/blogs/search").param("q", "observability"))
+                .andExpect(jsonPath("$.total").value(2));
+
+        mockMvc.perform(get("/api/blogs/search/popular"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queries[0].query").value("observability"))
+                .andExpect(jsonPath("$.queries[0].count").value(4));
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_CatalogListsSortsAndTracksFlushedViews() throws Exception {
+        Long[] ids = new Long[3];
+        for (int i = 0; i < 3; i++) {
+            Blog blog = new Blog();
+            blog.setTitle("Catalog post " + i);
+            blog.setContent("Body " + i);
+            blog.setViews((long) (i * 10));
+            blog.setTags(List.of("catalog-test"));
+            ids[i] = blogService.createBlog(blog).getId();
+        }
+
+        String cursor = objectMapper.readTree(mockMvc.perform(get("/api/blogs/catalog")
+                        .param("tag", "catalog-test").param("sort", "views").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(ids[2]))
+                .andExpect(jsonPath("$.items[1].id").value(ids[1]))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andReturn().getResponse().getContentAsString()).get("nextCursor").asText();
+        mockMvc.perform(get("/api/blogs/catalog").param("tag", "catalog-test").param("sort", "views").param("cursor", cursor))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(ids[0]))
+                .andExpect(jsonPath("$.hasMore").value(false));
+
+        // Loaded before the flush, like the entity of a save that commits after it
+        Blog stale = blogService.peekBlog(ids[0]);
+        for (int i = 0; i < 25; i++) {
+            blogService.incrementViews(ids[0]);
+        }
+        viewCounterService.flush();
+        eventPublisher.publishEvent(BlogChangedEvent.saved(stale));
+        mockMvc.perform(get("/api/blogs/catalog").param("tag", "catalog-test").param("sort", "views").param("size", "1"))
+                .andExpect(jsonPath("$.items[0].id").value(ids[0]))
+                .andExpect(jsonPath("$.items[0].views").value(25));
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_FilterExpressionsNarrowCatalogAndSearch() throws Exception {
+        Object[][] posts = {{"Bitmap java", "bitmaps", "java", true}, {"Bitmap kotlin", "bitmaps", "kotlin", true},
+                {"Bitmap java draft", "bitmaps", "java", false}, {"Bitmap travel", "travel", "java", true}};
+        Long[] ids = new Long[posts.length];
+        for (int i = 0; i < posts.length; i++) {
+            Blog blog = new Blog();
+            blog.setTitle((String) posts[i][0]);
+            blog.setContent("Roaring notes");
+            blog.setCategory((String) posts[i][1]);
+            blog.setTags(List.of((String) posts[i][2]));
+            blog.setPublished((Boolean) posts[i][3]);
+            ids[i] = blogService.createBlog(blog).getId();
+        }
+
+        mockMvc.perform(get("/api/blogs/catalog").param("filter", "category:bitmaps AND (tag:java OR tag:kotlin) AND published"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].id").value(ids[1]))
+                .andExpect(jsonPath("$.items[1].id").value(ids[0]));
+        mockMvc.perform(get("/api/blogs/catalog").param("filter", "tag:java AND NOT category:bitmaps"))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].id").value(ids[3]));
+
+        mockMvc.perform(get("/api/blogs/search").param("q", "roaring").param("filter", "NOT published OR tag:kotlin"))
+                .andExpect(jsonPath("$.total").value(2));
+        mockMvc.perform(get("/api/blogs/catalog").param("filter", "category:bitmaps AND ("))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_LeaderboardsFollowViewsAndComments() throws Exception {
+        Long[] ids = new Long[3];
+        for (int i = 0; i < ids.length; i++) {
+            Blog blog = new Blog();
+            blog.setTitle("Ranked post " + i);
+            blog.setContent("Ranked body");
+            blog.setCategory(i < 2 ? "ranked" : "other");
+            blog.setViews((long) (i + 1) * 10);
+            ids[i] = blogService.createBlog(blog).getId();
+        }
+
+        mockMvc.perform(get("/api/analytics/leaderboard/views").param("category", "ranked"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].blogId").value(ids[1]))
+                .andExpect(jsonPath("$.items[0].views").value(20));
+
+        // Loaded before the flush, like the entity of a save that commits after it
+        Blog stale = blogService.peekBlog(ids[0]);
+        for (int i = 0; i < 15; i++) {
+            blogService.incrementViews(ids[0]);
+        }
+        viewCounterService.flush();
+        eventPublisher.publishEvent(BlogChangedEvent.saved(stale));
+        commentService.createComment(ids[2], "First");
+        commentService.createComment(ids[2], "Second");
+        commentService.createComment(ids[0], "Only");
+
+        mockMvc.perform(get("/api/analytics/leaderboard/views").param("category", "ranked").param("limit", "1"))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].blogId").value(ids[0]))
+                .andExpect(jsonPath("$.items[0].views").value(25));
+        mockMvc.perform(get("/api/analytics/leaderboard/comments"))
+                .andExpect(jsonPath("$.items[0].blogId").value(ids[2]))
+                .andExpect(jsonPath("$.items[0].comments").value(2))
+                .andExpect(jsonPath("$.items[1].blogId").value(ids[0]));
+
+        blogService.deleteBlog(ids[1]);
+        mockMvc.perform(get("/api/analytics/leaderboard/views").param("category", "ranked"))
+                .andExpect(jsonPath("$.items.length()").value(1));
+        mockMvc.perform(get("/api/analytics/leaderboard/shares"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_TrendingRanksRecentActivity() throws Exception {
+        Long[] ids = new Long[3];
+        for (int i = 0; i < ids.length; i++) {
+            Blog blog = new Blog();
+            blog.setTitle("Trending post " + i);
+            blog.setContent("Trending body");
+            blog.setPublished(i < 2);
+            blog.setViews(1000L);
+            ids[i] = blogService.createBlog(blog).getId();
+        }
+
+        for (int i = 0; i < 3; i++) {
+            blogService.incrementViews(ids[0]);
+        }
+        viewCounterService.flush();
+        mockMvc.perform(post("/api/blogs/" + ids[1] + "/share")).andExpect(status().isOk());
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(post("/api/blogs/" + ids[2] + "/share")).andExpect(status().isOk());
+        }
+        mockMvc.perform(post("/api/blogs/999999/share")).andExpect(status().isNotFound());
+
+        // The unpublished blog has the most activity but is not listed
+        mockMvc.perform(get("/api/blogs/trending"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].blog.id").value(ids[1]))
+                .andExpect(jsonPath("$.items[1].blog.id").value(ids[0]));
+
+        commentService.createComment(ids[0], "Hot take");
+        commentService.createComment(ids[0], "Agreed");
+        mockMvc.perform(get("/api/blogs/trending").param("limit", "1"))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].blog.id").value(ids[0]));
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_RelatedPostsFollowSavesAndDeletes() throws Exception {
+        String[][] posts = {{"Scaling kubernetes clusters", "Kubernetes pods and container scheduling", "devops"},
+                {"Kubernetes operators", "Writing operators that schedule container pods", "devops"},
+                {"Sourdough at home", "Bread baking with a starter and a hot oven", "food"},
+                {"Kubernetes draft", "Unfinished notes on kubernetes pods", "devops"}};
+        Long[] ids = new Long[posts.length];
+        for (int i = 0; i < posts.length; i++) {
+            Blog blog = new Blog();
+            blog.setTitle(posts[i][0]);
+            blog.setContent(posts[i][1]);
+            blog.setCategory(posts[i][2]);
+            blog.setPublished(i < 3);
+            ids[i] = blogService.createBlog(blog).getId();
+        }
+
+        assertThat(relatedPostsService.awaitUpdates(5000)).isTrue();
+        mockMvc.perform(get("/api/blogs/" + ids[0] + "/related"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].blogId").value(ids[1]))
+                .andExpect(jsonPath("$.items[0].title").value("Kubernetes operators"));
+
+        Blog rewritten = blogRepo.findById(ids[2]).orElseThrow();
+        rewritten.setTitle("Kubernetes for bakers");
+        rewritten.setContent("Scheduling pods between batches of bread");
+        blogService.updateBlog(ids[2], rewritten);
+        assertThat(relatedPostsService.awaitUpdates(5000)).isTrue();
+        mockMvc.perform(get("/api/blogs/" + ids[0] + "/related"))
+                .andExpect(jsonPath("$.items.length()").value(2));
+        // A full rebuild agrees with the incremental updates
+        relatedPostsService.rebuild();
+        mockMvc.perform(get("/api/blogs/" + ids[0] + "/related"))
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].blogId").value(ids[1]));
+
+        // "operators", "writing" and "schedule" appear only in the deleted post, so their term ids are reclaimed
+        int terms = (Integer) relatedPostsService.getStats().get("terms");
+        blogService.deleteBlog(ids[1]);
+        assertThat(relatedPostsService.awaitUpdates(5000)).isTrue();
+        mockMvc.perform(get("/api/blogs/" + ids[0] + "/related"))
+                .andExpect(jsonPath("$.items.length()").value(1))
+                .andExpect(jsonPath("$.items[0].blogId").value(ids[2]));
+        assertThat((Integer) relatedPostsService.getStats().get("terms")).isEqualTo(terms - 3);
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_ConcurrentLoadsShareOneFetch() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>(5000);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger fetches = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> flight.load(1L, () -> {
+                    fetches.incrementAndGet();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return "blog-1";
+                })));
+            }
+            // Every caller but the leader is waiting on the shared load before it completes
+            long deadline = System.currentTimeMillis() + 5000;
+            while (((Number) flight.getStats().get("coalesced")).longValue() < 7 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("blog-1");
+            }
+            assertThat(fetches.get()).isEqualTo(1);
+            assertThat(flight.getStats().get("coalesced")).isEqualTo(7L);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThatThrownBy(() -> flight.load(2L, () -> {
+            throw new IllegalStateException("database down");
+        })).hasMessage("database down");
+        assertThat(flight.getStats().get("failures")).isEqualTo(1L);
+
+        mockMvc.perform(get("/api/blogs/" + testBlog.getId())).andExpect(status().isOk());
+        mockMvc.perform(get("/api/blogs/metrics"))
+                .andExpect(jsonPath("$.cache.blogLoads.loads").isNumber());
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_ReadOnlyTransactionsRouteToReplicas() {
+        DriverManagerDataSource primary = new DriverManagerDataSource("jdbc:h2:mem:route-primary;DB_CLOSE_DELAY=-1", "sa", "");
+        DriverManagerDataSource replica = new DriverManagerDataSource("jdbc:h2:mem:route-replica;DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(primary).execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        new JdbcTemplate(primary).update("INSERT INTO node VALUES ('primary')");
+        new JdbcTemplate(replica).execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+        new JdbcTemplate(replica).update("INSERT INTO node VALUES ('replica')");
+
+        AtomicReference<String> client = new AtomicReference<>("alice");
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, List.of(replica), 60000, client::get);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        TransactionTemplate reads = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        reads.setReadOnly(true);
+        TransactionTemplate writes = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        TransactionCallback<String> node = status -> jdbc.queryForObject("SELECT name FROM node", String.class);
+
+        assertThat(reads.execute(node)).isEqualTo("replica");
+        assertThat(writes.execute(node)).isEqualTo("primary");
+        // alice has written, so her reads stay on the primary; bob's still go to the replica
+        assertThat(reads.execute(node)).isEqualTo("primary");
+        client.set("bob");
+        assertThat(reads.execute(node)).isEqualTo("replica");
+        assertThat(ReadWriteRoutingDataSource.onPrimary(() -> reads.execute(node))).isEqualTo("primary");
+        assertThat(routing.getStats().get("stickyRoutes")).isEqualTo(1L);
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_FeedsAndSitemapsServePublishedBlogs() throws Exception {
+        Long[] ids = new Long[3];
+        for (int i = 0; i < ids.length; i++) {
+            Blog blog = new Blog();
+            blog.setTitle("Feed post " + i);
+            blog.setContent("Body of feed post " + i);
+            blog.setPublished(i < 2);
+            ids[i] = blogService.createBlog(blog).getId();
+        }
+
+        String lastModified = mockMvc.perform(get("/feed/rss.xml"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/rss+xml"))
+                .andExpect(content().string(containsString("<title>Feed post 1</title>")))
+                .andExpect(content().string(not(containsString("Feed post 2"))))
+                .andReturn().getResponse().getHeader("Last-Modified");
+        assertThat(lastModified).isNotNull();
+        mockMvc.perform(get("/feed/rss.xml").header("If-Modified-Since", lastModified))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/feed/atom.xml"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("/blog/" + ids[0] + "</id>")));
+
+        mockMvc.perform(get("/sitemap.xml"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("/sitemap-0.xml</loc>")));
+        mockMvc.perform(get("/sitemap-0.xml"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("/blog/" + ids[1] + "</loc>")))
+                .andExpect(content().string(not(containsString("/blog/" + ids[2] + "</loc>"))));
+        mockMvc.perform(get("/sitemap-99.xml")).andExpect(status().isNotFound());
+
+        // Publishing the draft retires the cached segment and feeds
+        Blog draft = new Blog();
+        draft.setTitle("Feed post 2");
+        draft.setContent("Body of feed post 2");
+        draft.setPublished(true);
+        blogService.updateBlog(ids[2], draft);
+        mockMvc.perform(get("/sitemap-0.xml"))
+                .andExpect(content().string(containsString("/blog/" + ids[2] + "</loc>")));
+        mockMvc.perform(get("/feed/rss.xml"))
+                .andExpect(content().string(containsString("<title>Feed post 2</title>")));
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_DeltaPatchesAndDraftAutosave() throws Exception {
+        Blog blog = new Blog();
+        blog.setTitle("Delta post");
+        blog.setContent("Hello world, again");
+        blog.setPublished(true);
+        Blog created = blogService.createBlog(blog);
+        Long id = created.getId();
+        long version = created.getVersion();
+
+        String patch = "{\"baseVersion\": " + version + ", \"ops\": [{\"retain\": 6}, {\"delete\": 5}, {\"insert\": \"there\"}]}";
+        mockMvc.perform(patch("/api/blogs/" + id).contentType("application/json").content(patch))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(version + 1))
+                .andExpect(jsonPath("$.length").value(18));
+        assertThat(blogRepo.findById(id).orElseThrow().getContent()).isEqualTo("Hello there, again");
+        // Same base again is stale
+        mockMvc.perform(patch("/api/blogs/" + id).contentType("application/json").content(patch))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.currentVersion").value(version + 1));
+        mockMvc.perform(patch("/api/blogs/" + id).contentType("application/json")
+                        .content("{\"baseVersion\": " + (version + 1) + ", \"ops\": [{\"retain\": 500}]}"))
+                .andExpect(status().isBadRequest());
+
+        // Autosaves go to the draft and leave the blog alone until published
+        mockMvc.perform(patch("/api/blogs/" + id + "/draft").contentType("application/json")
+                        .content("{\"baseVersion\": " + (version + 1) + ", \"ops\": [{\"retain\": 18}, {\"insert\": \"!\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revision").value(0));
+        mockMvc.perform(patch("/api/blogs/" + id + "/draft").contentType("application/json")
+                        .content("{\"baseRevision\": 0, \"ops\": [{\"delete\": 5}, {\"insert\": \"Bye\"}], \"title\": \"Delta post v2\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.revision").value(1));
+        mockMvc.perform(patch("/api/blogs/" + id + "/draft").contentType("application/json")
+                        .content("{\"baseRevision\": 0, \"ops\": []}"))
+                .andExpect(status().isConflict());
+        assertThat(blogRepo.findById(id).orElseThrow().getVersion()).isEqualTo(version + 1);
+        // Content a TEXT column might not hold is refused up front, not at flush
+        mockMvc.perform(patch("/api/blogs/" + id + "/draft").contentType("application/json")
+                        .content("{\"baseRevision\": 1, \"ops\": [{\"retain\": 17}, {\"insert\": \"" + "x".repeat(21845) + "\"}]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/blogs/" + id + "/draft"))
+                .andExpect(jsonPath("$.content").value("Bye there, again!"));
+
+        mockMvc.perform(post("/api/blogs/" + id + "/draft/publish"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Delta post v2"))
+                .andExpect(jsonPath("$.content").value("Bye there, again!"));
+        mockMvc.perform(get("/api/blogs/" + id + "/draft")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/blogs/" + id)).andExpect(jsonPath("$.content").value("Bye there, again!"));
+    }
+
+    // 300 small edits to a ~20 KB post; PerformanceBenchmarkTest measures the same workload
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_RevisionHistoryStoresDeltasAndRestores() throws Exception {
+        Random random = new Random(42);
+        String[] words = {"spring", "delta", "history", "revision", "snapshot", "content", "editor", "blog", "post", "storage"};
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            StringBuilder line = new StringBuilder();
+            for (int w = 0; w < 10; w++) line.append(words[random.nextInt(words.length)]).append(w == 9 ? "." : " ");
+            lines.add(line.toString());
+        }
+        Blog blog = new Blog();
+        blog.setTitle("Revised post");
+        blog.setContent(String.join("\n", lines));
+        Long id = blogService.createBlog(blog).getId();
+        List<String> expected = new ArrayList<>();
+        expected.add(blog.getContent());
+
+        for (int edit = 1; edit < 300; edit++) {
+            if (edit % 3 == 0) {
+                lines.add(random.nextInt(lines.size()), "Inserted line " + edit);
+            } else {
+                lines.set(random.nextInt(lines.size()), "Rewritten line " + edit + " " + words[random.nextInt(words.length)]);
+            }
+            Blog update = new Blog();
+            update.setContent(String.join("\n", lines));
+            blogService.updateBlog(id, update);
+            expected.add(update.getContent());
+        }
+
+        Map<String, Object> storage = revisionService.getStorage(id);
+        assertThat(storage.get("revisions")).isEqualTo(300L);
+        assertThat((Double) storage.get("ratio")).isLessThan(0.05);
+        int maxReplayed = 0;
+        for (int revision = 1; revision <= 300; revision++) {
+            Map<String, Object> version = revisionService.get(id, revision);
+            assertThat(version.get("content")).isEqualTo(expected.get(revision - 1));
+            maxReplayed = Math.max(maxReplayed, (Integer) version.get("replayed"));
+        }
+        assertThat(maxReplayed).isLessThanOrEqualTo(25);
+
+        mockMvc.perform(get("/api/blogs/" + id + "/revisions").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(5))
+                .andExpect(jsonPath("$.items[0].revision").value(300));
+        mockMvc.perform(get("/api/blogs/" + id + "/revisions/diff").param("from", "1").param("to", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.linesAdded").value(1))
+                .andExpect(jsonPath("$.linesRemoved").value(1));
+        mockMvc.perform(post("/api/blogs/" + id + "/revisions/1/restore"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").value(expected.get(0)));
+        mockMvc.perform(get("/api/blogs/" + id + "/revisions/301"))
+                .andExpect(jsonPath("$.content").value(expected.get(0)));
+        mockMvc.perform(get("/api/blogs/" + id + "/revisions/999")).andExpect(status().isNotFound());
+
+        // A delete that fails on the comment's foreign key keeps the history
+        Comment comment = new Comment();
+        comment.setAuthor("Ann");
+        comment.setText("Keep this");
+        commentService.addComment(id, comment);
+        mockMvc.perform(delete("/api/blogs/" + id)).andExpect(status().isConflict());
+        assertThat(blogRepo.existsById(id)).isTrue();
+        assertThat(revisionService.getStorage(id).get("revisions")).isEqualTo(301L);
+        commentRepo.deleteAll();
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_ScheduledBlogsPublishOnTime() throws Exception {
+        // The wheel never fires early, even for timers that cascade down from upper levels
+        TimerWheel<String> wheel = new TimerWheel<>(10, 4, 3, 0);
+        wheel.schedule("soon", 25);
+        wheel.schedule("later", 500);
+        wheel.schedule("far", 5000);
+        wheel.schedule("cancelled", 100);
+        wheel.cancel("cancelled");
+        assertThat(wheel.advance(20)).isEmpty();
+        assertThat(wheel.advance(30)).containsExactly("soon");
+        assertThat(wheel.advance(499)).isEmpty();
+        assertThat(wheel.advance(500)).containsExactly("later");
+        assertThat(wheel.advance(4990)).isEmpty();
+        assertThat(wheel.advance(6000)).containsExactly("far");
+        assertThat(wheel.size()).isZero();
+
+        Blog blog = new Blog();
+        blog.setTitle("Scheduled post");
+        blog.setContent("Goes live shortly");
+        Long id = blogService.createBlog(blog).getId();
+        String publishAt = LocalDateTime.now().plusSeconds(1).toString();
+        mockMvc.perform(post("/api/blogs/" + id + "/schedule").contentType("application/json")
+                        .content("{\"publishAt\": \"" + publishAt + "\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("SCHEDULED"))
+                .andExpect(jsonPath("$.published").value(false));
+        mockMvc.perform(post("/api/blogs/" + id + "/schedule").contentType("application/json")
+                        .content("{\"publishAt\": \"2001-01-01T00:00:00\"}"))
+                .andExpect(status().isBadRequest());
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!blogRepo.findById(id).orElseThrow().isPublished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        Blog live = blogRepo.findById(id).orElseThrow();
+        assertThat(live.isPublished()).isTrue();
+        assertThat(live.getStatus()).isEqualTo("PUBLISHED");
+        assertThat(live.getUpdatedAt()).isAfterOrEqualTo(live.getPublishAt());
+        mockMvc.perform(get("/feed/rss.xml"))
+                .andExpect(content().string(containsString("<title>Scheduled post</title>")));
+
+        // A timer missed while the node was down is recovered on reload; the claim publishes it only once
+        Blog missed = new Blog();
+        missed.setTitle("Missed schedule");
+        missed.setContent("Was due while the node was down");
+        missed.setStatus("SCHEDULED");
+        missed.setPublishAt(LocalDateTime.now().minusMinutes(5));
+        missed = blogRepo.save(missed);
+        assertThat(blogService.publishScheduled(id)).isNull();
+        publishScheduler.reload();
+        deadline = System.currentTimeMillis() + 10000;
+        while (!blogRepo.findById(missed.getId()).orElseThrow().isPublished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(100);
+        }
+        assertThat(blogRepo.findById(missed.getId()).orElseThrow().isPublished()).isTrue();
+        assertThat(blogService.publishScheduled(missed.getId())).isNull();
+    }
+
+    @Test
+    public void SpringBoot_DevelopCoreAPIsAndBusinessLogic_SinglePassTextAnalysis() {
+        TextAnalysis text = TextAnalyzer.analyze("# Caching in Java\n\nWhy cache? Caching isn't free.\n"
+                + "- Read the [docs](https://example.com).\n1. Add ![a chart](chart.png) to the post!");
+        assertThat(text.getWordCount()).isEqualTo(20);
+        assertThat(text.getSentenceCount()).isEqualTo(5);
+        assertThat(text.getQuestionMarkCount()).isEqualTo(1);
+        assertThat(text.getTermFrequency("caching")).isEqualTo(2);
+        assertThat(text.getTermFrequency("CACHE")).isEqualTo(1);
+        assertThat(text.getTermFrequency("isn't")).isEqualTo(0);
+        assertThat(text.getTermFrequency("isnt")).isEqualTo(1);
+        assertThat(TextAnalyzer.analyze("Don\u2019t panic").getTermFrequency("dont")).isEqualTo(1);
+        assertThat(text.hasHeadings() && text.hasLists() && text.hasLinks() && text.hasImages()).isTrue();
+        TextAnalysis plain = TextAnalyzer.analyze("No structure here - just 3 * 4 and a C# mention.");
+        assertThat(plain.hasHeadings() || plain.hasLists() || plain.hasLinks() || plain.hasImages()).isFalse();
+        assertThat(TextAnalyzer.analyze("The cat sat. Make a cake").getSyllableCount()).isEqualTo(6);
+
+        // Same slugs as the regex pipeline it replaces
+        String[] titles = {"Hello, World - 2024!", "  --Spaces\tand\nTabs--  ", "Café au lait", "C++ & Java: a -- comparison", "???"};
+        for (String title : titles) {
+            String expected = title.toLowerCase().replaceAll("[^a-z0-9\\s-]", "").replaceAll("\\s+", "-")
+                    .replaceAll("-+", "-").replaceAll("^-|-$", "");
+            assertThat(seoService.generateSlug(title)).isEqualTo(expected);
+        }
+
+        Blog blog = new Blog();
+        blog.setTitle("Tuning Java caches for throughput");
+        blog.setContent("Java caches help. Tuning caches for throughput matters; java tuning is easy.");
+        Map<String, Object> seo = seoService.analyzeSEO(blog);
+        assertThat(seo.get("wordCount")).isEqualTo(12);
+        @SuppressWarnings("unchecked")
+        Map<String, Double> density = (Map<String, Double>) seo.get("keywordDensity");
+        assertThat(density.get("java")).isEqualTo(2 * 100.0 / 12);
+        assertThat(density.get("caches")).isEqualTo(2 * 100.0 / 12);
+        assertThat(density).doesNotContainKey("for");
+    }
+}